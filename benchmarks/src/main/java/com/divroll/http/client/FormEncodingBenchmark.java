@@ -0,0 +1,62 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code application/x-www-form-urlencoded} body encoding of form fields.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormEncodingBenchmark {
+
+    @Param({Payloads.TINY, Payloads.SMALL, Payloads.LARGE, Payloads.HUGE})
+    public String size;
+
+    private PostRequest request;
+
+    @Setup
+    public void setUp() {
+        request = new PostRequest("https://api.example.com/form");
+        for (Map.Entry<String, String> e : Payloads.entries(size).entrySet()) {
+            request.field(e.getKey(), e.getValue());
+        }
+    }
+
+    @Benchmark
+    public String encodeFields() {
+        return request.encodeFields();
+    }
+}
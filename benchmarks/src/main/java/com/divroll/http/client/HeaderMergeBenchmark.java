@@ -0,0 +1,74 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolving caller headers, JSON defaults and authorization into a
+ * {@link PendingRequest}, which happens once per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeaderMergeBenchmark {
+
+    @Param({"2", "16", "64"})
+    public int headerCount;
+
+    private PostRequest request;
+    private RequestTemplate.Call templateCall;
+
+    @Setup
+    public void setUp() {
+        request = new PostRequest("https://api.example.com/posts");
+        RequestTemplate.Builder builder = RequestTemplate.builder("POST", "https://api.example.com/posts");
+        for (int i = 0; i < headerCount; i++) {
+            // Every other header differs only in case, exercising the case-insensitive merge
+            String name = (i % 2 == 0 ? "X-Header-" : "x-header-") + (i / 2);
+            request.header(name, Payloads.value(32, i));
+            builder.header(name, Payloads.value(32, i));
+        }
+        request.header("accept", "application/json");
+        templateCall = builder.build().newCall().body("{}");
+    }
+
+    @Benchmark
+    public PendingRequest merge() {
+        return request.newPendingRequest("POST", "{}");
+    }
+
+    @Benchmark
+    public PendingRequest template() {
+        return templateCall.toPendingRequest();
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Payload shapes shared by the benchmarks, from a single short value up to
+ * several megabytes. Values mix ASCII, reserved and non-ASCII characters so
+ * encoding takes its slow paths too.
+ */
+final class Payloads {
+    static final String TINY = "tiny";
+    static final String SMALL = "small";
+    static final String LARGE = "large";
+    static final String HUGE = "huge";
+
+    private static final String ALPHABET = "abc DEF 123 &=?/ \u00e9\u00fc\u4e2d-_.~";
+
+    private Payloads() {
+    }
+
+    /**
+     * @return entries as name to value, sized by the payload name
+     */
+    static Map<String, String> entries(String size) {
+        switch (size) {
+            case TINY:
+                return entries(1, 8);
+            case SMALL:
+                return entries(10, 64);
+            case LARGE:
+                return entries(100, 4 * 1024);
+            case HUGE:
+                return entries(16, 256 * 1024);
+            default:
+                throw new IllegalArgumentException(size);
+        }
+    }
+
+    static Map<String, String> entries(int count, int valueLength) {
+        Map<String, String> entries = new LinkedHashMap<String, String>();
+        for (int i = 0; i < count; i++) {
+            entries.put("param" + i, value(valueLength, i));
+        }
+        return entries;
+    }
+
+    static String value(int length, int seed) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET.charAt((i + seed) % ALPHABET.length()));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query string encoding per call through {@link HttpRequest#queries(Map)}
+ * versus the fragment a {@link RequestTemplate} encodes once at build time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryStringBenchmark {
+
+    @Param({Payloads.TINY, Payloads.SMALL, Payloads.LARGE, Payloads.HUGE})
+    public String size;
+
+    private GetRequest request;
+    private RequestTemplate.Call templateCall;
+
+    @Setup
+    public void setUp() {
+        Map<String, String> params = Payloads.entries(size);
+        request = new GetRequest("https://api.example.com/posts", HttpRequest.EmptyHeaders, params);
+        RequestTemplate.Builder builder = RequestTemplate.builder("GET", "https://api.example.com/posts/{id}");
+        for (Map.Entry<String, String> e : params.entrySet()) {
+            builder.queryString(e.getKey(), e.getValue());
+        }
+        templateCall = builder.build().bind("id", 42);
+    }
+
+    @Benchmark
+    public String buildUrl() {
+        return request.buildUrl();
+    }
+
+    @Benchmark
+    public String templateUrl() {
+        return templateCall.toPendingRequest().getUrl();
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.google.gwt.core.client;
+
+/**
+ * JVM shim of GWT's {@code GWT}; split points run synchronously.
+ */
+public final class GWT {
+    private GWT() {
+    }
+
+    public static void runAsync(Class<?> name, RunAsyncCallback callback) {
+        callback.onSuccess();
+    }
+
+    public static void runAsync(RunAsyncCallback callback) {
+        callback.onSuccess();
+    }
+}
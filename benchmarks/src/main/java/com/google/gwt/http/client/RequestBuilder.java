@@ -0,0 +1,58 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.google.gwt.http.client;
+
+/**
+ * JVM shim of GWT's {@code RequestBuilder}. Only the method constants are
+ * functional; sending throws because the benchmarks stop before the network.
+ */
+public class RequestBuilder {
+    public static final class Method {
+        private final String name;
+
+        private Method(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    public static final Method DELETE = new Method("DELETE");
+    public static final Method GET = new Method("GET");
+    public static final Method HEAD = new Method("HEAD");
+    public static final Method POST = new Method("POST");
+    public static final Method PUT = new Method("PUT");
+
+    protected RequestBuilder(String httpMethod, String url) {
+    }
+
+    public RequestBuilder(Method httpMethod, String url) {
+    }
+
+    public void setHeader(String header, String value) {
+    }
+
+    public void setTimeoutMillis(int timeoutMillis) {
+    }
+
+    public Request sendRequest(String requestData, RequestCallback callback) throws RequestException {
+        throw new RequestException("Sending is not supported on the JVM");
+    }
+}
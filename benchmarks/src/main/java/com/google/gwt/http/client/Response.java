@@ -0,0 +1,34 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.google.gwt.http.client;
+
+/**
+ * JVM shim of GWT's {@code Response}.
+ */
+public abstract class Response {
+    public abstract String getHeader(String header);
+
+    public abstract Header[] getHeaders();
+
+    public abstract String getHeadersAsString();
+
+    public abstract int getStatusCode();
+
+    public abstract String getStatusText();
+
+    public abstract String getText();
+}
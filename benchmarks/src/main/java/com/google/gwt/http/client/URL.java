@@ -0,0 +1,60 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.google.gwt.http.client;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JVM shim for GWT's JSNI-backed {@code URL}. Encodes like the browser's
+ * {@code encodeURIComponent}, with spaces as {@code +} in query components
+ * as GWT does.
+ */
+public final class URL {
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private URL() {
+    }
+
+    public static String encodeComponent(String decodedURLComponent) {
+        return encode(decodedURLComponent, true);
+    }
+
+    public static String encodeQueryString(String decodedURLComponent) {
+        return encode(decodedURLComponent, true);
+    }
+
+    public static String encodePathSegment(String decodedURLComponent) {
+        return encode(decodedURLComponent, false);
+    }
+
+    private static String encode(String value, boolean spaceAsPlus) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        StringBuilder sb = new StringBuilder(bytes.length + 16);
+        for (byte b : bytes) {
+            int c = b & 0xff;
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || "-_.!~*'()".indexOf(c) >= 0) {
+                sb.append((char) c);
+            } else if (c == ' ' && spaceAsPlus) {
+                sb.append('+');
+            } else {
+                sb.append('%').append(HEX[c >> 4]).append(HEX[c & 0xf]);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,462 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a {@code <ClassName>_Codec} for every class annotated with
+ * {@code com.divroll.http.client.codec.JsonCodec}. The generated codec reads
+ * fields from a {@code JsonNode} and writes them to a {@code JsonWriter} with
+ * plain field or accessor calls, so nothing is resolved at runtime and the
+ * output compiles under GWT. Members missing from the JSON keep the value
+ * assigned by the no-argument constructor.
+ */
+@SupportedAnnotationTypes(JsonCodecProcessor.JSON_CODEC)
+public class JsonCodecProcessor extends AbstractProcessor {
+
+    static final String JSON_CODEC = "com.divroll.http.client.codec.JsonCodec";
+    static final String JSON_PROPERTY = "com.divroll.http.client.codec.JsonProperty";
+    private static final String JSON_NODE = "com.divroll.http.client.JsonNode";
+    private static final String JSON_WRITER = "com.divroll.http.client.codec.JsonWriter";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS) {
+                    error(element, "@JsonCodec is only supported on classes");
+                    continue;
+                }
+                try {
+                    generate((TypeElement) element);
+                } catch (UnsupportedOperationException e) {
+                    // already reported against the offending element
+                } catch (IOException e) {
+                    error(element, "Could not write codec: " + e.getMessage());
+                }
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        if (!type.getTypeParameters().isEmpty()) {
+            error(type, "@JsonCodec classes cannot be generic");
+            return;
+        }
+        if (type.getModifiers().contains(Modifier.PRIVATE)
+                || (type.getNestingKind().isNested() && !type.getModifiers().contains(Modifier.STATIC))) {
+            error(type, "@JsonCodec classes must be top-level or static nested and not private");
+            return;
+        }
+        if (!hasNoArgConstructor(type)) {
+            error(type, "@JsonCodec classes need a non-private no-argument constructor");
+            return;
+        }
+        List<Property> properties = new ArrayList<Property>();
+        boolean finalFields = false;
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+                continue;
+            }
+            if (modifiers.contains(Modifier.FINAL)) {
+                // The generated read() assigns every field after construction
+                error(field, "@JsonCodec field '" + field.getSimpleName() + "' cannot be final; "
+                        + "make it transient to leave it out of the codec");
+                finalFields = true;
+                continue;
+            }
+            properties.add(property(type, field));
+        }
+        if (finalFields) {
+            return;
+        }
+
+        String packageName = packageOf(type).getQualifiedName().toString();
+        String codecName = codecSimpleName(type);
+        String typeName = type.getQualifiedName().toString();
+
+        StringBuilder src = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            src.append("package ").append(packageName).append(";\n\n");
+        }
+        src.append("/** Generated from {@link ").append(typeName).append("}; do not edit. */\n");
+        src.append("public final class ").append(codecName)
+                .append(" implements com.divroll.http.client.codec.Codec<").append(typeName).append("> {\n\n");
+        src.append("    public static final ").append(codecName).append(" INSTANCE = new ")
+                .append(codecName).append("();\n\n");
+        src.append("    private ").append(codecName).append("() {\n    }\n\n");
+
+        src.append("    @Override\n");
+        src.append("    public void write(").append(JSON_WRITER).append(" out, ").append(typeName).append(" value) {\n");
+        src.append("        if (value == null) {\n            out.nullValue();\n            return;\n        }\n");
+        src.append("        out.beginObject();\n");
+        for (Property p : properties) {
+            src.append("        out.name(\"").append(escape(p.jsonName)).append("\");\n");
+            src.append("        {\n");
+            src.append("            ").append(p.type).append(" v = value.").append(p.getter).append(";\n");
+            appendWrite(src, "            ", p.field, p.type, "v");
+            src.append("        }\n");
+        }
+        src.append("        out.endObject();\n");
+        src.append("    }\n\n");
+
+        src.append("    @Override\n");
+        src.append("    public ").append(typeName).append(" read(").append(JSON_NODE).append(" node) {\n");
+        src.append("        if (node == null) {\n            return null;\n        }\n");
+        src.append("        ").append(typeName).append(" value = new ").append(typeName).append("();\n");
+        for (Property p : properties) {
+            String key = "\"" + escape(p.jsonName) + "\"";
+            src.append("        if (node.has(").append(key).append(")) {\n");
+            if (isList(p.type)) {
+                TypeMirror element = listElement(p.field, p.type);
+                src.append("            ").append(JSON_NODE).append(" array = node.get(").append(key).append(");\n");
+                src.append("            java.util.List<").append(element).append("> list = null;\n");
+                src.append("            if (array != null) {\n");
+                src.append("                list = new java.util.ArrayList<").append(element).append(">(array.size());\n");
+                src.append("                for (int i = 0; i < array.size(); i++) {\n");
+                src.append("                    list.add(").append(readExpression(p.field, element, "array", "i")).append(");\n");
+                src.append("                }\n");
+                src.append("            }\n");
+                src.append("            value.").append(p.setter("list")).append(";\n");
+            } else {
+                src.append("            value.").append(p.setter(readExpression(p.field, p.type, "node", key))).append(";\n");
+            }
+            src.append("        }\n");
+        }
+        src.append("        return value;\n");
+        src.append("    }\n");
+        src.append("}\n");
+
+        String qualified = packageName.isEmpty() ? codecName : packageName + "." + codecName;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualified, type);
+        Writer writer = file.openWriter();
+        try {
+            writer.write(src.toString());
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void appendWrite(StringBuilder src, String indent, Element field, TypeMirror type, String var) {
+        if (type.getKind().isPrimitive()) {
+            src.append(indent).append("out.value(").append(writeValue(type, var)).append(");\n");
+            return;
+        }
+        if (isCodecType(type)) {
+            src.append(indent).append(codecReference(type)).append(".write(out, ").append(var).append(");\n");
+            return;
+        }
+        src.append(indent).append("if (").append(var).append(" == null) {\n");
+        src.append(indent).append("    out.nullValue();\n");
+        if (isList(type)) {
+            TypeMirror element = listElement(field, type);
+            src.append(indent).append("} else {\n");
+            src.append(indent).append("    out.beginArray();\n");
+            src.append(indent).append("    for (").append(element).append(" item : ").append(var).append(") {\n");
+            appendWrite(src, indent + "        ", field, element, "item");
+            src.append(indent).append("    }\n");
+            src.append(indent).append("    out.endArray();\n");
+        } else {
+            scalar(field, type);
+            src.append(indent).append("} else {\n");
+            src.append(indent).append("    out.value(").append(writeValue(type, var)).append(");\n");
+        }
+        src.append(indent).append("}\n");
+    }
+
+    /**
+     * @return the argument for {@code JsonWriter.value} for a non-null scalar
+     */
+    private String writeValue(TypeMirror type, String var) {
+        switch (scalar(null, type)) {
+            case "char":
+            case "java.lang.Character":
+                return "String.valueOf(" + var + ")";
+            case "java.lang.Byte":
+            case "java.lang.Short":
+            case "java.lang.Integer":
+            case "java.lang.Long":
+                return var + ".longValue()";
+            case "java.lang.Float":
+            case "java.lang.Double":
+                return var + ".doubleValue()";
+            case "java.lang.Boolean":
+                return var + ".booleanValue()";
+            case "enum":
+                return var + ".name()";
+            default:
+                return var;
+        }
+    }
+
+    /**
+     * @return an expression reading {@code type} from member {@code key} of {@code node},
+     * where {@code key} is a string literal or an array index
+     */
+    private String readExpression(Element field, TypeMirror type, String node, String key) {
+        if (isCodecType(type)) {
+            return codecReference(type) + ".read(" + node + ".get(" + key + "))";
+        }
+        String number = node + ".getNumber(" + key + ")";
+        String string = node + ".getString(" + key + ")";
+        String absent = string + " == null ? null : ";
+        switch (scalar(field, type)) {
+            case "byte":
+                return "(byte) " + number;
+            case "short":
+                return "(short) " + number;
+            case "int":
+                return "(int) " + number;
+            case "long":
+                return "(long) " + number;
+            case "float":
+                return "(float) " + number;
+            case "double":
+                return number;
+            case "boolean":
+                return node + ".getBoolean(" + key + ")";
+            case "char":
+                return string + ".charAt(0)";
+            case "java.lang.Byte":
+                return absent + "Byte.valueOf((byte) " + number + ")";
+            case "java.lang.Short":
+                return absent + "Short.valueOf((short) " + number + ")";
+            case "java.lang.Integer":
+                return absent + "Integer.valueOf((int) " + number + ")";
+            case "java.lang.Long":
+                return absent + "Long.valueOf((long) " + number + ")";
+            case "java.lang.Float":
+                return absent + "Float.valueOf((float) " + number + ")";
+            case "java.lang.Double":
+                return absent + "Double.valueOf(" + number + ")";
+            case "java.lang.Boolean":
+                return absent + "Boolean.valueOf(" + node + ".getBoolean(" + key + "))";
+            case "java.lang.Character":
+                return absent + "Character.valueOf(" + string + ".charAt(0))";
+            case "enum":
+                return absent + type + ".valueOf(" + string + ")";
+            default:
+                return string;
+        }
+    }
+
+    /**
+     * Classifies a scalar type as a primitive name, a wrapper or String class
+     * name, or {@code "enum"}, reporting an error against {@code field} if the
+     * type is not supported.
+     */
+    private String scalar(Element field, TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return type.toString();
+        }
+        if (type.getKind() == TypeKind.DECLARED) {
+            Element element = ((DeclaredType) type).asElement();
+            if (element.getKind() == ElementKind.ENUM) {
+                return "enum";
+            }
+            String name = ((TypeElement) element).getQualifiedName().toString();
+            if (name.equals("java.lang.String")
+                    || (name.startsWith("java.lang.") && isWrapper(name.substring("java.lang.".length())))) {
+                return name;
+            }
+        }
+        if (field != null) {
+            error(field, "Unsupported @JsonCodec field type: " + type);
+        }
+        throw new UnsupportedOperationException(type.toString());
+    }
+
+    private static boolean isWrapper(String simpleName) {
+        switch (simpleName) {
+            case "Byte":
+            case "Short":
+            case "Integer":
+            case "Long":
+            case "Float":
+            case "Double":
+            case "Boolean":
+            case "Character":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private Property property(TypeElement type, VariableElement field) {
+        String name = field.getSimpleName().toString();
+        String jsonName = jsonName(field);
+        TypeMirror fieldType = field.asType();
+        if (!field.getModifiers().contains(Modifier.PRIVATE)) {
+            return new Property(field, fieldType, jsonName, name, name + " = ");
+        }
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        String getter = null;
+        String setter = null;
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (method.getModifiers().contains(Modifier.PRIVATE) || method.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            String methodName = method.getSimpleName().toString();
+            if (method.getParameters().isEmpty()
+                    && (methodName.equals("get" + capitalized) || methodName.equals("is" + capitalized))
+                    && processingEnv.getTypeUtils().isSameType(method.getReturnType(), fieldType)) {
+                getter = methodName;
+            } else if (method.getParameters().size() == 1 && methodName.equals("set" + capitalized)
+                    && processingEnv.getTypeUtils().isSameType(method.getParameters().get(0).asType(), fieldType)) {
+                setter = methodName;
+            }
+        }
+        if (getter == null || setter == null) {
+            error(field, "Private @JsonCodec field '" + name + "' needs a getter and a setter");
+            throw new UnsupportedOperationException(name);
+        }
+        return new Property(field, fieldType, jsonName, getter + "()", setter + "(");
+    }
+
+    private static String jsonName(VariableElement field) {
+        for (AnnotationMirror mirror : field.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(JSON_PROPERTY)) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e : mirror.getElementValues().entrySet()) {
+                    if (e.getKey().getSimpleName().contentEquals("value")) {
+                        return (String) e.getValue().getValue();
+                    }
+                }
+            }
+        }
+        return field.getSimpleName().toString();
+    }
+
+    private boolean hasNoArgConstructor(TypeElement type) {
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        for (ExecutableElement constructor : constructors) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isList(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        return element.getQualifiedName().contentEquals("java.util.List");
+    }
+
+    private TypeMirror listElement(Element field, TypeMirror type) {
+        List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+        if (arguments.size() != 1 || arguments.get(0).getKind() != TypeKind.DECLARED || isList(arguments.get(0))) {
+            error(field, "@JsonCodec lists need a concrete, non-list element type: " + type);
+            throw new UnsupportedOperationException(type.toString());
+        }
+        return arguments.get(0);
+    }
+
+    private static boolean isCodecType(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        for (AnnotationMirror mirror : ((DeclaredType) type).asElement().getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(JSON_CODEC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String codecReference(TypeMirror type) {
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        String packageName = packageOf(element).getQualifiedName().toString();
+        return (packageName.isEmpty() ? "" : packageName + ".") + codecSimpleName(element) + ".INSTANCE";
+    }
+
+    private static String codecSimpleName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        for (Element e = type.getEnclosingElement(); e instanceof TypeElement; e = e.getEnclosingElement()) {
+            name.insert(0, '_').insert(0, e.getSimpleName());
+        }
+        return name.append("_Codec").toString();
+    }
+
+    private PackageElement packageOf(Element element) {
+        return processingEnv.getElementUtils().getPackageOf(element);
+    }
+
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static final class Property {
+        final VariableElement field;
+        final TypeMirror type;
+        final String jsonName;
+        final String getter;
+        private final String assign;
+
+        Property(VariableElement field, TypeMirror type, String jsonName, String getter, String assign) {
+            this.field = field;
+            this.type = type;
+            this.jsonName = jsonName;
+            this.getter = getter;
+            this.assign = assign;
+        }
+
+        /**
+         * @return the statement (without semicolon) assigning {@code expression} to this property
+         */
+        String setter(String expression) {
+            return assign.endsWith("(") ? assign + expression + ")" : assign + expression;
+        }
+    }
+}
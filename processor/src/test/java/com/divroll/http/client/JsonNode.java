@@ -0,0 +1,268 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JVM stand-in for the client's JSNI-backed {@code JsonNode}, with the same
+ * accessors and the same answers for missing and {@code null} members, so
+ * generated codecs can run in plain JUnit tests.
+ */
+public class JsonNode {
+    private final Object value;
+
+    public JsonNode(String json) {
+        this(new Parser(json).parse());
+    }
+
+    private JsonNode(Object value) {
+        if (!(value instanceof Map) && !(value instanceof List)) {
+            throw new IllegalArgumentException("JSON value is not an object or array");
+        }
+        this.value = value;
+    }
+
+    public boolean isArray() {
+        return value instanceof List;
+    }
+
+    public int size() {
+        return value instanceof List ? ((List<?>) value).size() : ((Map<?, ?>) value).size();
+    }
+
+    public boolean has(String key) {
+        return value instanceof Map && ((Map<?, ?>) value).containsKey(key);
+    }
+
+    public JsonNode get(String key) {
+        return wrap(member(key));
+    }
+
+    public JsonNode get(int index) {
+        return wrap(element(index));
+    }
+
+    public String getString(String key) {
+        return string(member(key));
+    }
+
+    public String getString(int index) {
+        return string(element(index));
+    }
+
+    public double getNumber(String key) {
+        return number(member(key));
+    }
+
+    public double getNumber(int index) {
+        return number(element(index));
+    }
+
+    public boolean getBoolean(String key) {
+        return Boolean.TRUE.equals(member(key));
+    }
+
+    public boolean getBoolean(int index) {
+        return Boolean.TRUE.equals(element(index));
+    }
+
+    private Object member(String key) {
+        return value instanceof Map ? ((Map<?, ?>) value).get(key) : null;
+    }
+
+    private Object element(int index) {
+        List<?> list = value instanceof List ? (List<?>) value : null;
+        return list != null && index >= 0 && index < list.size() ? list.get(index) : null;
+    }
+
+    private static JsonNode wrap(Object child) {
+        return child instanceof Map || child instanceof List ? new JsonNode(child) : null;
+    }
+
+    private static String string(Object v) {
+        if (v instanceof Double && (Double) v == Math.rint((Double) v)) {
+            return String.valueOf(((Double) v).longValue());
+        }
+        return v != null ? String.valueOf(v) : null;
+    }
+
+    private static double number(Object v) {
+        return v instanceof Double ? (Double) v : Double.NaN;
+    }
+
+    private static final class Parser {
+        private final String json;
+        private int pos;
+
+        Parser(String json) {
+            this.json = json;
+        }
+
+        Object parse() {
+            Object result = value();
+            skipWhitespace();
+            if (pos != json.length()) {
+                throw error();
+            }
+            return result;
+        }
+
+        private Object value() {
+            skipWhitespace();
+            if (pos >= json.length()) {
+                throw error();
+            }
+            char c = json.charAt(pos);
+            switch (c) {
+                case '{':
+                    return object();
+                case '[':
+                    return array();
+                case '"':
+                    return string();
+                case 't':
+                    return literal("true", Boolean.TRUE);
+                case 'f':
+                    return literal("false", Boolean.FALSE);
+                case 'n':
+                    return literal("null", null);
+                default:
+                    return number();
+            }
+        }
+
+        private Map<String, Object> object() {
+            Map<String, Object> result = new LinkedHashMap<String, Object>();
+            pos++;
+            skipWhitespace();
+            if (peek('}')) {
+                return result;
+            }
+            do {
+                skipWhitespace();
+                String key = string();
+                skipWhitespace();
+                expect(':');
+                result.put(key, value());
+                skipWhitespace();
+            } while (peek(','));
+            expect('}');
+            return result;
+        }
+
+        private List<Object> array() {
+            List<Object> result = new ArrayList<Object>();
+            pos++;
+            skipWhitespace();
+            if (peek(']')) {
+                return result;
+            }
+            do {
+                result.add(value());
+                skipWhitespace();
+            } while (peek(','));
+            expect(']');
+            return result;
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = json.charAt(pos++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char e = json.charAt(pos++);
+                switch (e) {
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'u':
+                        sb.append((char) Integer.parseInt(json.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default:
+                        sb.append(e);
+                }
+            }
+        }
+
+        private Double number() {
+            int start = pos;
+            while (pos < json.length() && "+-0123456789.eE".indexOf(json.charAt(pos)) >= 0) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error();
+            }
+            return Double.valueOf(json.substring(start, pos));
+        }
+
+        private Object literal(String text, Object result) {
+            if (!json.startsWith(text, pos)) {
+                throw error();
+            }
+            pos += text.length();
+            return result;
+        }
+
+        private boolean peek(char c) {
+            if (pos < json.length() && json.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!peek(c)) {
+                throw error();
+            }
+        }
+
+        private void skipWhitespace() {
+            while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException error() {
+            return new IllegalArgumentException("Invalid JSON at " + pos + ": " + json);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.processor;
+
+import com.divroll.http.client.JsonNode;
+import org.junit.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Compiles {@code @JsonCodec} fixtures with the processor and runs the
+ * generated codecs. The codec API and annotations are compiled from the
+ * client sources; {@code JsonNode} and {@code JsonWriter} are the JVM
+ * stand-ins from this module's tests.
+ */
+public class JsonCodecProcessorTest {
+    private static final File CLIENT_CODEC = new File("../src/main/java/com/divroll/http/client/codec");
+
+    private static final String STATUS = "package fixture;\n"
+            + "public enum Status { DRAFT, LIVE }\n";
+
+    private static final String AUTHOR = "package fixture;\n"
+            + "import com.divroll.http.client.codec.JsonCodec;\n"
+            + "import com.divroll.http.client.codec.JsonProperty;\n"
+            + "@JsonCodec\n"
+            + "public class Author {\n"
+            + "    public String name;\n"
+            + "    @JsonProperty(\"born_year\") public Integer bornYear;\n"
+            + "}\n";
+
+    private static final String POST = "package fixture;\n"
+            + "import com.divroll.http.client.codec.JsonCodec;\n"
+            + "import java.util.List;\n"
+            + "@JsonCodec\n"
+            + "public class Post {\n"
+            + "    public static int instances;\n"
+            + "    public int id;\n"
+            + "    public String title;\n"
+            + "    public Status status;\n"
+            + "    public Author author;\n"
+            + "    public List<String> tags;\n"
+            + "    public List<Author> editors;\n"
+            + "    public List<Status> history;\n"
+            + "    public Double score = 1.0;\n"
+            + "    public Long views = 5L;\n"
+            + "    private boolean published;\n"
+            + "    public float rating;\n"
+            + "    public transient String cache = \"kept\";\n"
+            + "    public boolean isPublished() { return published; }\n"
+            + "    public void setPublished(boolean published) { this.published = published; }\n"
+            + "}\n";
+
+    @Test
+    public void generatedCodecsRoundTrip() throws Exception {
+        Compilation compilation = compile(STATUS, AUTHOR, POST);
+        compilation.assertSucceeded();
+        Object codec = compilation.codec("fixture.Post_Codec");
+
+        String json = "{\"id\":7,\"title\":\"Hello \\\"world\\\"\",\"status\":\"LIVE\","
+                + "\"author\":{\"name\":\"Ann\",\"born_year\":1990},\"tags\":[\"a\",\"b\"],"
+                + "\"editors\":[{\"name\":\"Bob\",\"born_year\":null}],\"history\":[\"DRAFT\",\"LIVE\"],"
+                + "\"score\":null,\"published\":true,\"rating\":2.5,\"cache\":\"ignored\"}";
+        Object post = decode(codec, json);
+        assertEquals(7, get(post, "id"));
+        assertEquals("Hello \"world\"", get(post, "title"));
+        assertEquals("LIVE", String.valueOf(get(post, "status")));
+        Object author = get(post, "author");
+        assertEquals("Ann", get(author, "name"));
+        assertEquals(1990, get(author, "bornYear"));
+        assertEquals(Arrays.asList("a", "b"), get(post, "tags"));
+        Object editor = ((List<?>) get(post, "editors")).get(0);
+        assertEquals("Bob", get(editor, "name"));
+        assertNull(get(editor, "bornYear"));
+        assertEquals("[DRAFT, LIVE]", String.valueOf(get(post, "history")));
+        assertNull("explicit null replaces the constructor value", get(post, "score"));
+        assertEquals("a missing member keeps the constructor value", 5L, get(post, "views"));
+        assertEquals(Boolean.TRUE, post.getClass().getMethod("isPublished").invoke(post));
+        assertEquals(2.5f, get(post, "rating"));
+        assertEquals("kept", get(post, "cache"));
+
+        assertEquals("{\"id\":7,\"title\":\"Hello \\\"world\\\"\",\"status\":\"LIVE\","
+                + "\"author\":{\"name\":\"Ann\",\"born_year\":1990},\"tags\":[\"a\",\"b\"],"
+                + "\"editors\":[{\"name\":\"Bob\",\"born_year\":null}],\"history\":[\"DRAFT\",\"LIVE\"],"
+                + "\"score\":null,\"views\":5,\"published\":true,\"rating\":2.5}", encode(codec, post));
+    }
+
+    @Test
+    public void missingNestedValuesStayNull() throws Exception {
+        Compilation compilation = compile(STATUS, AUTHOR, POST);
+        compilation.assertSucceeded();
+        Object codec = compilation.codec("fixture.Post_Codec");
+
+        Object post = decode(codec, "{\"id\":1,\"author\":null,\"tags\":null}");
+        assertNull(get(post, "author"));
+        assertNull(get(post, "tags"));
+        assertNull(get(post, "status"));
+        assertEquals("{\"id\":1,\"title\":null,\"status\":null,\"author\":null,\"tags\":null,\"editors\":null,"
+                + "\"history\":null,\"score\":1,\"views\":5,\"published\":false,\"rating\":0}", encode(codec, post));
+    }
+
+    @Test
+    public void finalFieldsAreRejected() throws Exception {
+        Compilation compilation = compile("package fixture;\n"
+                + "@com.divroll.http.client.codec.JsonCodec\n"
+                + "public class Frozen {\n"
+                + "    public final int version = 1;\n"
+                + "    public String name;\n"
+                + "}\n");
+        assertFalse(compilation.success);
+        assertTrue(compilation.errors(), compilation.errors().contains("'version' cannot be final"));
+        try {
+            compilation.loader.loadClass("fixture.Frozen_Codec");
+            fail("No codec should be generated for a class with final fields");
+        } catch (ClassNotFoundException expected) {
+        }
+    }
+
+    @Test
+    public void privateFieldsNeedAccessors() throws Exception {
+        Compilation compilation = compile("package fixture;\n"
+                + "@com.divroll.http.client.codec.JsonCodec\n"
+                + "public class Hidden {\n"
+                + "    private String name;\n"
+                + "    public String getName() { return name; }\n"
+                + "}\n");
+        assertFalse(compilation.success);
+        assertTrue(compilation.errors(), compilation.errors().contains("needs a getter and a setter"));
+    }
+
+    private static Object decode(Object codec, String json) throws Exception {
+        Method read = codec.getClass().getMethod("read", JsonNode.class);
+        return read.invoke(codec, new JsonNode(json));
+    }
+
+    private static String encode(Object codec, Object value) throws Exception {
+        return (String) codec.getClass().getMethod("encode", Object.class).invoke(codec, value);
+    }
+
+    private static Object get(Object target, String field) throws Exception {
+        Field f = target.getClass().getField(field);
+        return f.get(target);
+    }
+
+    private static Compilation compile(String... sources) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8);
+        List<JavaFileObject> units = new ArrayList<JavaFileObject>();
+        for (String name : new String[] {"Codec", "JsonCodec", "JsonProperty"}) {
+            File file = new File(CLIENT_CODEC, name + ".java");
+            assertTrue("Client source not found: " + file, file.isFile());
+            for (JavaFileObject object : files.getJavaFileObjects(file)) {
+                units.add(object);
+            }
+        }
+        for (String source : sources) {
+            units.add(new Source(source));
+        }
+        File out = Files.createTempDirectory("codec-fixtures").toFile();
+        String classpath = new File(JsonNode.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+        List<String> options = Arrays.asList("-d", out.getPath(), "-s", out.getPath(), "-classpath", classpath);
+        JavaCompiler.CompilationTask task = compiler.getTask(null, files, diagnostics, options, null, units);
+        task.setProcessors(Collections.singletonList(new JsonCodecProcessor()));
+        boolean success = task.call();
+        files.close();
+        ClassLoader loader = new URLClassLoader(new URL[] {out.toURI().toURL()},
+                JsonCodecProcessorTest.class.getClassLoader());
+        return new Compilation(success, diagnostics.getDiagnostics(), loader);
+    }
+
+    private static final class Compilation {
+        final boolean success;
+        final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+        final ClassLoader loader;
+
+        Compilation(boolean success, List<Diagnostic<? extends JavaFileObject>> diagnostics, ClassLoader loader) {
+            this.success = success;
+            this.diagnostics = diagnostics;
+            this.loader = loader;
+        }
+
+        String errors() {
+            StringBuilder sb = new StringBuilder();
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+                if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                    sb.append(diagnostic.getMessage(null)).append('\n');
+                }
+            }
+            return sb.toString();
+        }
+
+        void assertSucceeded() {
+            assertTrue(errors(), success);
+        }
+
+        Object codec(String name) throws Exception {
+            return loader.loadClass(name).getField("INSTANCE").get(null);
+        }
+    }
+
+    private static final class Source extends SimpleJavaFileObject {
+        private static final Pattern NAME = Pattern.compile("public (?:class|enum) (\\w+)");
+
+        private final String code;
+
+        Source(String code) {
+            super(URI.create("string:///fixture/" + name(code) + ".java"), Kind.SOURCE);
+            this.code = code;
+        }
+
+        private static String name(String code) {
+            Matcher m = NAME.matcher(code);
+            if (!m.find()) {
+                throw new IllegalArgumentException("No public type in fixture");
+            }
+            return m.group(1);
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+}
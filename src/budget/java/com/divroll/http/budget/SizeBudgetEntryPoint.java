@@ -0,0 +1,39 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.budget;
+
+import com.divroll.http.client.HttpClient;
+import com.google.gwt.core.client.EntryPoint;
+
+/**
+ * Exercises the core request path so the size budget measures what a typical
+ * application pays for the client.
+ */
+public class SizeBudgetEntryPoint implements EntryPoint {
+    @Override
+    public void onModuleLoad() {
+        HttpClient.get("/size-budget")
+                .asJson()
+                .then(response -> {
+                    response.getBody().size();
+                    return null;
+                }, error -> null);
+        HttpClient.post("/size-budget")
+                .body("{}")
+                .asString();
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import com.google.gwt.http.client.RequestBuilder;
+
+/**
+ * A client for one backend. The base URL, default headers, timeout and size
+ * cap are resolved once when the client is built, so each call only supplies
+ * its path and the parts that vary. With {@link Builder#setMaxConcurrentRequests(int)}
+ * the client also gets its own pool of in-flight requests: a slow backend then
+ * queues its own requests instead of taking the connections of the others.
+ *
+ * <pre>
+ * BackendClient search = HttpClient.backend("https://search.example.com/v1")
+ *         .header("X-Api-Key", key)
+ *         .setTimeout(5000)
+ *         .setMaxConcurrentRequests(2)
+ *         .build();
+ * search.get("/query").queryString("q", "gwt").asJson();
+ * </pre>
+ *
+ * <p>Requests still run through the interceptors registered on {@link HttpClient};
+ * the pool is applied after them, just before the request is sent.
+ */
+public class BackendClient {
+    private final String baseUrl;
+    private final String[] headerNames;
+    private final String[] headerValues;
+    private final int timeout;
+    private final int maxResponseBytes;
+    private final RequestPool pool;
+
+    private BackendClient(Builder builder) {
+        this.baseUrl = builder.baseUrl;
+        Headers headers = builder.headers;
+        headers.setDefault("accept", "application/json");
+        headers.setDefault("Content-Type", "application/json");
+        this.headerNames = headers.names();
+        this.headerValues = headers.values();
+        this.timeout = builder.timeout;
+        this.maxResponseBytes = builder.maxResponseBytes;
+        this.pool = builder.maxConcurrentRequests > 0 ? new RequestPool(builder.maxConcurrentRequests) : null;
+    }
+
+    public static Builder builder(String baseUrl) {
+        return new Builder(baseUrl);
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * @return the pool size, or 0 if requests of this client are not pooled
+     */
+    public int getMaxConcurrentRequests() {
+        return pool != null ? pool.getMaxInFlight() : 0;
+    }
+
+    public int getInFlight() {
+        return pool != null ? pool.getInFlight() : 0;
+    }
+
+    public int getQueuedCount() {
+        return pool != null ? pool.getQueuedCount() : 0;
+    }
+
+    public GetRequest get(String path) {
+        return configure(new GetRequest(resolve(path)));
+    }
+
+    public HeadRequest head(String path) {
+        return configure(new HeadRequest(resolve(path)));
+    }
+
+    public PostRequest post(String path) {
+        return configure(new PostRequest(resolve(path)));
+    }
+
+    public PutRequest put(String path) {
+        return configure(new PutRequest(resolve(path)));
+    }
+
+    public DeleteRequest delete(String path) {
+        return configure(new DeleteRequest(resolve(path)));
+    }
+
+    public PatchRequest patch(String path) {
+        return configure(new PatchRequest(resolve(path)));
+    }
+
+    /**
+     * Starts a prepared request for a URI template relative to the base URL,
+     * carrying this client's defaults and pool.
+     */
+    public RequestTemplate.Builder template(RequestBuilder.Method method, String uriTemplate) {
+        return template(method.toString(), uriTemplate);
+    }
+
+    public RequestTemplate.Builder template(String method, String uriTemplate) {
+        RequestTemplate.Builder builder = RequestTemplate.builder(method, resolve(uriTemplate))
+                .setTimeout(timeout)
+                .setMaxResponseBytes(maxResponseBytes)
+                .pool(pool);
+        for (int i = 0; i < headerNames.length; i++) {
+            builder.header(headerNames[i], headerValues[i]);
+        }
+        return builder;
+    }
+
+    /**
+     * Joins {@code path} to the base URL with a single slash; absolute URLs are returned as they are.
+     */
+    public String resolve(String path) {
+        if (path == null || path.isEmpty()) {
+            return baseUrl;
+        }
+        if (isAbsolute(path)) {
+            return path;
+        }
+        boolean baseSlash = baseUrl.endsWith("/");
+        boolean pathSlash = path.charAt(0) == '/';
+        if (baseSlash && pathSlash) {
+            return baseUrl + path.substring(1);
+        }
+        if (baseSlash || pathSlash || path.charAt(0) == '?') {
+            return baseUrl + path;
+        }
+        return baseUrl + "/" + path;
+    }
+
+    /**
+     * Copies the precomputed default headers and the pool into a request created by this client.
+     * Headers set on the request itself are applied afterwards and win.
+     */
+    void applyTo(PendingRequest request) {
+        request.putNormalizedHeaders(headerNames, headerValues);
+        request.setPool(pool);
+    }
+
+    private <R extends HttpRequest> R configure(R request) {
+        request.client = this;
+        request.TIMEOUT = timeout;
+        request.maxResponseBytes = maxResponseBytes;
+        return request;
+    }
+
+    private static boolean isAbsolute(String path) {
+        if (path.startsWith("//")) {
+            return true;
+        }
+        int scheme = path.indexOf("://");
+        if (scheme <= 0) {
+            return false;
+        }
+        for (int i = 0; i < scheme; i++) {
+            char c = path.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '+' && c != '-' && c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static class Builder {
+        private final String baseUrl;
+        private final Headers headers = new Headers();
+        private int timeout = 60000;
+        private int maxResponseBytes;
+        private int maxConcurrentRequests;
+
+        private Builder(String baseUrl) {
+            this.baseUrl = baseUrl != null ? baseUrl : "";
+        }
+
+        public Builder header(String name, String value) {
+            headers.set(name, value);
+            return this;
+        }
+
+        public Builder basicAuth(String username, String password) {
+            headers.set("Authorization", "Basic " + Base64.btoa(username + ":" + password));
+            return this;
+        }
+
+        public Builder setTimeout(int timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * @see ResponseLimits
+         */
+        public Builder setMaxResponseBytes(int maxResponseBytes) {
+            this.maxResponseBytes = maxResponseBytes;
+            return this;
+        }
+
+        /**
+         * Limits this client to {@code maxConcurrentRequests} requests in flight; further
+         * requests wait in order. 0, the default, leaves requests unpooled.
+         * A waiting request cannot be cancelled, and its timeout starts only once it is sent.
+         */
+        public Builder setMaxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = Math.max(0, maxConcurrentRequests);
+            return this;
+        }
+
+        public BackendClient build() {
+            return new BackendClient(this);
+        }
+    }
+}
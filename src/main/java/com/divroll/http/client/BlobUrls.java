@@ -0,0 +1,296 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.Scheduler;
+import elemental2.dom.Blob;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reference-counted registry of {@code blob:} URLs. A URL stays valid while it
+ * has references and is revoked, freeing the blob, when the last one is
+ * released. URLs can also be revoked automatically after a maximum age, and
+ * the oldest are revoked first once the live count or bytes exceed a cap.
+ *
+ * <pre>
+ * try (BlobUrls.Scope scope = BlobUrls.openScope()) {
+ *     image.setSrc(scope.create(blob));
+ *     ...
+ * } // revoked here unless retained elsewhere
+ *
+ * String url = BlobUrls.create(blob, 60000);  // revoked after a minute at the latest
+ * </pre>
+ */
+public final class BlobUrls {
+
+    private static final Map<String, Entry> entries = new LinkedHashMap<String, Entry>();
+    private static int maxLiveUrls;
+    private static double maxLiveBytes;
+    private static int defaultMaxAgeMillis;
+    private static double liveBytes;
+    private static int createdCount;
+    private static int revokedCount;
+    private static double sweepAt;
+
+    private BlobUrls() {
+    }
+
+    /**
+     * Creates a URL with one reference, revoked after the default maximum age if one is set.
+     */
+    public static String create(Blob blob) {
+        return create(blob, defaultMaxAgeMillis);
+    }
+
+    /**
+     * @param maxAgeMillis revoke the URL this long after creation even if still referenced, 0 for no limit
+     */
+    public static String create(Blob blob, int maxAgeMillis) {
+        String url = createObjectUrl(blob);
+        Entry entry = new Entry(blob.size, maxAgeMillis > 0 ? Duration.currentTimeMillis() + maxAgeMillis : 0);
+        entries.put(url, entry);
+        liveBytes += entry.bytes;
+        createdCount++;
+        evict(url);
+        if (entry.expiresAt > 0 && entries.containsKey(url)) {
+            scheduleSweep(entry.expiresAt);
+        }
+        return url;
+    }
+
+    /**
+     * Adds a reference to a live URL.
+     * @return the url, or null if it is not managed here or was already revoked
+     */
+    public static String retain(String url) {
+        Entry entry = entries.get(url);
+        if (entry == null) {
+            return null;
+        }
+        entry.refs++;
+        return url;
+    }
+
+    /**
+     * Drops a reference, revoking the URL when none are left.
+     */
+    public static void release(String url) {
+        Entry entry = entries.get(url);
+        if (entry != null && --entry.refs <= 0) {
+            revoke(url);
+        }
+    }
+
+    /**
+     * Revokes the URL regardless of its references.
+     * @return whether the url was live
+     */
+    public static boolean revoke(String url) {
+        Entry entry = entries.remove(url);
+        if (entry == null) {
+            return false;
+        }
+        revoked(url, entry);
+        return true;
+    }
+
+    public static void revokeAll() {
+        for (String url : getLiveUrls()) {
+            revoke(url);
+        }
+    }
+
+    /**
+     * Opens a scope whose URLs are released together by {@link Scope#close()}.
+     */
+    public static Scope openScope() {
+        return new Scope();
+    }
+
+    /**
+     * @param maxLiveUrls revoke the oldest URLs beyond this many, 0 for no limit
+     */
+    public static void setMaxLiveUrls(int maxLiveUrls) {
+        BlobUrls.maxLiveUrls = maxLiveUrls;
+        evict(null);
+    }
+
+    /**
+     * @param maxLiveBytes revoke the oldest URLs while their blobs exceed this size, 0 for no limit
+     */
+    public static void setMaxLiveBytes(double maxLiveBytes) {
+        BlobUrls.maxLiveBytes = maxLiveBytes;
+        evict(null);
+    }
+
+    /**
+     * @param defaultMaxAgeMillis maximum age for URLs created without one, 0 for no limit
+     */
+    public static void setDefaultMaxAgeMillis(int defaultMaxAgeMillis) {
+        BlobUrls.defaultMaxAgeMillis = defaultMaxAgeMillis;
+    }
+
+    public static int getLiveCount() {
+        return entries.size();
+    }
+
+    /**
+     * @return total size of the blobs behind live URLs
+     */
+    public static double getLiveBytes() {
+        return liveBytes;
+    }
+
+    public static int getCreatedCount() {
+        return createdCount;
+    }
+
+    public static int getRevokedCount() {
+        return revokedCount;
+    }
+
+    /**
+     * @return live URLs, oldest first
+     */
+    public static String[] getLiveUrls() {
+        return entries.keySet().toArray(new String[0]);
+    }
+
+    /**
+     * Revokes the oldest URLs, other than {@code keep}, until both caps are met.
+     */
+    private static void evict(String keep) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext() && ((maxLiveUrls > 0 && entries.size() > maxLiveUrls)
+                || (maxLiveBytes > 0 && liveBytes > maxLiveBytes))) {
+            Map.Entry<String, Entry> oldest = it.next();
+            if (!oldest.getKey().equals(keep)) {
+                it.remove();
+                revoked(oldest.getKey(), oldest.getValue());
+            }
+        }
+    }
+
+    private static void revoked(String url, Entry entry) {
+        liveBytes -= entry.bytes;
+        revokedCount++;
+        revokeObjectUrl(url);
+    }
+
+    private static void scheduleSweep(double deadline) {
+        if (sweepAt > 0 && sweepAt <= deadline) {
+            return;
+        }
+        sweepAt = deadline;
+        Scheduler.get().scheduleFixedDelay(() -> {
+            if (sweepAt == deadline) {
+                sweepAt = 0;
+            }
+            sweep();
+            return false;
+        }, (int) Math.max(1, Math.ceil(deadline - Duration.currentTimeMillis())));
+    }
+
+    private static void sweep() {
+        double now = Duration.currentTimeMillis();
+        double next = 0;
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Entry> e = it.next();
+            double expiresAt = e.getValue().expiresAt;
+            if (expiresAt > 0 && expiresAt <= now) {
+                it.remove();
+                revoked(e.getKey(), e.getValue());
+            } else if (expiresAt > 0 && (next == 0 || expiresAt < next)) {
+                next = expiresAt;
+            }
+        }
+        if (next > 0) {
+            scheduleSweep(next);
+        }
+    }
+
+    private static native String createObjectUrl(Blob blob) /*-{
+        return $wnd.URL.createObjectURL(blob);
+    }-*/;
+
+    private static native void revokeObjectUrl(String url) /*-{
+        $wnd.URL.revokeObjectURL(url);
+    }-*/;
+
+    private static final class Entry {
+        final double bytes;
+        final double expiresAt;
+        int refs = 1;
+
+        Entry(double bytes, double expiresAt) {
+            this.bytes = bytes;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * URLs created or retained through a scope, each released once on {@link #close()}.
+     */
+    public static final class Scope implements AutoCloseable {
+        private List<String> urls = new ArrayList<String>();
+
+        private Scope() {
+        }
+
+        public String create(Blob blob) {
+            return add(BlobUrls.create(blob));
+        }
+
+        public String create(Blob blob, int maxAgeMillis) {
+            return add(BlobUrls.create(blob, maxAgeMillis));
+        }
+
+        public String retain(String url) {
+            return add(BlobUrls.retain(url));
+        }
+
+        private String add(String url) {
+            if (urls == null) {
+                if (url != null) {
+                    BlobUrls.release(url);
+                }
+                throw new IllegalStateException("Scope is closed");
+            }
+            if (url != null) {
+                urls.add(url);
+            }
+            return url;
+        }
+
+        @Override
+        public void close() {
+            if (urls != null) {
+                for (String url : urls) {
+                    BlobUrls.release(url);
+                }
+                urls = null;
+            }
+        }
+    }
+}
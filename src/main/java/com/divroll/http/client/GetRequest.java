@@ -15,12 +15,12 @@
  */
 package com.divroll.http.client;
 
+import com.divroll.http.client.codec.Codec;
 import com.divroll.http.client.exceptions.HttpStatusException;
 import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.http.client.Request;
 import com.google.gwt.http.client.RequestBuilder;
 import com.google.gwt.http.client.RequestCallback;
-import com.google.gwt.http.client.RequestException;
 import com.google.gwt.http.client.Response;
 import elemental2.dom.Blob;
 import elemental2.promise.Promise;
@@ -35,9 +35,6 @@ import java.util.function.Consumer;
  */
 public class GetRequest extends HttpRequestWithoutBody {
 
-    private static final java.util.logging.Logger logger =
-            java.util.logging.Logger.getLogger(GetRequest.class.getName());
-
     public GetRequest(String url, Set<Header> headers, Map<String, String> queryParameters) {
         super(url, headers, queryParameters);
     }
@@ -56,29 +53,7 @@ public class GetRequest extends HttpRequestWithoutBody {
      */
     @Override
     public Promise<HttpResponse<String>> asString() {
-        return new Promise<HttpResponse<String>>((resolve, reject) -> {
-            String requestUrl = buildUrl();
-            RequestBuilder rb = new RequestBuilder(RequestBuilder.GET, requestUrl);
-            rb.setTimeoutMillis(TIMEOUT);
-
-            setHeaders(rb);
-
-            try {
-                rb.sendRequest(null, new RequestCallback() {
-                    @Override
-                    public void onResponseReceived(Request request, Response response) {
-                        handleStringResponseForPromise(response, resolve, reject);
-                    }
-
-                    @Override
-                    public void onError(Request request, Throwable exception) {
-                        reject.onInvoke(exception.getMessage());
-                    }
-                });
-            } catch (RequestException e) {
-                reject.onInvoke(e.getMessage());
-            }
-        });
+        return send(HttpRequest::readString);
     }
 
     @Override
@@ -100,145 +75,74 @@ public class GetRequest extends HttpRequestWithoutBody {
      * Execute request and handle response as String (legacy callback version)
      * @param onSuccess callback for successful response
      * @param onError callback for error handling
-     * @return Request object that can be used to cancel the request
+     * @return Request object that can be used to cancel the request, or null if an interceptor deferred it
      */
     public Request asString(Consumer<HttpResponse<String>> onSuccess, Consumer<Throwable> onError) {
-        String requestUrl = buildUrl();
-        RequestBuilder requestBuilder = new RequestBuilder(RequestBuilder.GET, requestUrl);
-        requestBuilder.setTimeoutMillis(TIMEOUT);
-
-        setHeaders(requestBuilder);
-
-        try {
-            return requestBuilder.sendRequest(null, new RequestCallback() {
-                @Override
-                public void onResponseReceived(Request request, Response response) {
-                    try {
-                        handleStringResponse(response,
-                                httpResponse -> onSuccess.accept(httpResponse),
-                                throwable -> onError.accept(throwable));
-                    } catch (Exception e) {
-                        onError.accept(e);
-                    }
+        return RequestPipeline.execute(newPendingRequest(RequestBuilder.GET.toString(), null), new RequestCallback() {
+            @Override
+            public void onResponseReceived(Request request, Response response) {
+                try {
+                    handleStringResponse(response, onSuccess, onError);
+                } catch (Exception e) {
+                    onError.accept(e);
                 }
+            }
 
-                @Override
-                public void onError(Request request, Throwable exception) {
-                    onError.accept(exception);
-                }
-            });
-        } catch (RequestException e) {
-            onError.accept(e);
-            return null;
-        }
+            @Override
+            public void onError(Request request, Throwable exception) {
+                onError.accept(exception);
+            }
+        });
     }
 
     @Override
     public Promise<HttpResponse<JsonNode>> asJson() {
-        return new Promise<HttpResponse<JsonNode>>((resolve, reject) -> {
-            String requestUrl = buildUrl();
-            RequestBuilder rb = new RequestBuilder(RequestBuilder.GET, requestUrl);
-            rb.setTimeoutMillis(TIMEOUT);
-
-            setHeaders(rb);
-
-            try {
-                rb.sendRequest(null, new RequestCallback() {
-                    @Override
-                    public void onResponseReceived(Request req, Response res) {
-                        handleJsonResponseForPromise(res, resolve, reject);
-                    }
-
-                    @Override
-                    public void onError(Request req, Throwable ex) {
-                        reject.onInvoke(ex.getMessage());
-                    }
-                });
-            } catch (RequestException rex) {
-                reject.onInvoke(rex.getMessage());
-            }
-        });
+        return send(HttpRequest::readJson, true);
     }
 
-    private String buildUrl() {
-        String url = this.url;
-        if (queryMap != null && !queryMap.isEmpty()) {
-            url += "?" + queries(queryMap);
-        }
-        return url;
+    /**
+     * Execute request and parse only the members selected by {@code projection}
+     * @return Promise that resolves to HttpResponse<JsonNode>
+     */
+    @Override
+    public Promise<HttpResponse<JsonNode>> asJson(JsonProjection projection) {
+        return send(HttpRequest.readJson(projection));
     }
 
-    private void setHeaders(RequestBuilder rb) {
-        rb.setHeader("Content-Type", "application/json");
-        rb.setHeader("accept", "application/json");
+    /**
+     * Execute request and decode the response with {@code codec}
+     * @return Promise that resolves to HttpResponse<T>
+     */
+    @Override
+    public <T> Promise<HttpResponse<T>> asObject(Codec<T> codec) {
+        return send(HttpRequest.readObject(codec));
+    }
 
-        if (headerMap != null) {
-            for (Map.Entry<String, String> e : headerMap.entries()) {
-                if (e.getKey() != null && e.getValue() != null
-                        && !e.getKey().isEmpty() && !e.getValue().isEmpty()) {
-                    rb.setHeader(e.getKey(), e.getValue());
-                }
-            }
-        }
+    private <T> Promise<HttpResponse<T>> send(ResponseReader<T> reader) {
+        return send(reader, false);
+    }
 
-        if (authorization != null) {
-            rb.setHeader("Authorization", authorization);
+    /**
+     * Answers from a matching {@link Prefetcher} entry if there is one, otherwise sends the request,
+     * negotiating a binary format first if asked to. Prefetched entries are always JSON text.
+     */
+    private <T> Promise<HttpResponse<T>> send(ResponseReader<T> reader, boolean negotiate) {
+        PendingRequest request = newPendingRequest(RequestBuilder.GET.toString(), null);
+        Promise<HttpResponse<T>> prefetched = Prefetcher.take(request, reader);
+        if (prefetched != null) {
+            return prefetched;
         }
+        return execute(negotiate ? negotiate(request) : request, reader, true);
     }
 
     private void handleStringResponse(Response res,
                                       Consumer<HttpResponse<String>> resolve,
                                       Consumer<Throwable> reject) {
         int status = res.getStatusCode();
-        String statusText = res.getStatusText();
-        String raw = res.getText();
-
-        if (status >= 200 && status < 300) {
-            resolve.accept(new StringHttpResponse(status, statusText, raw));
-        } else {
-            reject.accept(new HttpStatusException(status, statusText, raw));
-        }
-    }
-
-    private void handleStringResponseForPromise(Response res,
-                                                Promise.PromiseExecutorCallbackFn.ResolveCallbackFn<HttpResponse<String>> resolve,
-                                                Promise.PromiseExecutorCallbackFn.RejectCallbackFn reject) {
-        int status = res.getStatusCode();
-        String statusText = res.getStatusText();
-        String raw = res.getText();
-
-        if (status >= 200 && status < 300) {
-            resolve.onInvoke(new StringHttpResponse(status, statusText, raw));
-        } else {
-            reject.onInvoke(new HttpStatusException(status, statusText, raw));
-        }
-    }
-
-    private void handleJsonResponse(Response res,
-                                    Consumer<HttpResponse<JsonNode>> resolve,
-                                    Consumer<Throwable> reject) {
-        int status = res.getStatusCode();
-        String statusText = res.getStatusText();
-        String raw = res.getText();
-
-        if (status >= 200 && status < 300) {
-            resolve.accept(new JsonHttpResponse(status, statusText, raw));
-        } else {
-            reject.accept(new HttpStatusException(status, statusText, raw));
-        }
-    }
-
-    private void handleJsonResponseForPromise(Response res,
-                                              Promise.PromiseExecutorCallbackFn.ResolveCallbackFn<HttpResponse<JsonNode>> resolve,
-                                              Promise.PromiseExecutorCallbackFn.RejectCallbackFn reject) {
-        int status = res.getStatusCode();
-        String statusText = res.getStatusText();
-        String raw = res.getText();
-
         if (status >= 200 && status < 300) {
-            resolve.onInvoke(new JsonHttpResponse(status, statusText, raw));
+            resolve.accept(new StringHttpResponse(res));
         } else {
-            reject.onInvoke(new HttpStatusException(status, statusText, raw));
+            reject.accept(new HttpStatusException(status, res.getStatusText(), res.getText()));
         }
     }
 }
\ No newline at end of file
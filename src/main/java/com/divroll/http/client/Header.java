@@ -15,7 +15,11 @@
  */
 package com.divroll.http.client;
 
-class Header {
+/**
+ * A request header. Header names are case-insensitive, so {@code accept} and
+ * {@code Accept} are the same header.
+ */
+public class Header {
   private String name;
   private String value;
 
@@ -37,11 +41,11 @@ class Header {
     if (this == obj) return true;
     if (obj == null || getClass() != obj.getClass()) return false;
     Header header = (Header) obj;
-    return name != null ? name.equals(header.name) : header.name == null;
+    return name != null ? name.equalsIgnoreCase(header.name) : header.name == null;
   }
 
   @Override
   public int hashCode() {
-    return name != null ? name.hashCode() : 0;
+    return name != null ? name.toLowerCase().hashCode() : 0;
   }
 }
\ No newline at end of file
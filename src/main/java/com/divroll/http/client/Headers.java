@@ -0,0 +1,112 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Header names and values in insertion order, with names matched
+ * case-insensitively: setting {@code Accept} replaces an earlier
+ * {@code accept} instead of adding a second header.
+ */
+final class Headers {
+    private final Map<String, String> map = new LinkedHashMap<String, String>();
+
+    Map<String, String> asMap() {
+        return map;
+    }
+
+    boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    String get(String name) {
+        String key = find(name);
+        return key != null ? map.get(key) : null;
+    }
+
+    boolean has(String name) {
+        return find(name) != null;
+    }
+
+    /**
+     * Ignores empty names and empty or null values.
+     */
+    void set(String name, String value) {
+        if (name == null || name.isEmpty() || value == null || value.isEmpty()) {
+            return;
+        }
+        String key = find(name);
+        if (key != null && !key.equals(name)) {
+            map.remove(key);
+        }
+        map.put(name, value);
+    }
+
+    /**
+     * Sets the header only if no header of the same name is present yet.
+     */
+    void setDefault(String name, String value) {
+        if (find(name) == null) {
+            set(name, value);
+        }
+    }
+
+    void remove(String name) {
+        Iterator<String> it = map.keySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().equalsIgnoreCase(name)) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Copies headers that were already normalized, e.g. by {@link #names()} and
+     * {@link #values()} of another instance, without the case-insensitive lookup.
+     */
+    void putNormalized(String[] names, String[] values) {
+        for (int i = 0; i < names.length; i++) {
+            map.put(names[i], values[i]);
+        }
+    }
+
+    String[] names() {
+        return map.keySet().toArray(new String[0]);
+    }
+
+    String[] values() {
+        return map.values().toArray(new String[0]);
+    }
+
+    private String find(String name) {
+        if (map.isEmpty()) {
+            return null;
+        }
+        if (map.containsKey(name)) {
+            return name;
+        }
+        for (String key : map.keySet()) {
+            if (key.equalsIgnoreCase(name)) {
+                return key;
+            }
+        }
+        return null;
+    }
+}
@@ -41,4 +41,45 @@ public class HttpClient {
     public static PatchRequest patch(String url) {
         return new PatchRequest(url);
     }
+
+    /**
+     * Fetches the url during idle time so a later {@code get(url)} resolves without a network wait.
+     * @see Prefetcher
+     */
+    public static void prefetch(String url) {
+        Prefetcher.prefetch(url);
+    }
+
+    /**
+     * Starts a prepared request for a URI template such as {@code /posts/{id}}.
+     */
+    public static RequestTemplate.Builder template(RequestBuilder.Method method, String uriTemplate) {
+        return RequestTemplate.builder(method, uriTemplate);
+    }
+
+    public static RequestTemplate.Builder template(String method, String uriTemplate) {
+        return RequestTemplate.builder(method, uriTemplate);
+    }
+
+    /**
+     * Starts a {@link BackendClient} whose requests are relative to {@code baseUrl}.
+     */
+    public static BackendClient.Builder backend(String baseUrl) {
+        return BackendClient.builder(baseUrl);
+    }
+
+    /**
+     * Registers an interceptor for every request; interceptors run in the order they were added.
+     */
+    public static void addInterceptor(Interceptor interceptor) {
+        RequestPipeline.addInterceptor(interceptor);
+    }
+
+    public static void removeInterceptor(Interceptor interceptor) {
+        RequestPipeline.removeInterceptor(interceptor);
+    }
+
+    public static void clearInterceptors() {
+        RequestPipeline.clearInterceptors();
+    }
 }
@@ -15,34 +15,42 @@
  */
 package com.divroll.http.client;
 
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Multimap;
+import com.divroll.http.client.codec.BinaryCodecs;
+import com.divroll.http.client.codec.Codec;
+import com.divroll.http.client.exceptions.HttpStatusException;
+import com.google.gwt.http.client.Response;
+import elemental2.promise.Promise;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-abstract class HttpRequest {
+public abstract class HttpRequest {
   protected static final Set<Header> EmptyHeaders = new HashSet<Header>();
   protected static final Map<String, String> EmptyParams = new HashMap<String, String>();
 
   protected String url;
-  protected Multimap<String, String> headerMap;
+  protected Map<String, List<String>> headerMap;
   protected Map<String, String> queryMap;
   protected String authorization = null;
   protected int TIMEOUT = 60000;
+  protected Priority priority = Priority.AUTO;
+  protected int maxResponseBytes;
+  BackendClient client;
 
   public HttpRequest(String url, Set<Header> headers, Map<String, String> queryParameters) {
     this.url = url;
-    this.headerMap = ArrayListMultimap.create();
+    this.headerMap = new LinkedHashMap<String, List<String>>();
     this.queryMap = queryParameters != null ? new LinkedHashMap<String, String>(queryParameters) : null;
 
     // Convert headers to multimap
     if (headers != null) {
       for (Header header : headers) {
-        this.headerMap.put(header.getName(), header.getValue());
+        addHeader(header.getName(), header.getValue());
       }
     }
   }
@@ -55,10 +63,26 @@ abstract class HttpRequest {
     this.url = url;
   }
 
-  public Multimap<String, String> getHeaders() {
+  /**
+   * @return header values in the order they were added; when a name has several
+   * values the last one is sent
+   */
+  public Map<String, List<String>> getHeaders() {
     return headerMap;
   }
 
+  protected void addHeader(String name, String value) {
+    if (headerMap == null) {
+      headerMap = new LinkedHashMap<String, List<String>>();
+    }
+    List<String> values = headerMap.get(name);
+    if (values == null) {
+      values = new ArrayList<String>(1);
+      headerMap.put(name, values);
+    }
+    values.add(value);
+  }
+
   public Map<String, String> getQueryParameters() {
     return queryMap;
   }
@@ -81,5 +105,78 @@ abstract class HttpRequest {
     }
     return sb.toString();
   }
+
+  protected String buildUrl() {
+    if (queryMap != null && !queryMap.isEmpty()) {
+      return url + "?" + queries(queryMap);
+    }
+    return url;
+  }
+
+  /**
+   * Resolves url, headers and authorization into a {@link PendingRequest}.
+   * Defaults of the {@link BackendClient} that created the request come first.
+   * The JSON defaults are only applied when the caller did not set the header
+   * themselves, and {@code headerMap} is left untouched.
+   */
+  protected PendingRequest newPendingRequest(String method, String body) {
+    PendingRequest request = new PendingRequest(method, buildUrl(), body, TIMEOUT);
+    if (client != null) {
+      client.applyTo(request);
+    }
+    if (headerMap != null) {
+      for (Map.Entry<String, List<String>> e : headerMap.entrySet()) {
+        for (String value : e.getValue()) {
+          request.setHeader(e.getKey(), value);
+        }
+      }
+    }
+    request.setDefaultHeader("accept", "application/json");
+    request.setDefaultHeader("Content-Type", "application/json");
+    if (authorization != null) {
+      request.setHeader("Authorization", authorization);
+    }
+    request.setPriority(priority);
+    request.setMaxResponseBytes(maxResponseBytes);
+    return request;
+  }
+
+  /**
+   * Offers the registered {@link BinaryCodecs} formats ahead of JSON when the
+   * request asks for plain {@code application/json}, the default.
+   */
+  static PendingRequest negotiate(PendingRequest request) {
+    String accept = BinaryCodecs.acceptHeader();
+    if (accept != null && "application/json".equals(request.getHeader("accept"))) {
+      request.setHeader("accept", accept);
+      request.setBinaryResponse(true);
+    }
+    return request;
+  }
+
+  /**
+   * Sends the request through the {@link RequestPipeline}.
+   * @param rejectErrorStatus reject with {@link HttpStatusException} on non-2xx responses
+   */
+  protected <T> Promise<HttpResponse<T>> execute(PendingRequest request, ResponseReader<T> reader,
+                                                 boolean rejectErrorStatus) {
+    return RequestPipeline.promise(request, reader, rejectErrorStatus);
+  }
+
+  static HttpResponse<String> readString(PendingRequest request, Response res) {
+    return new StringHttpResponse(res);
+  }
+
+  static <T> ResponseReader<T> readObject(Codec<T> codec) {
+    return (request, res) -> new ObjectHttpResponse<T>(res, codec, request.hasParseObservers() ? request : null);
+  }
+
+  static HttpResponse<JsonNode> readJson(PendingRequest request, Response res) {
+    return new JsonHttpResponse(res, request.hasParseObservers() ? request : null);
+  }
+
+  static ResponseReader<JsonNode> readJson(JsonProjection projection) {
+    return (request, res) -> new JsonHttpResponse(res, request.hasParseObservers() ? request : null, projection);
+  }
 }
 
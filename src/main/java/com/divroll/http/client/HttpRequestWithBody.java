@@ -16,7 +16,7 @@
  */
 package com.divroll.http.client;
 
-import com.google.common.collect.ArrayListMultimap;
+import com.divroll.http.client.codec.Codec;
 import com.google.gwt.core.client.JavaScriptObject;
 import elemental2.promise.Promise;
 
@@ -25,34 +25,29 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
-abstract class HttpRequestWithBody extends HttpRequest {
+public abstract class HttpRequestWithBody extends HttpRequest {
     protected Map<String, Object> fields;
     protected Object body = null;
-    protected com.google.gwt.http.client.RequestBuilder.Method method;
+    protected String method;
 
     public HttpRequestWithBody(String url, Set<Header> headers, Map<String, String> queryParameters,
                                com.google.gwt.http.client.RequestBuilder.Method method) {
-        super(url, headers, queryParameters);
-        this.method = method;
+        this(url, headers, queryParameters, method.toString());
     }
 
     public HttpRequestWithBody(String url, Set<Header> headers, Map<String, String> queryParameters,
                                String method) {
         super(url, headers, queryParameters);
-
+        this.method = method;
     }
 
     public HttpRequestWithBody(String url, com.google.gwt.http.client.RequestBuilder.Method method) {
-        super(url, EmptyHeaders, EmptyParams);
-        this.method = method;
+        this(url, EmptyHeaders, EmptyParams, method.toString());
     }
 
     public HttpRequestWithBody header(String header, String value) {
-        if (headerMap == null) {
-            headerMap = ArrayListMultimap.create();
-        }
         if (value != null) {
-            headerMap.put(header, value);
+            addHeader(header, value);
         }
         return this;
     }
@@ -62,6 +57,14 @@ abstract class HttpRequestWithBody extends HttpRequest {
         return this;
     }
 
+    /**
+     * Sets the body to {@code value} encoded as JSON by {@code codec}.
+     */
+    public <T> HttpRequestWithBody body(T value, Codec<T> codec) {
+        this.body = codec.encode(value);
+        return this;
+    }
+
     public HttpRequestWithBody queryString(String name, String value) {
         if (queryMap == null) {
             queryMap = new LinkedHashMap<String, String>();
@@ -78,6 +81,20 @@ abstract class HttpRequestWithBody extends HttpRequest {
         return this;
     }
 
+    public HttpRequestWithBody priority(Priority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Aborts the request with a {@code ResponseTooLargeException} once the response is known to exceed {@code bytes}.
+     * @see ResponseLimits
+     */
+    public HttpRequestWithBody maxResponseBytes(int bytes) {
+        this.maxResponseBytes = bytes;
+        return this;
+    }
+
     public HttpRequestWithBody basicAuth(String username, String password) {
         authorization = "Basic " + Base64.btoa(username + ":" + password);
         return this;
@@ -85,8 +102,12 @@ abstract class HttpRequestWithBody extends HttpRequest {
 
     public abstract Promise<HttpResponse<JsonNode>> asJson();
 
+    public abstract Promise<HttpResponse<JsonNode>> asJson(JsonProjection projection);
+
     public abstract Promise<HttpResponse<String>> asString();
 
+    public abstract <T> Promise<HttpResponse<T>> asObject(Codec<T> codec);
+
     public abstract Promise<HttpResponse<JavaScriptObject>> asJSO();
 
     public abstract Promise<HttpResponse<elemental2.dom.Blob>> asBlob();
@@ -15,14 +15,14 @@
  */
 package com.divroll.http.client;
 
+import com.divroll.http.client.codec.Codec;
+import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.JavaScriptObject;
-import com.google.gwt.http.client.Request;
-import com.google.gwt.http.client.RequestCallback;
-import com.google.gwt.http.client.RequestException;
-import com.google.gwt.http.client.Response;
+import com.google.gwt.core.client.RunAsyncCallback;
 import elemental2.dom.Blob;
 import elemental2.promise.Promise;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.Map;
 import java.util.Set;
@@ -31,9 +31,6 @@ import java.util.Set;
  * HTTP Request with Body implementation using GWT Elemental2 promises
  */
 public class HttpRequestWithBodyImpl extends HttpRequestWithBody {
-    private static final java.util.logging.Logger logger =
-            java.util.logging.Logger.getLogger(HttpRequestWithBodyImpl.class.getName());
-
     public HttpRequestWithBodyImpl(String url, com.google.gwt.http.client.RequestBuilder.Method method) {
         super(url, EmptyHeaders, EmptyParams, method);
     }
@@ -56,127 +53,7 @@ public class HttpRequestWithBodyImpl extends HttpRequestWithBody {
      * @return Promise that resolves to HttpResponse<String>
      */
     public Promise<HttpResponse<String>> asString() {
-        return new Promise<HttpResponse<String>>((resolve, reject) -> {
-            String requestUrl = url;
-            if (queryMap != null && !queryMap.isEmpty()) {
-                requestUrl = url + "?" + queries(queryMap);
-            }
-
-            HttpRequestBuilder b = new HttpRequestBuilder(method, requestUrl);
-            b.setTimeoutMillis(TIMEOUT);
-
-            // Set headers
-            if (headerMap != null) {
-                boolean hasContentType = false;
-                boolean hasAccept = false;
-
-                for (Map.Entry<String, String> entry : headerMap.entries()) {
-                    if (entry.getKey() != null && entry.getValue() != null
-                            && !entry.getKey().isEmpty() && !entry.getValue().isEmpty()) {
-                        if (entry.getKey().equals("Content-Type")) {
-                            hasContentType = true;
-                        } else if (entry.getKey().equals("accept")) {
-                            hasAccept = true;
-                        }
-                    }
-                }
-
-                if (!hasAccept) {
-                    headerMap.put("accept", "application/json");
-                }
-                if (!hasContentType) {
-                    headerMap.put("Content-Type", "application/json");
-                }
-
-                for (Map.Entry<String, String> entry : headerMap.entries()) {
-                    if (entry.getKey() != null && entry.getValue() != null
-                            && !entry.getKey().isEmpty() && !entry.getValue().isEmpty()) {
-                        b.setHeader(entry.getKey(), entry.getValue());
-                    }
-                }
-            }
-
-            // Handle body/payload
-            Object payload = body;
-            if (fields != null && !fields.isEmpty()) {
-                StringBuilder sb = new StringBuilder();
-                java.util.Iterator<Map.Entry<String, Object>> it = fields.entrySet().iterator();
-                while (it.hasNext()) {
-                    Map.Entry<String, Object> entry = it.next();
-                    if (entry.getValue() instanceof String) {
-                        if (!it.hasNext()) {
-                            sb.append(entry.getKey()).append("=").append(com.google.gwt.http.client.URL.encodeComponent((String.valueOf(entry.getValue()))));
-                        } else {
-                            sb.append(entry.getKey()).append("=").append(com.google.gwt.http.client.URL.encodeComponent((String.valueOf(entry.getValue())))).append("&");
-                        }
-                    }
-                }
-                payload = sb.toString();
-                b.setHeader("Content-Type", "application/x-www-form-urlencoded");
-            }
-
-            if (body != null) {
-                if (body instanceof com.google.gwt.core.client.JavaScriptObject) {
-                    // TODO for Sending File
-                }
-            }
-
-            if (authorization != null) {
-                b.setHeader("Authorization", authorization);
-            }
-
-            try {
-                if (payload != null) {
-                    String requestBody = String.valueOf(payload);
-                    if (payload instanceof java.io.InputStream) {
-                        try {
-                            java.io.InputStream is = (java.io.InputStream) payload;
-                            java.io.ByteArrayOutputStream buffer = new java.io.ByteArrayOutputStream();
-                            int nRead;
-                            byte[] data = new byte[1024];
-                            while ((nRead = is.read(data, 0, data.length)) != -1) {
-                                buffer.write(data, 0, nRead);
-                            }
-                            buffer.flush();
-                            byte[] byteArray = buffer.toByteArray();
-                            b.setHeader("Content-Type", "application/octet-stream");
-                            requestBody = new String(byteArray, java.nio.charset.StandardCharsets.UTF_8);
-                        } catch (Exception e) {
-                            reject.onInvoke(e.getMessage());
-                            return;
-                        }
-                    }
-
-                    b.sendRequest(requestBody, new RequestCallback() {
-                        public void onResponseReceived(Request request, Response response) {
-                            String resp = response.getText();
-                            int statusCode = response.getStatusCode();
-                            String statusText = response.getStatusText();
-                            resolve.onInvoke(new StringHttpResponse(statusCode, statusText, resp));
-                        }
-
-                        public void onError(Request request, Throwable exception) {
-                            reject.onInvoke(exception.getMessage());
-                        }
-                    });
-                } else {
-                    b.sendRequest("", new RequestCallback() {
-                        public void onResponseReceived(Request request, Response response) {
-                            String resp = response.getText();
-                            int statusCode = response.getStatusCode();
-                            String statusText = response.getStatusText();
-                            resolve.onInvoke(new StringHttpResponse(statusCode, statusText, resp));
-                        }
-
-                        public void onError(Request request, Throwable exception) {
-                            reject.onInvoke(exception.getMessage());
-                        }
-                    });
-                }
-            } catch (RequestException e) {
-                reject.onInvoke(e.getMessage());
-            }
-        });
+        return send(HttpRequest::readString);
     }
 
     @Override
@@ -199,134 +76,104 @@ public class HttpRequestWithBodyImpl extends HttpRequestWithBody {
      * @return Promise that resolves to HttpResponse<JsonNode>
      */
     public Promise<HttpResponse<JsonNode>> asJson() {
-        return new Promise<HttpResponse<JsonNode>>((resolve, reject) -> {
-            String requestUrl = url;
-            if (queryMap != null && !queryMap.isEmpty()) {
-                requestUrl = url + "?" + queries(queryMap);
-            }
+        return send(HttpRequest::readJson, true);
+    }
 
-            HttpRequestBuilder b = new HttpRequestBuilder(method, requestUrl);
-            b.setTimeoutMillis(TIMEOUT);
+    /**
+     * Execute request and parse only the members selected by {@code projection}
+     * @return Promise that resolves to HttpResponse<JsonNode>
+     */
+    @Override
+    public Promise<HttpResponse<JsonNode>> asJson(JsonProjection projection) {
+        return send(HttpRequest.readJson(projection));
+    }
 
-            // Set headers
-            if (headerMap != null) {
-                boolean hasContentType = false;
-                boolean hasAccept = false;
+    /**
+     * Execute request and decode the response with {@code codec}
+     * @return Promise that resolves to HttpResponse<T>
+     */
+    @Override
+    public <T> Promise<HttpResponse<T>> asObject(Codec<T> codec) {
+        return send(HttpRequest.readObject(codec));
+    }
 
-                for (Map.Entry<String, String> entry : headerMap.entries()) {
-                    if (entry.getKey() != null && entry.getValue() != null
-                            && !entry.getKey().isEmpty() && !entry.getValue().isEmpty()) {
-                        if (entry.getKey().equals("Content-Type")) {
-                            hasContentType = true;
-                        } else if (entry.getKey().equals("accept")) {
-                            hasAccept = true;
-                        }
-                    }
-                }
+    private <T> Promise<HttpResponse<T>> send(ResponseReader<T> reader) {
+        return send(reader, false);
+    }
 
-                if (!hasAccept) {
-                    headerMap.put("accept", "application/json");
-                }
-                if (!hasContentType) {
-                    headerMap.put("Content-Type", "application/json");
-                }
+    /**
+     * Builds the request once per call: form fields take precedence over the body
+     * and switch the content type. An InputStream body is drained as octet-stream
+     * after loading the binary support fragment.
+     */
+    private <T> Promise<HttpResponse<T>> send(ResponseReader<T> reader, boolean negotiate) {
+        if (fields != null && !fields.isEmpty()) {
+            PendingRequest request = newPendingRequest(method, encodeFields());
+            request.setHeader("Content-Type", "application/x-www-form-urlencoded");
+            return execute(negotiate ? negotiate(request) : request, reader, false);
+        }
+        if (body instanceof InputStream) {
+            return sendBinary((InputStream) body, reader, negotiate);
+        }
+        PendingRequest request = newPendingRequest(method, body != null ? String.valueOf(body) : "");
+        return dispatch(negotiate ? negotiate(request) : request, reader);
+    }
 
-                for (Map.Entry<String, String> entry : headerMap.entries()) {
-                    if (entry.getKey() != null && entry.getValue() != null
-                            && !entry.getKey().isEmpty() && !entry.getValue().isEmpty()) {
-                        b.setHeader(entry.getKey(), entry.getValue());
-                    }
-                }
-            }
+    /**
+     * Hands a plain-body request to the pipeline; overridden by {@link PatchRequest} to coalesce.
+     */
+    <T> Promise<HttpResponse<T>> dispatch(PendingRequest request, ResponseReader<T> reader) {
+        return execute(request, reader, false);
+    }
 
-            // Handle body/payload
-            Object payload = body;
-            if (fields != null && !fields.isEmpty()) {
-                StringBuilder sb = new StringBuilder();
-                java.util.Iterator<Map.Entry<String, Object>> it = fields.entrySet().iterator();
-                while (it.hasNext()) {
-                    Map.Entry<String, Object> entry = it.next();
-                    if (entry.getValue() instanceof String) {
-                        if (!it.hasNext()) {
-                            sb.append(entry.getKey()).append("=").append(com.google.gwt.http.client.URL.encodeComponent((String.valueOf(entry.getValue()))));
-                        } else {
-                            sb.append(entry.getKey()).append("=").append(com.google.gwt.http.client.URL.encodeComponent((String.valueOf(entry.getValue())))).append("&");
-                        }
-                    }
-                }
-                payload = sb.toString();
-                b.setHeader("Content-Type", "application/x-www-form-urlencoded");
+    private <T> Promise<HttpResponse<T>> sendBinary(InputStream stream, ResponseReader<T> reader, boolean negotiate) {
+        return new Promise<HttpResponse<T>>((resolve, reject) -> GWT.runAsync(BinaryBody.class, new RunAsyncCallback() {
+            @Override
+            public void onFailure(Throwable reason) {
+                reject.onInvoke(reason);
             }
 
-            if (body != null) {
-                if (body instanceof com.google.gwt.core.client.JavaScriptObject) {
-                    // TODO for Sending File
+            @Override
+            public void onSuccess() {
+                PendingRequest request;
+                try {
+                    request = newPendingRequest(method, BinaryBody.readFully(stream));
+                } catch (IOException e) {
+                    reject.onInvoke(e);
+                    return;
                 }
+                request.setHeader("Content-Type", "application/octet-stream");
+                execute(negotiate ? negotiate(request) : request, reader, false).then(response -> {
+                    resolve.onInvoke(response);
+                    return null;
+                }, error -> {
+                    reject.onInvoke(error);
+                    return null;
+                });
             }
+        }));
+    }
 
-            if (authorization != null) {
-                b.setHeader("Authorization", authorization);
-            }
-
-            try {
-                if (payload != null) {
-                    String requestBody = String.valueOf(payload);
-                    if (payload instanceof java.io.InputStream) {
-                        try {
-                            java.io.InputStream is = (java.io.InputStream) payload;
-                            java.io.ByteArrayOutputStream buffer = new java.io.ByteArrayOutputStream();
-                            int nRead;
-                            byte[] data = new byte[1024];
-                            while ((nRead = is.read(data, 0, data.length)) != -1) {
-                                buffer.write(data, 0, nRead);
-                            }
-                            buffer.flush();
-                            byte[] byteArray = buffer.toByteArray();
-                            b.setHeader("Content-Type", "application/octet-stream");
-                            requestBody = new String(byteArray, java.nio.charset.StandardCharsets.UTF_8);
-                        } catch (Exception e) {
-                            reject.onInvoke(e.getMessage());
-                            return;
-                        }
-                    }
-
-                    b.sendRequest(requestBody, new RequestCallback() {
-                        public void onResponseReceived(Request request, Response response) {
-                            String resp = response.getText();
-                            int statusCode = response.getStatusCode();
-                            String statusText = response.getStatusText();
-                            resolve.onInvoke(new JsonHttpResponse(statusCode, statusText, resp));
-                        }
-
-                        public void onError(Request request, Throwable exception) {
-                            reject.onInvoke(exception.getMessage());
-                        }
-                    });
-                } else {
-                    b.sendRequest("", new RequestCallback() {
-                        public void onResponseReceived(Request request, Response response) {
-                            String resp = response.getText();
-                            int statusCode = response.getStatusCode();
-                            String statusText = response.getStatusText();
-                            resolve.onInvoke(new JsonHttpResponse(statusCode, statusText, resp));
-                        }
-
-                        public void onError(Request request, Throwable exception) {
-                            reject.onInvoke(exception.getMessage());
-                        }
-                    });
+    String encodeFields() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Object> entry : fields.entrySet()) {
+            if (entry.getValue() instanceof String) {
+                if (sb.length() > 0) {
+                    sb.append("&");
                 }
-            } catch (RequestException e) {
-                reject.onInvoke(e.getMessage());
+                sb.append(entry.getKey()).append("=")
+                        .append(com.google.gwt.http.client.URL.encodeComponent((String) entry.getValue()));
             }
-        });
+        }
+        return sb.toString();
     }
 
-    public static native String createBlobUrl(com.google.gwt.core.client.JavaScriptObject javaScriptObject) /*-{
-        var blob = new Blob([javaScriptObject], {type: "application/octec-stream"});
-        var url = $wnd.URL.createObjectURL(blob);
-        return url;
-    }-*/;
+    /**
+     * @return a URL managed by {@link BlobUrls}; pass it to {@link BlobUrls#release} when done
+     */
+    public static String createBlobUrl(com.google.gwt.core.client.JavaScriptObject javaScriptObject) {
+        return BlobUrls.create(createBlob(javaScriptObject));
+    }
 
     public static native elemental2.dom.Blob createBlob(com.google.gwt.core.client.JavaScriptObject javaScriptObject) /*-{
         var blob = new Blob([javaScriptObject], {type: "application/octec-stream"});
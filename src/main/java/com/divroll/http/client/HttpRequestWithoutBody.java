@@ -16,7 +16,7 @@
  */
 package com.divroll.http.client;
 
-import com.google.common.collect.ArrayListMultimap;
+import com.divroll.http.client.codec.Codec;
 import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.http.client.Request;
 import elemental2.promise.Promise;
@@ -27,17 +27,14 @@ import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 
-abstract class HttpRequestWithoutBody extends HttpRequest {
+public abstract class HttpRequestWithoutBody extends HttpRequest {
   public HttpRequestWithoutBody(String url, Set<Header> headers, Map<String, String> queryParameters) {
     super(url, headers, queryParameters);
   }
 
   public HttpRequestWithoutBody header(String header, String value) {
-    if (headerMap == null) {
-      headerMap = ArrayListMultimap.create();
-    }
     if (value != null) {
-      headerMap.put(header, value);
+      addHeader(header, value);
     }
     return this;
   }
@@ -50,6 +47,20 @@ abstract class HttpRequestWithoutBody extends HttpRequest {
     return this;
   }
 
+  public HttpRequestWithoutBody priority(Priority priority) {
+    this.priority = priority;
+    return this;
+  }
+
+  /**
+   * Aborts the request with a {@code ResponseTooLargeException} once the response is known to exceed {@code bytes}.
+   * @see ResponseLimits
+   */
+  public HttpRequestWithoutBody maxResponseBytes(int bytes) {
+    this.maxResponseBytes = bytes;
+    return this;
+  }
+
   public HttpRequestWithoutBody basicAuth(String username, String password) {
     authorization = "Basic " + Base64.btoa(username + ":" + password);
     return this;
@@ -57,8 +68,12 @@ abstract class HttpRequestWithoutBody extends HttpRequest {
 
   public abstract Promise<HttpResponse<JsonNode>> asJson();
 
+  public abstract Promise<HttpResponse<JsonNode>> asJson(JsonProjection projection);
+
   public abstract Promise<HttpResponse<String>> asString();
 
+  public abstract <T> Promise<HttpResponse<T>> asObject(Codec<T> codec);
+
   public abstract Promise<HttpResponse<JavaScriptObject>> asJSO();
 
   public abstract Promise<HttpResponse<elemental2.dom.Blob>> asBlob();
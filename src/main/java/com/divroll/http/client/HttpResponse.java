@@ -20,4 +20,27 @@ public interface HttpResponse<T> {
     T getBody();
     int getStatus();
     String getStatusText();
+
+    /**
+     * Response headers, parsed on first access. Responses not produced from a
+     * browser request have none.
+     */
+    default ResponseHeaders getHeaders() {
+        return ResponseHeaders.EMPTY;
+    }
+
+    /**
+     * @return the header value matched case-insensitively, or null if absent
+     */
+    default String getHeader(String name) {
+        return getHeaders().get(name);
+    }
+
+    /**
+     * Drops the buffered raw body so it no longer counts against the
+     * {@link ResponseLimits} memory budget. A body that was already parsed stays
+     * available; one that was not is discarded.
+     */
+    default void release() {
+    }
 }
@@ -0,0 +1,41 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import com.google.gwt.http.client.RequestCallback;
+
+/**
+ * Hook into the {@link RequestPipeline}. Interceptors run in registration
+ * order; each one may rewrite the {@link PendingRequest}, wrap the callback to
+ * observe the response, or answer the request itself without calling
+ * {@link Chain#proceed(RequestCallback)}.
+ */
+public interface Interceptor {
+
+    void intercept(Chain chain);
+
+    interface Chain {
+        PendingRequest request();
+
+        /**
+         * Callback the next stage will report to if the interceptor does not wrap it.
+         */
+        RequestCallback callback();
+
+        void proceed(RequestCallback callback);
+    }
+}
@@ -16,11 +16,23 @@
  */
 package com.divroll.http.client;
 
+import com.divroll.http.client.codec.BinaryCodec;
+import com.divroll.http.client.codec.BinaryCodecs;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.http.client.Response;
+
 public class JsonHttpResponse implements HttpResponse<JsonNode> {
 
     private int status;
     private String statusText;
     private String rawBody;
+    private JsonNode jsonNode;
+    private JsonProjection projection;
+    private XhrResponse binary;
+    private PendingRequest request;
+    private String rawHeaders;
+    private ResponseHeaders headers;
+    private ResponseLimits.Retained retained;
 
     public JsonHttpResponse(int status, String statusText, String rawBody) {
         this.status = status;
@@ -28,13 +40,81 @@ public class JsonHttpResponse implements HttpResponse<JsonNode> {
         this.rawBody = rawBody;
     }
 
+    JsonHttpResponse(Response response, PendingRequest request) {
+        this(response.getStatusCode(), response.getStatusText(), isBinary(response) ? null : response.getText());
+        this.rawHeaders = response.getHeadersAsString();
+        this.request = request;
+        if (isBinary(response)) {
+            this.binary = (XhrResponse) response;
+            this.retained = ResponseLimits.retain(this, binary.getSize());
+        } else {
+            this.retained = ResponseLimits.retain(this, response, rawBody);
+        }
+    }
+
+    JsonHttpResponse(Response response, PendingRequest request, JsonProjection projection) {
+        this(response, request);
+        this.projection = projection;
+    }
+
+    /**
+     * Parses the body on first access and keeps the result, reporting the parse
+     * time to the request's {@link ParseObserver}s if any are attached. The raw
+     * text is released once parsed, and with a {@link JsonProjection} only the
+     * projected members are built. A negotiated binary body is decoded by the
+     * {@link BinaryCodec} for its {@code Content-Type}, or as JSON text if none
+     * matches.
+     */
     @Override
     public JsonNode getBody() {
-        if(rawBody != null && !rawBody.isEmpty()) {
-            JsonNode jsonNode = new JsonNode(rawBody);
-            return jsonNode;
+        if (jsonNode == null && (binary != null || (rawBody != null && !rawBody.isEmpty()))) {
+            if (request != null) {
+                double start = Duration.currentTimeMillis();
+                jsonNode = parse();
+                request.fireParsed(Duration.currentTimeMillis() - start);
+                request = null;
+            } else {
+                jsonNode = parse();
+            }
+            rawBody = null;
+            if (retained != null) {
+                retained.release();
+            }
         }
-        return null;
+        return jsonNode;
+    }
+
+    @Override
+    public void release() {
+        rawBody = null;
+        binary = null;
+        request = null;
+        if (retained != null) {
+            retained.release();
+        }
+    }
+
+    private JsonNode parse() {
+        if (binary != null) {
+            XhrResponse res = binary;
+            binary = null;
+            if (res.getSize() == 0) {
+                return null;
+            }
+            BinaryCodec codec = BinaryCodecs.find(getHeaders().get("Content-Type"));
+            if (codec != null) {
+                return new JsonNode(codec.decode(res.getBuffer()));
+            }
+            rawBody = res.getText();
+            if (rawBody.isEmpty()) {
+                return null;
+            }
+        }
+        return projection != null ? projection.parse(rawBody) : new JsonNode(rawBody);
+    }
+
+    private static boolean isBinary(Response response) {
+        return response instanceof XhrResponse && ((XhrResponse) response).isBinary();
     }
 
     @Override
@@ -44,6 +124,19 @@ public class JsonHttpResponse implements HttpResponse<JsonNode> {
 
     @Override
     public String getStatusText() {
-        return null;
+        return statusText;
+    }
+
+    /**
+     * Parses the headers on first access. Only their text is kept from the browser
+     * response, so a released body is not held through it.
+     */
+    @Override
+    public ResponseHeaders getHeaders() {
+        if (headers == null) {
+            headers = ResponseHeaders.parse(rawHeaders);
+            rawHeaders = null;
+        }
+        return headers;
     }
 }
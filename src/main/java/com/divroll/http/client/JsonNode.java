@@ -16,62 +16,178 @@
  */
 package com.divroll.http.client;
 
-import com.google.gwt.json.client.JSONException;
-import com.google.gwt.json.client.JSONParser;
-import org.json.JSONArray;
-import org.json.JSONObject;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayString;
 
+/**
+ * Parsed JSON object or array backed directly by the browser's {@code JSON.parse}
+ * result, so no intermediate tree is built. Use the {@code HttpClientJson}
+ * add-on module to view a node as {@code org.json} types.
+ */
 public class JsonNode {
 
-    private JSONObject jsonObject;
-    private JSONArray jsonArray;
-    private boolean array;
+    private final JavaScriptObject value;
+    private final boolean array;
 
     public JsonNode(String json) {
-        if (json == null || "".equals(json.trim())) {
-            jsonObject = new JSONObject(JSONParser.parseStrict(json).isObject());
-        } else {
-            try {
-                jsonObject = new JSONObject(JSONParser.parseStrict(json).isObject());
-            } catch (JSONException e) {
-                // It may be an array
-                try {
-                    jsonArray = new JSONArray(JSONParser.parseStrict(json).isArray());
-                    array = true;
-                } catch (JSONException e1) {
-                    throw new RuntimeException(e1);
-                }
-            }
+        this(parse(json));
+    }
+
+    /**
+     * Wraps an already parsed JavaScript object or array.
+     */
+    public JsonNode(JavaScriptObject value) {
+        if (!isContainer(value)) {
+            throw new IllegalArgumentException("JSON value is not an object or array");
         }
+        this.value = value;
+        this.array = isArray(value);
+    }
+
+    public boolean isArray() {
+        return this.array;
+    }
+
+    public JavaScriptObject getJavaScriptObject() {
+        return value;
     }
 
-    public JSONObject getObject() {
-        return this.jsonObject;
+    /**
+     * @return the array length, or the number of keys of an object
+     */
+    public int size() {
+        return size(value, array);
     }
 
-    public JSONArray getArray() {
-        JSONArray result = this.jsonArray;
-        if (array == false) {
-            result = new JSONArray();
-            result.put(this.jsonObject);
+    public boolean has(String key) {
+        return !array && has(value, key);
+    }
+
+    public String[] keys() {
+        if (array) {
+            return new String[0];
+        }
+        JsArrayString names = keys(value);
+        String[] result = new String[names.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = names.get(i);
         }
         return result;
     }
 
-    public boolean isArray() {
-        return this.array;
+    /**
+     * @return the nested object or array, or null if the member is missing or a primitive
+     */
+    public JsonNode get(String key) {
+        return wrap(member(value, key));
+    }
+
+    public JsonNode get(int index) {
+        return wrap(element(value, index));
+    }
+
+    /**
+     * @return the member as a string, converting numbers and booleans, or null if missing
+     */
+    public String getString(String key) {
+        return stringMember(value, key);
+    }
+
+    public String getString(int index) {
+        return stringElement(value, index);
+    }
+
+    /**
+     * @return the member as a number, or {@code NaN} if missing or not numeric
+     */
+    public double getNumber(String key) {
+        return numberMember(value, key);
+    }
+
+    public double getNumber(int index) {
+        return numberElement(value, index);
+    }
+
+    public boolean getBoolean(String key) {
+        return booleanMember(value, key);
+    }
+
+    public boolean getBoolean(int index) {
+        return booleanElement(value, index);
     }
 
     @Override
     public String toString() {
-        if (isArray()) {
-            if (jsonArray == null)
-                return null;
-            return jsonArray.toString();
-        }
-        if (jsonObject == null)
-            return null;
-        return jsonObject.toString();
+        return stringify(value);
     }
 
+    private static JsonNode wrap(JavaScriptObject child) {
+        return isContainer(child) ? new JsonNode(child) : null;
+    }
+
+    private static native JavaScriptObject parse(String json) /*-{
+        return JSON.parse(json);
+    }-*/;
+
+    private static native String stringify(JavaScriptObject value) /*-{
+        return JSON.stringify(value);
+    }-*/;
+
+    private static native boolean isContainer(JavaScriptObject value) /*-{
+        return value !== null && typeof value === "object";
+    }-*/;
+
+    private static native boolean isArray(JavaScriptObject value) /*-{
+        return Array.isArray(value);
+    }-*/;
+
+    private static native int size(JavaScriptObject value, boolean array) /*-{
+        return array ? value.length : Object.keys(value).length;
+    }-*/;
+
+    private static native boolean has(JavaScriptObject value, String key) /*-{
+        return Object.prototype.hasOwnProperty.call(value, key);
+    }-*/;
+
+    private static native JsArrayString keys(JavaScriptObject value) /*-{
+        return Object.keys(value);
+    }-*/;
+
+    private static native JavaScriptObject member(JavaScriptObject value, String key) /*-{
+        var v = Object.prototype.hasOwnProperty.call(value, key) ? value[key] : null;
+        return v === undefined ? null : v;
+    }-*/;
+
+    private static native JavaScriptObject element(JavaScriptObject value, int index) /*-{
+        var v = value[index];
+        return v === undefined ? null : v;
+    }-*/;
+
+    private static native String stringMember(JavaScriptObject value, String key) /*-{
+        var v = Object.prototype.hasOwnProperty.call(value, key) ? value[key] : null;
+        return v === null || v === undefined ? null : (typeof v === "object" ? JSON.stringify(v) : String(v));
+    }-*/;
+
+    private static native String stringElement(JavaScriptObject value, int index) /*-{
+        var v = value[index];
+        return v === null || v === undefined ? null : (typeof v === "object" ? JSON.stringify(v) : String(v));
+    }-*/;
+
+    private static native double numberMember(JavaScriptObject value, String key) /*-{
+        var v = Object.prototype.hasOwnProperty.call(value, key) ? value[key] : null;
+        return typeof v === "number" ? v : Number.NaN;
+    }-*/;
+
+    private static native double numberElement(JavaScriptObject value, int index) /*-{
+        var v = value[index];
+        return typeof v === "number" ? v : Number.NaN;
+    }-*/;
+
+    private static native boolean booleanMember(JavaScriptObject value, String key) /*-{
+        return value[key] === true;
+    }-*/;
+
+    private static native boolean booleanElement(JavaScriptObject value, int index) /*-{
+        return value[index] === true;
+    }-*/;
 }
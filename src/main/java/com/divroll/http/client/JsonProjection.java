@@ -0,0 +1,266 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayString;
+
+/**
+ * A set of paths to keep when parsing a JSON response. Members outside the
+ * paths are skipped in the response text without being materialized, and each
+ * selected subtree is handed to {@code JSON.parse} on its own, so the parsed
+ * result only holds the projected data.
+ *
+ * <p>Paths are JSON Pointers ({@code /items/0/id}, with {@code ~0} and
+ * {@code ~1} escapes) or dotted paths ({@code items.0.id}). A {@code *}
+ * segment matches every member of an object or every element of an array.
+ * Arrays keep only their selected elements, in order.
+ *
+ * <pre>
+ * JsonProjection summary = JsonProjection.of("/items/&#42;/id", "/items/&#42;/title", "/next");
+ * HttpClient.get("/api/items").asJson(summary);
+ * </pre>
+ */
+public final class JsonProjection {
+
+    private final String[] paths;
+    private final JavaScriptObject tree;
+
+    private JsonProjection(String[] paths) {
+        this.paths = paths;
+        JsArrayString joined = JavaScriptObject.createArray().cast();
+        for (String path : paths) {
+            joined.push(path);
+        }
+        this.tree = compile(joined);
+    }
+
+    public static JsonProjection of(String... paths) {
+        if (paths.length == 0) {
+            throw new IllegalArgumentException("A projection needs at least one path");
+        }
+        return new JsonProjection(paths.clone());
+    }
+
+    /**
+     * Parses {@code json}, keeping only the projected members.
+     *
+     * @throws com.google.gwt.core.client.JavaScriptException if the text is not valid JSON
+     */
+    public JsonNode parse(String json) {
+        return new JsonNode(project(json, tree));
+    }
+
+    public String[] getPaths() {
+        return paths.clone();
+    }
+
+    /**
+     * Builds a tree of path segments where {@code true} selects a whole
+     * subtree. Wildcard branches are merged into their named siblings, so
+     * lookup during the scan is a single property read per member.
+     */
+    private static native JavaScriptObject compile(JsArrayString paths) /*-{
+        function segments(path) {
+            if (path.length === 0) {
+                return [];
+            }
+            if (path.charAt(0) !== '/') {
+                return path.split('.');
+            }
+            return path.substring(1).split('/').map(function (s) {
+                return s.replace(/~1/g, '/').replace(/~0/g, '~');
+            });
+        }
+        function merge(a, b) {
+            if (a === true || b === true) {
+                return true;
+            }
+            var r = {};
+            for (var k in a) {
+                r[k] = a[k];
+            }
+            for (var k in b) {
+                r[k] = Object.prototype.hasOwnProperty.call(r, k) ? merge(r[k], b[k]) : b[k];
+            }
+            return r;
+        }
+        function normalize(node) {
+            if (node === true) {
+                return node;
+            }
+            var any = node['*'];
+            for (var k in node) {
+                if (any !== undefined && k !== '*') {
+                    node[k] = merge(node[k], any);
+                }
+                node[k] = normalize(node[k]);
+            }
+            return node;
+        }
+        var root = {};
+        for (var i = 0; i < paths.length; i++) {
+            var s = segments(paths[i]);
+            if (s.length === 0) {
+                return true;
+            }
+            var node = root;
+            for (var j = 0; j < s.length - 1 && node !== true; j++) {
+                if (!Object.prototype.hasOwnProperty.call(node, s[j])) {
+                    node[s[j]] = {};
+                }
+                node = node[s[j]];
+            }
+            if (node !== true) {
+                node[s[s.length - 1]] = true;
+            }
+        }
+        return normalize(root);
+    }-*/;
+
+    /**
+     * Single-pass scan over the text. Unselected values are skipped by
+     * matching brackets and string quotes only; object keys are decoded just
+     * far enough to look them up in the projection tree.
+     */
+    private static native JavaScriptObject project(String s, JavaScriptObject tree) /*-{
+        var i = 0, n = s.length;
+        function fail() {
+            throw new SyntaxError('Unexpected token in JSON at position ' + i);
+        }
+        function ws() {
+            var c;
+            while (i < n && ((c = s.charCodeAt(i)) === 32 || c === 10 || c === 13 || c === 9)) {
+                i++;
+            }
+        }
+        function skipString() {
+            // i is at the opening quote; a quote preceded by an odd number of backslashes is escaped
+            var from = i + 1;
+            while (true) {
+                var j = s.indexOf('"', from);
+                if (j < 0) {
+                    fail();
+                }
+                var k = j - 1;
+                while (s.charCodeAt(k) === 92) {
+                    k--;
+                }
+                if ((j - 1 - k) % 2 === 0) {
+                    i = j + 1;
+                    return;
+                }
+                from = j + 1;
+            }
+        }
+        function skip() {
+            var c = s.charCodeAt(i);
+            if (c === 34) {
+                skipString();
+            } else if (c === 123 || c === 91) {
+                var depth = 0;
+                do {
+                    c = s.charCodeAt(i);
+                    if (c === 34) {
+                        skipString();
+                        continue;
+                    }
+                    if (c === 123 || c === 91) {
+                        depth++;
+                    } else if (c === 125 || c === 93) {
+                        depth--;
+                    } else if (i >= n) {
+                        fail();
+                    }
+                    i++;
+                } while (depth > 0);
+            } else {
+                while (i < n && (c = s.charCodeAt(i)) !== 44 && c !== 125 && c !== 93
+                        && c !== 32 && c !== 10 && c !== 13 && c !== 9) {
+                    i++;
+                }
+            }
+        }
+        function member(node, key) {
+            return Object.prototype.hasOwnProperty.call(node, key) ? node[key] : node['*'];
+        }
+        function value(node) {
+            ws();
+            var start = i;
+            var c = s.charCodeAt(i);
+            if (node === true || (c !== 123 && c !== 91)) {
+                skip();
+                return JSON.parse(s.substring(start, i));
+            }
+            var close = c === 123 ? 125 : 93;
+            var result = c === 123 ? {} : [];
+            var index = 0;
+            i++;
+            ws();
+            if (s.charCodeAt(i) === close) {
+                i++;
+                return result;
+            }
+            while (true) {
+                ws();
+                var key;
+                if (close === 125) {
+                    var keyStart = i;
+                    if (s.charCodeAt(i) !== 34) {
+                        fail();
+                    }
+                    skipString();
+                    key = s.substring(keyStart + 1, i - 1);
+                    if (key.indexOf('\\') >= 0) {
+                        key = JSON.parse(s.substring(keyStart, i));
+                    }
+                    ws();
+                    if (s.charCodeAt(i) !== 58) {
+                        fail();
+                    }
+                    i++;
+                } else {
+                    key = String(index++);
+                }
+                var child = member(node, key);
+                if (child === undefined) {
+                    ws();
+                    skip();
+                } else if (close === 125) {
+                    result[key] = value(child);
+                } else {
+                    result.push(value(child));
+                }
+                ws();
+                c = s.charCodeAt(i++);
+                if (c === close) {
+                    return result;
+                }
+                if (c !== 44) {
+                    i--;
+                    fail();
+                }
+            }
+        }
+        var result = value(tree);
+        ws();
+        if (i < n) {
+            fail();
+        }
+        return result;
+    }-*/;
+}
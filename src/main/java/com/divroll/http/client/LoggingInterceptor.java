@@ -0,0 +1,58 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.Response;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Logs method, url, status and elapsed time of every request at {@link Level#FINE}.
+ */
+public class LoggingInterceptor implements Interceptor {
+    private static final Logger logger = Logger.getLogger(LoggingInterceptor.class.getName());
+
+    @Override
+    public void intercept(Chain chain) {
+        if (!logger.isLoggable(Level.FINE)) {
+            chain.proceed(chain.callback());
+            return;
+        }
+        final PendingRequest request = chain.request();
+        final RequestCallback callback = chain.callback();
+        final Duration duration = new Duration();
+        chain.proceed(new RequestCallback() {
+            @Override
+            public void onResponseReceived(Request req, Response res) {
+                logger.fine(request.getMethod() + " " + request.getUrl() + " -> "
+                        + res.getStatusCode() + " in " + duration.elapsedMillis() + "ms");
+                callback.onResponseReceived(req, res);
+            }
+
+            @Override
+            public void onError(Request req, Throwable exception) {
+                logger.log(Level.FINE, request.getMethod() + " " + request.getUrl() + " failed in "
+                        + duration.elapsedMillis() + "ms", exception);
+                callback.onError(req, exception);
+            }
+        });
+    }
+}
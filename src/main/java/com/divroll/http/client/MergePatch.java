@@ -0,0 +1,78 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * JSON Merge Patch (RFC 7396) helpers.
+ */
+public final class MergePatch {
+
+    private MergePatch() {
+    }
+
+    /**
+     * Combines two merge patches into one whose application equals applying
+     * {@code first} and then {@code second}. Neither argument is modified.
+     *
+     * @return the combined patch, or null if it cannot be expressed as a single
+     *         merge patch, which happens when {@code second} sets an object where
+     *         {@code first} deleted or replaced the member with a non-object
+     */
+    public static JsonNode compose(JsonNode first, JsonNode second) {
+        if (first.isArray() || second.isArray()) {
+            return null;
+        }
+        JavaScriptObject result = compose(first.getJavaScriptObject(), second.getJavaScriptObject());
+        return result != null ? new JsonNode(result) : null;
+    }
+
+    /**
+     * @return the parsed body if it is a JSON object, otherwise null
+     */
+    static native JavaScriptObject parseObject(String json) /*-{
+        try {
+            var value = JSON.parse(json);
+            return value !== null && typeof value === "object" && !Array.isArray(value) ? value : null;
+        } catch (e) {
+            return null;
+        }
+    }-*/;
+
+    static native JavaScriptObject compose(JavaScriptObject first, JavaScriptObject second) /*-{
+        function isObject(v) {
+            return v !== null && typeof v === "object" && !Array.isArray(v);
+        }
+        function merge(target, patch) {
+            for (var key in patch) {
+                if (!Object.prototype.hasOwnProperty.call(patch, key)) {
+                    continue;
+                }
+                var value = patch[key];
+                if (!isObject(value) || !Object.prototype.hasOwnProperty.call(target, key)) {
+                    target[key] = value;
+                } else if (!isObject(target[key]) || !merge(target[key], value)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        var result = JSON.parse(JSON.stringify(first));
+        return merge(result, JSON.parse(JSON.stringify(second))) ? result : null;
+    }-*/;
+}
@@ -0,0 +1,109 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import com.divroll.http.client.codec.Codec;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.http.client.Response;
+
+/**
+ * Response decoded into {@code T} by a {@link Codec}. The body is parsed and
+ * decoded on first access; an empty body decodes to null.
+ */
+public class ObjectHttpResponse<T> implements HttpResponse<T> {
+
+    private final int status;
+    private final String statusText;
+    private final Codec<T> codec;
+    private String rawBody;
+    private T value;
+    private boolean decoded;
+    private PendingRequest request;
+    private String rawHeaders;
+    private ResponseHeaders headers;
+    private ResponseLimits.Retained retained;
+
+    public ObjectHttpResponse(int status, String statusText, String rawBody, Codec<T> codec) {
+        this.status = status;
+        this.statusText = statusText;
+        this.rawBody = rawBody;
+        this.codec = codec;
+    }
+
+    ObjectHttpResponse(Response response, Codec<T> codec, PendingRequest request) {
+        this(response.getStatusCode(), response.getStatusText(), response.getText(), codec);
+        this.rawHeaders = response.getHeadersAsString();
+        this.request = request;
+        this.retained = ResponseLimits.retain(this, response, rawBody);
+    }
+
+    /**
+     * Decodes the body on first access, reporting parse and decode time to the
+     * request's {@link ParseObserver}s if any are attached.
+     */
+    @Override
+    public T getBody() {
+        if (!decoded) {
+            decoded = true;
+            if (rawBody != null && !rawBody.isEmpty()) {
+                double start = request != null ? Duration.currentTimeMillis() : 0;
+                value = codec.decode(rawBody);
+                if (request != null) {
+                    request.fireParsed(Duration.currentTimeMillis() - start);
+                }
+            }
+            rawBody = null;
+            request = null;
+            if (retained != null) {
+                retained.release();
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void release() {
+        rawBody = null;
+        request = null;
+        if (retained != null) {
+            retained.release();
+        }
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public String getStatusText() {
+        return statusText;
+    }
+
+    /**
+     * Parses the headers on first access. Only their text is kept from the browser
+     * response, so a released body is not held through it.
+     */
+    @Override
+    public ResponseHeaders getHeaders() {
+        if (headers == null) {
+            headers = ResponseHeaders.parse(rawHeaders);
+            rawHeaders = null;
+        }
+        return headers;
+    }
+}
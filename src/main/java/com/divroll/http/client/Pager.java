@@ -0,0 +1,292 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import com.divroll.http.client.exceptions.HttpStatusException;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestBuilder;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.Response;
+import com.google.gwt.http.client.URL;
+import elemental2.promise.Promise;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Iterates over a paged collection, one {@code JsonNode} page at a time. The
+ * next page is found either from the {@code Link: <...>; rel="next"} response
+ * header or from a cursor field in the body, and is fetched while the caller
+ * is still working on the current one. At most {@code maxBufferedPages} pages
+ * are held that the caller has not taken yet.
+ *
+ * <pre>
+ * Pager pager = Pager.followLinks(HttpClient.get("/api/posts")).setMaxPages(50);
+ * pager.forEach(page -&gt; render(page.getBody())).then(count -&gt; ...);
+ * </pre>
+ */
+public class Pager {
+
+    public interface PageHandler {
+        void onPage(HttpResponse<JsonNode> page);
+    }
+
+    private interface NextPage {
+        /**
+         * @return the url of the page after {@code page}, or null if it was the last one
+         */
+        String find(PendingRequest request, HttpResponse<JsonNode> page);
+    }
+
+    private final GetRequest first;
+    private final NextPage nextPage;
+    private String nextUrl;
+    private int maxBufferedPages = 1;
+    private int maxPages = Integer.MAX_VALUE;
+    private int requested;
+    private boolean fetching;
+    private Throwable error;
+    private final List<HttpResponse<JsonNode>> buffer = new ArrayList<HttpResponse<JsonNode>>();
+    private final List<Waiter> waiters = new ArrayList<Waiter>();
+
+    private Pager(GetRequest first, NextPage nextPage) {
+        this.first = first;
+        this.nextPage = nextPage;
+        this.nextUrl = first.newPendingRequest(RequestBuilder.GET.toString(), null).getUrl();
+    }
+
+    /**
+     * Follows {@code rel="next"} links from the {@code Link} response header (RFC 8288).
+     */
+    public static Pager followLinks(GetRequest first) {
+        return new Pager(first, (request, page) -> nextLink(page.getHeader("Link"), request.getUrl()));
+    }
+
+    /**
+     * Reads the cursor from {@code cursorField} of each page (a dotted path such as
+     * {@code meta.next_cursor}) and requests the next page by setting it as the
+     * {@code cursorParam} query parameter of the first request's url. An empty or
+     * missing cursor ends the iteration.
+     */
+    public static Pager followCursor(GetRequest first, String cursorField, String cursorParam) {
+        return new Pager(first, (request, page) -> {
+            String cursor = field(page.getBody(), cursorField);
+            if (cursor == null || cursor.isEmpty()) {
+                return null;
+            }
+            return withParam(request.getUrl(), cursorParam, cursor);
+        });
+    }
+
+    /**
+     * Pages fetched ahead of the caller, and therefore held in memory; at least 1.
+     */
+    public Pager setMaxBufferedPages(int maxBufferedPages) {
+        this.maxBufferedPages = Math.max(1, maxBufferedPages);
+        return this;
+    }
+
+    /**
+     * Stops after this many pages even if the server links to more.
+     */
+    public Pager setMaxPages(int maxPages) {
+        this.maxPages = maxPages;
+        return this;
+    }
+
+    /**
+     * @return false once the last page has been taken
+     */
+    public boolean hasNext() {
+        return !buffer.isEmpty() || fetching || (nextUrl != null && requested < maxPages);
+    }
+
+    /**
+     * Takes the next page, fetching it if it is not buffered yet.
+     * @return a Promise resolving to the page, or to null after the last page
+     */
+    public Promise<HttpResponse<JsonNode>> next() {
+        return new Promise<HttpResponse<JsonNode>>((resolve, reject) -> {
+            waiters.add(new Waiter() {
+                @Override
+                void resolve(HttpResponse<JsonNode> page) {
+                    resolve.onInvoke(page);
+                }
+
+                @Override
+                void reject(Object reason) {
+                    reject.onInvoke(reason);
+                }
+            });
+            drain();
+            fill();
+        });
+    }
+
+    /**
+     * Hands every remaining page to the handler in order.
+     * @return a Promise resolving to the number of pages handled
+     */
+    public Promise<Integer> forEach(PageHandler handler) {
+        return new Promise<Integer>((resolve, reject) -> forEach(handler, 0, resolve, reject));
+    }
+
+    private void forEach(PageHandler handler, int count,
+                         Promise.PromiseExecutorCallbackFn.ResolveCallbackFn<Integer> resolve,
+                         Promise.PromiseExecutorCallbackFn.RejectCallbackFn reject) {
+        next().then(page -> {
+            if (page == null) {
+                resolve.onInvoke(count);
+            } else {
+                handler.onPage(page);
+                forEach(handler, count + 1, resolve, reject);
+            }
+            return null;
+        }, e -> {
+            reject.onInvoke(e);
+            return null;
+        });
+    }
+
+    private void drain() {
+        while (!waiters.isEmpty()) {
+            if (!buffer.isEmpty()) {
+                waiters.remove(0).resolve(buffer.remove(0));
+            } else if (error != null) {
+                waiters.remove(0).reject(error);
+            } else if (!fetching && (nextUrl == null || requested >= maxPages)) {
+                waiters.remove(0).resolve(null);
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Fetches the next page if nothing is in flight and the buffer has room for it.
+     */
+    private void fill() {
+        if (fetching || error != null || nextUrl == null || requested >= maxPages
+                || buffer.size() - waiters.size() >= maxBufferedPages) {
+            return;
+        }
+        fetching = true;
+        requested++;
+        // Built like the first request, so every page keeps its client's pool, limits and priority
+        PendingRequest request = first.newPendingRequest(RequestBuilder.GET.toString(), null);
+        request.setUrl(nextUrl);
+        RequestPipeline.execute(request, new RequestCallback() {
+            @Override
+            public void onResponseReceived(Request req, Response res) {
+                fetching = false;
+                int status = res.getStatusCode();
+                if (status >= 200 && status < 300) {
+                    HttpResponse<JsonNode> page = HttpRequest.readJson(request, res);
+                    nextUrl = nextPage.find(request, page);
+                    buffer.add(page);
+                } else {
+                    error = new HttpStatusException(status, res.getStatusText(), res.getText());
+                }
+                drain();
+                fill();
+            }
+
+            @Override
+            public void onError(Request req, Throwable exception) {
+                fetching = false;
+                error = exception;
+                drain();
+            }
+        });
+    }
+
+    /**
+     * @return the resolved target of the first {@code rel="next"} link in a {@code Link} header value
+     */
+    static String nextLink(String header, String base) {
+        if (header == null) {
+            return null;
+        }
+        int pos = 0;
+        while (true) {
+            int open = header.indexOf('<', pos);
+            int close = open < 0 ? -1 : header.indexOf('>', open);
+            if (close < 0) {
+                return null;
+            }
+            int end = header.indexOf('<', close);
+            if (hasRelNext(header.substring(close + 1, end < 0 ? header.length() : end))) {
+                return resolve(header.substring(open + 1, close), base);
+            }
+            pos = close;
+        }
+    }
+
+    private static boolean hasRelNext(String params) {
+        for (String param : params.split("[;,]")) {
+            int eq = param.indexOf('=');
+            if (eq < 0 || !"rel".equalsIgnoreCase(param.substring(0, eq).trim())) {
+                continue;
+            }
+            String value = param.substring(eq + 1).trim().replace("\"", "");
+            for (String rel : value.split("\\s+")) {
+                if ("next".equalsIgnoreCase(rel)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String field(JsonNode node, String path) {
+        String[] names = path.split("\\.");
+        for (int i = 0; i < names.length - 1 && node != null; i++) {
+            node = node.get(names[i]);
+        }
+        return node != null ? node.getString(names[names.length - 1]) : null;
+    }
+
+    private static String withParam(String url, String name, String value) {
+        int query = url.indexOf('?');
+        StringBuilder sb = new StringBuilder(query < 0 ? url : url.substring(0, query));
+        char separator = '?';
+        if (query >= 0) {
+            for (String pair : url.substring(query + 1).split("&")) {
+                if (pair.isEmpty() || pair.equals(name) || pair.startsWith(name + "=")) {
+                    continue;
+                }
+                sb.append(separator).append(pair);
+                separator = '&';
+            }
+        }
+        return sb.append(separator).append(name).append('=').append(URL.encodeQueryString(value)).toString();
+    }
+
+    private static native String resolve(String reference, String base) /*-{
+        try {
+            return new $wnd.URL(reference, new $wnd.URL(base, $wnd.location.href)).href;
+        } catch (e) {
+            return reference;
+        }
+    }-*/;
+
+    private abstract static class Waiter {
+        abstract void resolve(HttpResponse<JsonNode> page);
+
+        abstract void reject(Object reason);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.Response;
+import elemental2.promise.Promise;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges PATCH requests to the same URL into a single JSON merge patch. A batch
+ * stays open for {@code windowMillis} after its first request and, after that,
+ * for as long as an earlier batch to the same URL is still in flight; batches
+ * for one URL are sent strictly one after another. Only JSON object bodies with
+ * identical headers are merged; anything else is sent on its own, in order.
+ * Every caller is resolved with the response to the request that carried its patch;
+ * that body counts once against the {@link ResponseLimits} budget, for the first caller.
+ */
+final class PatchCoalescer {
+    private final int windowMillis;
+    private final Map<String, List<Batch>> queues = new HashMap<String, List<Batch>>();
+    private int coalescedCount;
+
+    PatchCoalescer(int windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    int getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    <T> Promise<HttpResponse<T>> submit(PendingRequest request, ResponseReader<T> reader) {
+        return new Promise<HttpResponse<T>>((resolve, reject) -> add(request, new Caller() {
+            @Override
+            void received(Response res, boolean shared) {
+                ResponseDelivery.deliver(() -> resolve.onInvoke(shared
+                        ? ResponseLimits.readShared(reader, request, res)
+                        : reader.read(request, res)));
+            }
+
+            @Override
+            void failed(Throwable exception) {
+                ResponseDelivery.deliver(() -> reject.onInvoke(exception));
+            }
+        }));
+    }
+
+    private void add(PendingRequest request, Caller caller) {
+        String url = request.getUrl();
+        List<Batch> queue = queues.get(url);
+        if (queue == null) {
+            queue = new ArrayList<Batch>();
+            queues.put(url, queue);
+        }
+        JavaScriptObject patch = isJson(request) ? MergePatch.parseObject(request.getBody()) : null;
+        Batch last = queue.isEmpty() ? null : queue.get(queue.size() - 1);
+        if (patch != null && last != null && last.canJoin(request)) {
+            JavaScriptObject merged = MergePatch.compose(last.patch, patch);
+            if (merged != null) {
+                last.patch = merged;
+                last.request = request;
+                last.callers.add(caller);
+                coalescedCount++;
+                return;
+            }
+        }
+        Batch batch = new Batch(patch, request, caller);
+        queue.add(batch);
+        if (patch == null) {
+            batch.ready = true;
+            sendNext(url);
+        } else {
+            Scheduler.get().scheduleFixedDelay(() -> {
+                batch.ready = true;
+                sendNext(url);
+                return false;
+            }, windowMillis);
+        }
+    }
+
+    private void sendNext(String url) {
+        List<Batch> queue = queues.get(url);
+        if (queue == null || queue.isEmpty()) {
+            return;
+        }
+        Batch batch = queue.get(0);
+        if (batch.sent || !batch.ready) {
+            return;
+        }
+        batch.sent = true;
+        PendingRequest request = batch.request;
+        if (batch.callers.size() > 1) {
+            request.setBody(new JsonNode(batch.patch).toString());
+        }
+        RequestPipeline.execute(request, new RequestCallback() {
+            @Override
+            public void onResponseReceived(Request req, Response res) {
+                complete(url);
+                for (int i = 0; i < batch.callers.size(); i++) {
+                    batch.callers.get(i).received(res, i > 0);
+                }
+                sendNext(url);
+            }
+
+            @Override
+            public void onError(Request req, Throwable exception) {
+                complete(url);
+                for (Caller caller : batch.callers) {
+                    caller.failed(exception);
+                }
+                sendNext(url);
+            }
+        });
+    }
+
+    private void complete(String url) {
+        List<Batch> queue = queues.get(url);
+        queue.remove(0);
+        if (queue.isEmpty()) {
+            queues.remove(url);
+        }
+    }
+
+    private static boolean isJson(PendingRequest request) {
+        String contentType = request.getHeader("Content-Type");
+        return contentType != null && contentType.toLowerCase().contains("json");
+    }
+
+    private abstract static class Caller {
+        /**
+         * @param shared whether an earlier caller in the batch already read, and counted, the body
+         */
+        abstract void received(Response response, boolean shared);
+
+        abstract void failed(Throwable exception);
+    }
+
+    private static final class Batch {
+        private final List<Caller> callers = new ArrayList<Caller>();
+        private JavaScriptObject patch;
+        private PendingRequest request;
+        private boolean ready;
+        private boolean sent;
+
+        Batch(JavaScriptObject patch, PendingRequest request, Caller caller) {
+            this.patch = patch;
+            this.request = request;
+            callers.add(caller);
+        }
+
+        boolean canJoin(PendingRequest next) {
+            return !sent && patch != null && request.getHeaders().equals(next.getHeaders());
+        }
+    }
+}
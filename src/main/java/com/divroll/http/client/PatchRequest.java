@@ -16,10 +16,14 @@
  */
 package com.divroll.http.client;
 
+import elemental2.promise.Promise;
+
 import java.util.Map;
 import java.util.Set;
 
 public class PatchRequest extends HttpRequestWithBodyImpl {
+    private static PatchCoalescer coalescer;
+
     public PatchRequest(String url) {
         super(url, "PATCH");
     }
@@ -31,4 +35,36 @@ public class PatchRequest extends HttpRequestWithBodyImpl {
     public PatchRequest(String url, Set<Header> headers, Map<String, String> queryParameters) {
         super(url, headers, queryParameters, "PATCH");
     }
-}
\ No newline at end of file
+
+    /**
+     * Merges PATCHes with JSON object bodies to the same URL into one RFC 7396
+     * merge patch when they are made within {@code windowMillis} of each other,
+     * or while an earlier PATCH to that URL is still in flight. Each caller's
+     * Promise resolves with the response to the combined request. Requests whose
+     * headers differ, or whose bodies cannot be combined, are sent separately but
+     * still in order.
+     */
+    public static void enableCoalescing(int windowMillis) {
+        coalescer = new PatchCoalescer(windowMillis);
+    }
+
+    /**
+     * Stops coalescing new requests; batches already open are still sent.
+     */
+    public static void disableCoalescing() {
+        coalescer = null;
+    }
+
+    /**
+     * @return requests merged into an earlier one since coalescing was enabled
+     */
+    public static int getCoalescedCount() {
+        return coalescer != null ? coalescer.getCoalescedCount() : 0;
+    }
+
+    @Override
+    <T> Promise<HttpResponse<T>> dispatch(PendingRequest request, ResponseReader<T> reader) {
+        PatchCoalescer current = coalescer;
+        return current != null ? current.submit(request, reader) : super.dispatch(request, reader);
+    }
+}
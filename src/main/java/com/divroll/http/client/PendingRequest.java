@@ -0,0 +1,216 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import com.google.gwt.core.client.Duration;
+
+import java.util.Map;
+
+/**
+ * A fully resolved request on its way through the {@link RequestPipeline}.
+ * Header names are matched case-insensitively, so setting {@code Accept}
+ * replaces an earlier {@code accept} instead of sending both.
+ */
+public class PendingRequest {
+    private final String method;
+    private String url;
+    private String body;
+    private int timeoutMillis;
+    private String endpoint;
+    private final double createdMillis;
+    private double sentMillis;
+    private ParseObserver[] parseObservers;
+    private Priority priority = Priority.AUTO;
+    private boolean binaryResponse;
+    private int maxResponseBytes;
+    private RequestPool pool;
+    private final Headers headers = new Headers();
+
+    public PendingRequest(String method, String url, String body, int timeoutMillis) {
+        this.method = method;
+        this.url = url;
+        this.body = body;
+        this.timeoutMillis = timeoutMillis;
+        this.createdMillis = Duration.currentTimeMillis();
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    /**
+     * Endpoint this request is grouped under for metrics: the URI template when the
+     * request came from a {@link RequestTemplate}, otherwise the url without its query.
+     */
+    public String getEndpoint() {
+        if (endpoint != null) {
+            return endpoint;
+        }
+        int query = url != null ? url.indexOf('?') : -1;
+        return query < 0 ? url : url.substring(0, query);
+    }
+
+    public void setEndpoint(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Time the request was resolved by the caller, in {@link Duration#currentTimeMillis()} units.
+     */
+    public double getCreatedMillis() {
+        return createdMillis;
+    }
+
+    /**
+     * Time the request was handed to the browser, or 0 if it has not been sent yet.
+     */
+    public double getSentMillis() {
+        return sentMillis;
+    }
+
+    void markSent() {
+        sentMillis = Duration.currentTimeMillis();
+    }
+
+    public Priority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Priority priority) {
+        this.priority = priority != null ? priority : Priority.AUTO;
+    }
+
+    /**
+     * Whether the body is received as an {@code ArrayBuffer} to be decoded by a
+     * {@link com.divroll.http.client.codec.BinaryCodec}; set when {@code asJson()}
+     * negotiates a binary format.
+     */
+    public boolean isBinaryResponse() {
+        return binaryResponse;
+    }
+
+    public void setBinaryResponse(boolean binaryResponse) {
+        this.binaryResponse = binaryResponse;
+    }
+
+    /**
+     * @return the size cap for this response, or 0 to use {@link ResponseLimits#getMaxResponseBytes()}
+     */
+    public int getMaxResponseBytes() {
+        return maxResponseBytes;
+    }
+
+    public void setMaxResponseBytes(int maxResponseBytes) {
+        this.maxResponseBytes = maxResponseBytes;
+    }
+
+    /**
+     * @return the pool of the {@link BackendClient} that created this request, or null
+     */
+    RequestPool getPool() {
+        return pool;
+    }
+
+    void setPool(RequestPool pool) {
+        this.pool = pool;
+    }
+
+    public void addParseObserver(ParseObserver observer) {
+        if (parseObservers == null) {
+            parseObservers = new ParseObserver[] {observer};
+            return;
+        }
+        ParseObserver[] next = new ParseObserver[parseObservers.length + 1];
+        System.arraycopy(parseObservers, 0, next, 0, parseObservers.length);
+        next[parseObservers.length] = observer;
+        parseObservers = next;
+    }
+
+    boolean hasParseObservers() {
+        return parseObservers != null;
+    }
+
+    void fireParsed(double parseMillis) {
+        if (parseObservers != null) {
+            for (ParseObserver observer : parseObservers) {
+                observer.onParsed(this, parseMillis);
+            }
+        }
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public int getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public void setTimeoutMillis(int timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers.asMap();
+    }
+
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    public boolean hasHeader(String name) {
+        return headers.has(name);
+    }
+
+    public PendingRequest setHeader(String name, String value) {
+        headers.set(name, value);
+        return this;
+    }
+
+    /**
+     * Sets the header only if no header of the same name is present yet.
+     */
+    public PendingRequest setDefaultHeader(String name, String value) {
+        headers.setDefault(name, value);
+        return this;
+    }
+
+    public PendingRequest removeHeader(String name) {
+        headers.remove(name);
+        return this;
+    }
+
+    /**
+     * Copies headers that were already normalized, e.g. by a {@link RequestTemplate},
+     * without the case-insensitive lookup.
+     */
+    void putNormalizedHeaders(String[] names, String[] values) {
+        headers.putNormalized(names, values);
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestBuilder;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.Response;
+import elemental2.promise.Promise;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Fetches GETs ahead of time so a later {@code HttpClient.get(url)} with the
+ * same url and headers resolves from memory. Prefetches are started from
+ * {@code requestIdleCallback} (a short timeout where it is unsupported), with
+ * at most {@code maxConcurrency} in flight, and stop while the stored
+ * responses use {@code maxBytes}. Each stored response is used once; those not
+ * used within {@code maxAgeMillis} are dropped. A GET made while its prefetch is
+ * still in flight waits for it instead of sending a second request.
+ *
+ * <pre>
+ * HttpClient.prefetch("/api/posts?page=2");
+ * ...
+ * HttpClient.get("/api/posts?page=2").asJson()  // no network wait
+ * </pre>
+ */
+public final class Prefetcher {
+    private static final Map<String, Entry> entries = new LinkedHashMap<String, Entry>();
+    private static final List<Entry> queue = new ArrayList<Entry>();
+    private static int maxConcurrency = 2;
+    private static int maxBytes = 2 * 1024 * 1024;
+    private static int maxAgeMillis = 30000;
+    private static int inFlight;
+    private static int storedBytes;
+    private static boolean idleScheduled;
+    private static boolean sweepScheduled;
+
+    private static int prefetchedCount;
+    private static int hitCount;
+    private static int droppedCount;
+    private static int skippedCount;
+
+    private Prefetcher() {
+    }
+
+    public static void setMaxConcurrency(int maxConcurrency) {
+        Prefetcher.maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    /**
+     * Limit on the total size of stored, not yet used responses, in bytes as counted by
+     * {@link ResponseLimits#sizeOf(Response)}.
+     */
+    public static void setMaxBytes(int maxBytes) {
+        Prefetcher.maxBytes = maxBytes;
+    }
+
+    public static void setMaxAgeMillis(int maxAgeMillis) {
+        Prefetcher.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Queues a GET for {@code url} with the default headers. Ignored if the url is
+     * already queued, in flight or stored.
+     */
+    public static void prefetch(String url) {
+        prefetch(HttpClient.get(url));
+    }
+
+    /**
+     * Queues the request as built so far, e.g. with extra headers or query parameters.
+     */
+    public static void prefetch(GetRequest get) {
+        PendingRequest request = get.newPendingRequest(RequestBuilder.GET.toString(), null);
+        request.setPriority(Priority.LOW);
+        String key = request.getUrl();
+        if (entries.containsKey(key)) {
+            return;
+        }
+        Entry entry = new Entry(request);
+        entries.put(key, entry);
+        queue.add(entry);
+        scheduleIdle();
+    }
+
+    /**
+     * Drops everything stored or queued; stored responses count as dropped.
+     */
+    public static void clear() {
+        for (Entry entry : entries.values()) {
+            if (entry.response != null) {
+                droppedCount++;
+            }
+        }
+        entries.clear();
+        queue.clear();
+        storedBytes = 0;
+    }
+
+    /**
+     * @return prefetches that completed and were stored
+     */
+    public static int getPrefetchedCount() {
+        return prefetchedCount;
+    }
+
+    /**
+     * @return GETs answered from a prefetch
+     */
+    public static int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return stored responses that expired or were cleared without being used
+     */
+    public static int getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * @return prefetches not stored because they failed, returned a non-2xx status
+     *         or did not fit in the byte budget
+     */
+    public static int getSkippedCount() {
+        return skippedCount;
+    }
+
+    public static int getStoredBytes() {
+        return storedBytes;
+    }
+
+    /**
+     * Answers the GET from a stored or in-flight prefetch with the same url and headers.
+     * @return null when there is no matching prefetch and the request must be sent
+     */
+    static <T> Promise<HttpResponse<T>> take(PendingRequest request, ResponseReader<T> reader) {
+        if (entries.isEmpty()) {
+            return null;
+        }
+        Entry entry = entries.get(request.getUrl());
+        if (entry == null || !entry.headers.equals(request.getHeaders())) {
+            return null;
+        }
+        if (entry.response != null && isExpired(entry, Duration.currentTimeMillis())) {
+            expire(entry);
+            return null;
+        }
+        entries.remove(request.getUrl());
+        if (queue.remove(entry)) {
+            return null;
+        }
+        if (entry.response != null) {
+            storedBytes -= entry.size;
+            scheduleIdle();
+        }
+        return new Promise<HttpResponse<T>>((resolve, reject) -> entry.whenDone(response -> {
+            if (response != null) {
+                hitCount++;
+                ResponseDelivery.deliver(() -> resolve.onInvoke(reader.read(request, response)));
+            } else {
+                RequestPipeline.promise(request, reader, true).then(r -> {
+                    resolve.onInvoke(r);
+                    return null;
+                }, e -> {
+                    reject.onInvoke(e);
+                    return null;
+                });
+            }
+        }));
+    }
+
+    private static void scheduleIdle() {
+        if (!idleScheduled && !queue.isEmpty()) {
+            idleScheduled = true;
+            requestIdle();
+        }
+    }
+
+    private static void onIdle(double timeRemaining) {
+        idleScheduled = false;
+        while (timeRemaining > 1 && !queue.isEmpty() && inFlight < maxConcurrency && storedBytes < maxBytes) {
+            start(queue.remove(0));
+        }
+        if (inFlight < maxConcurrency && storedBytes < maxBytes) {
+            scheduleIdle();
+        }
+    }
+
+    private static void start(Entry entry) {
+        inFlight++;
+        RequestPipeline.execute(entry.request, new RequestCallback() {
+            @Override
+            public void onResponseReceived(Request req, Response res) {
+                int status = res.getStatusCode();
+                finish(entry, status >= 200 && status < 300 ? res : null);
+            }
+
+            @Override
+            public void onError(Request req, Throwable exception) {
+                finish(entry, null);
+            }
+        });
+    }
+
+    private static void finish(Entry entry, Response response) {
+        inFlight--;
+        boolean taken = entries.get(entry.request.getUrl()) != entry;
+        if (!taken) {
+            int size = response != null ? ResponseLimits.sizeOf(response) : 0;
+            if (response == null || storedBytes + size > maxBytes) {
+                entries.remove(entry.request.getUrl());
+                response = null;
+                skippedCount++;
+            } else {
+                entry.size = size;
+                entry.storedMillis = Duration.currentTimeMillis();
+                storedBytes += size;
+                prefetchedCount++;
+                scheduleSweep();
+            }
+        } else if (response != null) {
+            prefetchedCount++;
+        }
+        entry.complete(response);
+        scheduleIdle();
+    }
+
+    private static boolean isExpired(Entry entry, double now) {
+        return now - entry.storedMillis > maxAgeMillis;
+    }
+
+    private static void expire(Entry entry) {
+        entries.remove(entry.request.getUrl());
+        storedBytes -= entry.size;
+        droppedCount++;
+        scheduleIdle();
+    }
+
+    private static void scheduleSweep() {
+        if (sweepScheduled) {
+            return;
+        }
+        sweepScheduled = true;
+        Scheduler.get().scheduleFixedDelay(() -> {
+            sweepScheduled = false;
+            double now = Duration.currentTimeMillis();
+            Iterator<Entry> it = entries.values().iterator();
+            boolean remaining = false;
+            while (it.hasNext()) {
+                Entry entry = it.next();
+                if (entry.response == null) {
+                    continue;
+                }
+                if (isExpired(entry, now)) {
+                    it.remove();
+                    storedBytes -= entry.size;
+                    droppedCount++;
+                } else {
+                    remaining = true;
+                }
+            }
+            if (remaining) {
+                scheduleSweep();
+            }
+            scheduleIdle();
+            return false;
+        }, maxAgeMillis);
+    }
+
+    private static native void requestIdle() /*-{
+        var run = $entry(function(deadline) {
+            @com.divroll.http.client.Prefetcher::onIdle(D)(deadline ? deadline.timeRemaining() : 50);
+        });
+        if ($wnd.requestIdleCallback) {
+            $wnd.requestIdleCallback(run, {timeout: 2000});
+        } else {
+            $wnd.setTimeout(function() {
+                run(null);
+            }, 50);
+        }
+    }-*/;
+
+    private static final class Entry {
+        private final PendingRequest request;
+        private final Map<String, String> headers;
+        private Response response;
+        private boolean done;
+        private int size;
+        private double storedMillis;
+        private List<Consumer<Response>> waiters;
+
+        Entry(PendingRequest request) {
+            this.request = request;
+            this.headers = new HashMap<String, String>(request.getHeaders());
+        }
+
+        void whenDone(Consumer<Response> waiter) {
+            if (done) {
+                waiter.accept(response);
+                return;
+            }
+            if (waiters == null) {
+                waiters = new ArrayList<Consumer<Response>>();
+            }
+            waiters.add(waiter);
+        }
+
+        void complete(Response response) {
+            this.response = response;
+            this.done = true;
+            if (waiters != null) {
+                for (Consumer<Response> waiter : waiters) {
+                    waiter.accept(response);
+                }
+                waiters = null;
+            }
+        }
+    }
+}
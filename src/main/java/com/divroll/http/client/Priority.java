@@ -0,0 +1,43 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+/**
+ * Relative importance of a request, in the sense of the fetch {@code priority}
+ * option. Requests are sent with XMLHttpRequest, which has no priority hint, so
+ * the value only takes effect through a scheduling interceptor such as
+ * {@code com.divroll.http.client.priority.PriorityInterceptor}.
+ */
+public enum Priority {
+    /**
+     * Blocks rendering; {@link #LOW} requests wait while any of these are in flight.
+     */
+    HIGH,
+    /**
+     * The default: sent immediately.
+     */
+    AUTO,
+    /**
+     * Sent once no {@link #HIGH} request is in flight.
+     */
+    LOW,
+    /**
+     * Analytics, preloads and similar traffic: held until other requests have
+     * drained and the page is idle, and not started while the tab is hidden.
+     */
+    BACKGROUND
+}
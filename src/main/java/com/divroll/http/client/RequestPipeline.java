@@ -0,0 +1,262 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import com.divroll.http.client.exceptions.HttpStatusException;
+import com.divroll.http.client.exceptions.TimeoutException;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.RequestException;
+import com.google.gwt.http.client.Response;
+import elemental2.promise.Promise;
+
+import java.util.Map;
+
+/**
+ * Single execution path shared by every request type. When no interceptors
+ * are registered the request goes straight to {@link HttpRequestBuilder}
+ * without allocating a chain.
+ */
+final class RequestPipeline {
+    private static Interceptor[] interceptors = new Interceptor[0];
+
+    private RequestPipeline() {
+    }
+
+    /**
+     * Appends an interceptor to the end of the chain. The array is copied so
+     * chains already in flight keep the interceptors they started with.
+     */
+    static void addInterceptor(Interceptor interceptor) {
+        Interceptor[] next = new Interceptor[interceptors.length + 1];
+        System.arraycopy(interceptors, 0, next, 0, interceptors.length);
+        next[interceptors.length] = interceptor;
+        interceptors = next;
+    }
+
+    static void removeInterceptor(Interceptor interceptor) {
+        for (int i = 0; i < interceptors.length; i++) {
+            if (interceptors[i] == interceptor) {
+                Interceptor[] next = new Interceptor[interceptors.length - 1];
+                System.arraycopy(interceptors, 0, next, 0, i);
+                System.arraycopy(interceptors, i + 1, next, i, interceptors.length - i - 1);
+                interceptors = next;
+                return;
+            }
+        }
+    }
+
+    static void clearInterceptors() {
+        interceptors = new Interceptor[0];
+    }
+
+    /**
+     * Runs the request through the interceptor chain and sends it.
+     * @return the underlying request, or null if an interceptor deferred or answered it
+     */
+    static Request execute(PendingRequest request, RequestCallback callback) {
+        Interceptor[] current = interceptors;
+        if (current.length == 0) {
+            return send(request, callback);
+        }
+        RealChain chain = new RealChain(current, 0, request, callback);
+        current[0].intercept(chain);
+        return chain.sent;
+    }
+
+    /**
+     * Executes the request and adapts the callback to a Promise, resolving it
+     * through {@link ResponseDelivery}.
+     * @param rejectErrorStatus reject with {@link HttpStatusException} on non-2xx responses
+     */
+    static <T> Promise<HttpResponse<T>> promise(PendingRequest request, ResponseReader<T> reader,
+                                                boolean rejectErrorStatus) {
+        return new Promise<HttpResponse<T>>((resolve, reject) ->
+                execute(request, new RequestCallback() {
+                    @Override
+                    public void onResponseReceived(Request req, Response res) {
+                        if (ResponseDelivery.isImmediate()) {
+                            complete(res);
+                        } else {
+                            ResponseDelivery.deliver(() -> complete(res));
+                        }
+                    }
+
+                    @Override
+                    public void onError(Request req, Throwable exception) {
+                        if (ResponseDelivery.isImmediate()) {
+                            reject.onInvoke(exception);
+                        } else {
+                            ResponseDelivery.deliver(() -> reject.onInvoke(exception));
+                        }
+                    }
+
+                    private void complete(Response res) {
+                        int status = res.getStatusCode();
+                        if (!rejectErrorStatus || (status >= 200 && status < 300)) {
+                            resolve.onInvoke(reader.read(request, res));
+                        } else {
+                            reject.onInvoke(new HttpStatusException(status, res.getStatusText(), res.getText()));
+                        }
+                    }
+                }));
+    }
+
+    /**
+     * Last stage of the chain: waits for a slot in the request's {@link RequestPool}
+     * if it has one, otherwise transmits right away.
+     * @return the underlying request, or null if it is waiting for a slot
+     */
+    static Request send(PendingRequest request, RequestCallback callback) {
+        RequestPool pool = request.getPool();
+        return pool != null ? pool.send(request, callback) : transmit(request, callback);
+    }
+
+    /**
+     * Hands the request to the browser. The timeout is tracked by the shared
+     * {@link TimeoutWheel} rather than a timer per request, and fails the request
+     * with a {@link TimeoutException}.
+     */
+    static Request transmit(PendingRequest request, RequestCallback callback) {
+        TimedCallback timed = request.getTimeoutMillis() > 0 ? new TimedCallback(request, callback) : null;
+        RequestCallback cb = timed != null ? timed : callback;
+        request.markSent();
+        if (request.isBinaryResponse() || ResponseLimits.isEnforced(request)) {
+            JavaScriptObject xhr = XhrResponse.send(request, cb);
+            if (timed != null) {
+                timed.start(null, xhr);
+            }
+            return null;
+        }
+        HttpRequestBuilder b = new HttpRequestBuilder(request.getMethod(), request.getUrl());
+        b.setTimeoutMillis(0);
+        for (Map.Entry<String, String> entry : request.getHeaders().entrySet()) {
+            b.setHeader(entry.getKey(), entry.getValue());
+        }
+        Request sent;
+        try {
+            sent = b.sendRequest(request.getBody(), cb);
+        } catch (RequestException e) {
+            cb.onError(null, e);
+            return null;
+        }
+        if (timed != null) {
+            timed.start(sent, null);
+        }
+        return sent;
+    }
+
+    /**
+     * Completes the request with a {@link TimeoutException} and cancels it if
+     * no response arrived before its deadline; later callbacks are dropped.
+     */
+    private static final class TimedCallback implements RequestCallback {
+        private final PendingRequest request;
+        private final RequestCallback callback;
+        private TimeoutWheel.Timeout timeout;
+        private boolean done;
+
+        TimedCallback(PendingRequest request, RequestCallback callback) {
+            this.request = request;
+            this.callback = callback;
+        }
+
+        void start(Request sent, JavaScriptObject xhr) {
+            if (done) {
+                return;
+            }
+            int millis = request.getTimeoutMillis();
+            timeout = TimeoutWheel.schedule(millis, () -> {
+                done = true;
+                if (sent != null) {
+                    sent.cancel();
+                } else if (xhr != null) {
+                    XhrResponse.abort(xhr);
+                }
+                callback.onError(sent, new TimeoutException(request.getUrl(), millis));
+            });
+        }
+
+        @Override
+        public void onResponseReceived(Request req, Response res) {
+            if (finish()) {
+                callback.onResponseReceived(req, res);
+            }
+        }
+
+        @Override
+        public void onError(Request req, Throwable exception) {
+            if (finish()) {
+                callback.onError(req, exception);
+            }
+        }
+
+        private boolean finish() {
+            if (done) {
+                return false;
+            }
+            done = true;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+            return true;
+        }
+    }
+
+    private static class RealChain implements Interceptor.Chain {
+        private final Interceptor[] interceptors;
+        private final int index;
+        private final PendingRequest request;
+        private final RequestCallback callback;
+        private final RealChain root;
+        private Request sent;
+
+        RealChain(Interceptor[] interceptors, int index, PendingRequest request, RequestCallback callback) {
+            this(interceptors, index, request, callback, null);
+        }
+
+        private RealChain(Interceptor[] interceptors, int index, PendingRequest request,
+                          RequestCallback callback, RealChain root) {
+            this.interceptors = interceptors;
+            this.index = index;
+            this.request = request;
+            this.callback = callback;
+            this.root = root != null ? root : this;
+        }
+
+        @Override
+        public PendingRequest request() {
+            return request;
+        }
+
+        @Override
+        public RequestCallback callback() {
+            return callback;
+        }
+
+        @Override
+        public void proceed(RequestCallback callback) {
+            int next = index + 1;
+            if (next < interceptors.length) {
+                interceptors[next].intercept(new RealChain(interceptors, next, request, callback, root));
+            } else {
+                root.sent = send(request, callback);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Caps the requests of one {@link BackendClient} that are in flight at once.
+ * Requests over the cap wait in order at the end of the {@link RequestPipeline}
+ * and are sent as earlier ones complete, so a slow backend only queues its own
+ * requests. A waiting request has not reached the browser yet: its timeout only
+ * starts when it is sent, and it cannot be cancelled, because no
+ * {@link Request} exists for it.
+ */
+final class RequestPool {
+    private final int maxInFlight;
+    private final List<PendingRequest> queuedRequests = new ArrayList<PendingRequest>();
+    private final List<RequestCallback> queuedCallbacks = new ArrayList<RequestCallback>();
+    private int inFlight;
+
+    RequestPool(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    int getInFlight() {
+        return inFlight;
+    }
+
+    int getQueuedCount() {
+        return queuedRequests.size();
+    }
+
+    /**
+     * @return the underlying request, or null if it was queued or sent without a {@code Request} handle
+     */
+    Request send(PendingRequest request, RequestCallback callback) {
+        if (inFlight >= maxInFlight) {
+            queuedRequests.add(request);
+            queuedCallbacks.add(callback);
+            return null;
+        }
+        inFlight++;
+        return RequestPipeline.transmit(request, new RequestCallback() {
+            @Override
+            public void onResponseReceived(Request req, Response res) {
+                release();
+                callback.onResponseReceived(req, res);
+            }
+
+            @Override
+            public void onError(Request req, Throwable exception) {
+                release();
+                callback.onError(req, exception);
+            }
+        });
+    }
+
+    private void release() {
+        inFlight--;
+        if (!queuedRequests.isEmpty()) {
+            send(queuedRequests.remove(0), queuedCallbacks.remove(0));
+        }
+    }
+}
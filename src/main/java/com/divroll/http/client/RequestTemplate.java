@@ -0,0 +1,282 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import com.divroll.http.client.codec.Codec;
+import com.google.gwt.http.client.RequestBuilder;
+import com.google.gwt.http.client.URL;
+import elemental2.promise.Promise;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A request shape compiled once and sent many times. The URI template
+ * (e.g. {@code /posts/{id}}) is split into literal parts and variables,
+ * static query parameters are encoded into a single fragment, and static
+ * headers are normalized case-insensitively up front, so each call only
+ * binds variables and sends.
+ *
+ * <pre>
+ * RequestTemplate post = HttpClient.template(RequestBuilder.GET, "/posts/{id}")
+ *         .header("Accept", "application/json")
+ *         .build();
+ * post.bind("id", 1).asJson();
+ * </pre>
+ */
+public class RequestTemplate {
+    private final String method;
+    private final String uriTemplate;
+    private final String[] literals;
+    private final String[] variables;
+    private final String staticQuery;
+    private final String[] headerNames;
+    private final String[] headerValues;
+    private final int timeout;
+    private final int maxResponseBytes;
+    private final boolean rejectErrorStatus;
+    private final RequestPool pool;
+
+    private RequestTemplate(Builder builder) {
+        this.method = builder.method;
+        this.uriTemplate = builder.uriTemplate;
+        List<String> literals = new ArrayList<String>();
+        List<String> variables = new ArrayList<String>();
+        parse(builder.uriTemplate, literals, variables);
+        this.literals = literals.toArray(new String[literals.size()]);
+        this.variables = variables.toArray(new String[variables.size()]);
+        this.staticQuery = builder.query.length() > 0 ? builder.query.toString() : null;
+        Headers headers = builder.headers;
+        headers.setDefault("accept", "application/json");
+        headers.setDefault("Content-Type", "application/json");
+        this.headerNames = headers.names();
+        this.headerValues = headers.values();
+        this.timeout = builder.timeout;
+        this.maxResponseBytes = builder.maxResponseBytes;
+        this.pool = builder.pool;
+        // Same status handling as GetRequest/HeadRequest vs. HttpRequestWithBodyImpl
+        this.rejectErrorStatus = "GET".equals(method) || "HEAD".equals(method);
+    }
+
+    public static Builder builder(String method, String uriTemplate) {
+        return new Builder(method, uriTemplate);
+    }
+
+    public static Builder builder(RequestBuilder.Method method, String uriTemplate) {
+        return new Builder(method.toString(), uriTemplate);
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public Call newCall() {
+        return new Call();
+    }
+
+    public Call bind(String variable, Object value) {
+        return new Call().bind(variable, value);
+    }
+
+    private static void parse(String template, List<String> literals, List<String> variables) {
+        int pos = 0;
+        while (true) {
+            int open = template.indexOf('{', pos);
+            if (open < 0) {
+                literals.add(template.substring(pos));
+                return;
+            }
+            int close = template.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unterminated variable in URI template: " + template);
+            }
+            literals.add(template.substring(pos, open));
+            variables.add(template.substring(open + 1, close));
+            pos = close + 1;
+        }
+    }
+
+    private int indexOf(String variable) {
+        for (int i = 0; i < variables.length; i++) {
+            if (variables[i].equals(variable)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown template variable: " + variable);
+    }
+
+    public static class Builder {
+        private final String method;
+        private final String uriTemplate;
+        private final StringBuilder query = new StringBuilder();
+        private final Headers headers = new Headers();
+        private int timeout = 60000;
+        private int maxResponseBytes;
+        private RequestPool pool;
+
+        private Builder(String method, String uriTemplate) {
+            this.method = method;
+            this.uriTemplate = uriTemplate;
+        }
+
+        public Builder header(String name, String value) {
+            headers.set(name, value);
+            return this;
+        }
+
+        public Builder basicAuth(String username, String password) {
+            headers.set("Authorization", "Basic " + Base64.btoa(username + ":" + password));
+            return this;
+        }
+
+        public Builder queryString(String name, String value) {
+            if (query.length() > 0) {
+                query.append("&");
+            }
+            query.append(name).append("=").append(URL.encodeComponent(value));
+            return this;
+        }
+
+        public Builder setTimeout(int timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * @see ResponseLimits
+         */
+        public Builder setMaxResponseBytes(int maxResponseBytes) {
+            this.maxResponseBytes = maxResponseBytes;
+            return this;
+        }
+
+        Builder pool(RequestPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        public RequestTemplate build() {
+            return new RequestTemplate(this);
+        }
+    }
+
+    /**
+     * A single invocation of the template. Only the bound variables, extra
+     * query parameters and body are computed per call.
+     */
+    public class Call {
+        private final String[] values = new String[variables.length];
+        private StringBuilder query;
+        private String body;
+        private Headers extraHeaders;
+        private Priority priority = Priority.AUTO;
+
+        private Call() {
+        }
+
+        public Call bind(String variable, Object value) {
+            values[indexOf(variable)] = URL.encodePathSegment(String.valueOf(value));
+            return this;
+        }
+
+        public Call queryString(String name, String value) {
+            if (query == null) {
+                query = new StringBuilder();
+            } else {
+                query.append("&");
+            }
+            query.append(name).append("=").append(URL.encodeComponent(value));
+            return this;
+        }
+
+        public Call header(String name, String value) {
+            if (extraHeaders == null) {
+                extraHeaders = new Headers();
+            }
+            extraHeaders.set(name, value);
+            return this;
+        }
+
+        public Call priority(Priority priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        public Call body(Object body) {
+            this.body = body != null ? String.valueOf(body) : null;
+            return this;
+        }
+
+        public <T> Call body(T value, Codec<T> codec) {
+            this.body = codec.encode(value);
+            return this;
+        }
+
+        public Promise<HttpResponse<String>> asString() {
+            return RequestPipeline.promise(toPendingRequest(), HttpRequest::readString, rejectErrorStatus);
+        }
+
+        public Promise<HttpResponse<JsonNode>> asJson() {
+            return RequestPipeline.promise(HttpRequest.negotiate(toPendingRequest()), HttpRequest::readJson,
+                    rejectErrorStatus);
+        }
+
+        public Promise<HttpResponse<JsonNode>> asJson(JsonProjection projection) {
+            return RequestPipeline.promise(toPendingRequest(), HttpRequest.readJson(projection), rejectErrorStatus);
+        }
+
+        public <T> Promise<HttpResponse<T>> asObject(Codec<T> codec) {
+            return RequestPipeline.promise(toPendingRequest(), HttpRequest.readObject(codec), rejectErrorStatus);
+        }
+
+        PendingRequest toPendingRequest() {
+            StringBuilder url = new StringBuilder(literals[0]);
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == null) {
+                    throw new IllegalStateException("Template variable not bound: " + variables[i]);
+                }
+                url.append(values[i]).append(literals[i + 1]);
+            }
+            if (staticQuery != null || query != null) {
+                url.append(url.indexOf("?") < 0 ? '?' : '&');
+                if (staticQuery != null) {
+                    url.append(staticQuery);
+                    if (query != null) {
+                        url.append('&');
+                    }
+                }
+                if (query != null) {
+                    url.append(query);
+                }
+            }
+            String payload = body != null ? body : (rejectErrorStatus ? null : "");
+            PendingRequest request = new PendingRequest(method, url.toString(), payload, timeout);
+            request.setEndpoint(uriTemplate);
+            request.setPriority(priority);
+            request.setMaxResponseBytes(maxResponseBytes);
+            request.setPool(pool);
+            request.putNormalizedHeaders(headerNames, headerValues);
+            if (extraHeaders != null) {
+                for (Map.Entry<String, String> e : extraHeaders.asMap().entrySet()) {
+                    request.setHeader(e.getKey(), e.getValue());
+                }
+            }
+            return request;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.Scheduler;
+import elemental2.promise.Promise;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Controls when completed responses are handed to their Promises. By default
+ * each response resolves as soon as it arrives. In {@link Mode#ANIMATION_FRAME}
+ * mode, responses are queued and resolved together at the next animation frame,
+ * so UI updates triggered by them land in a single render. Deliveries run one
+ * after another, each followed by its Promise reactions, until the frame
+ * budget is used up; the rest wait for the following frame. At least one
+ * response is delivered per frame. Browsers pause animation frames in hidden
+ * tabs, so while the tab is hidden the queue is flushed like in
+ * {@link Mode#MICROTASK} instead.
+ *
+ * <pre>
+ * ResponseDelivery.setMode(ResponseDelivery.Mode.ANIMATION_FRAME);
+ * ResponseDelivery.setFrameBudgetMillis(6);
+ * </pre>
+ */
+public final class ResponseDelivery {
+
+    public enum Mode {
+        /**
+         * Resolve each response as soon as it arrives.
+         */
+        IMMEDIATE,
+        /**
+         * Resolve together at the end of the current task, e.g. when an
+         * interceptor or the prefetch store answers many requests at once;
+         * overflow beyond the budget moves to a later task.
+         */
+        MICROTASK,
+        /**
+         * Resolve together just before the next paint.
+         */
+        ANIMATION_FRAME
+    }
+
+    private static Mode mode = Mode.IMMEDIATE;
+    private static double frameBudgetMillis = 8;
+    private static final List<Runnable> queue = new ArrayList<Runnable>();
+    private static boolean scheduled;
+    private static int flushCount;
+
+    private ResponseDelivery() {
+    }
+
+    public static void setMode(Mode mode) {
+        ResponseDelivery.mode = mode != null ? mode : Mode.IMMEDIATE;
+    }
+
+    public static Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Time spent delivering responses, including their Promise reactions, before
+     * the rest are deferred to the next frame or task.
+     */
+    public static void setFrameBudgetMillis(double frameBudgetMillis) {
+        ResponseDelivery.frameBudgetMillis = frameBudgetMillis;
+    }
+
+    /**
+     * @return responses waiting to be delivered
+     */
+    public static int getQueuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * @return frames or tasks in which queued responses were delivered
+     */
+    public static int getFlushCount() {
+        return flushCount;
+    }
+
+    /**
+     * @return true when a response can be delivered right away, so callers can skip
+     *         wrapping it in a Runnable
+     */
+    static boolean isImmediate() {
+        return mode == Mode.IMMEDIATE && queue.isEmpty();
+    }
+
+    /**
+     * Runs {@code task} after the responses delivered or queued so far and the
+     * first Promise reactions they triggered, e.g. to time the callers' work. It
+     * is not held back by the frame budget.
+     */
+    public static void afterDelivery(Runnable task) {
+        if (queue.isEmpty()) {
+            Promise.resolve((Object) null).then(v -> {
+                task.run();
+                return null;
+            });
+            return;
+        }
+        queue.add(new AfterDelivery(task));
+    }
+
+    static void deliver(Runnable delivery) {
+        if (isImmediate()) {
+            delivery.run();
+            return;
+        }
+        queue.add(delivery);
+        schedule();
+    }
+
+    private static void schedule() {
+        if (scheduled) {
+            return;
+        }
+        scheduled = true;
+        if (mode == Mode.ANIMATION_FRAME && !isDocumentHidden()) {
+            requestFrame();
+        } else {
+            Promise.resolve((Object) null).then(v -> {
+                flush();
+                return null;
+            });
+        }
+    }
+
+    private static void flush() {
+        flushCount++;
+        runNext(Duration.currentTimeMillis(), true);
+    }
+
+    /**
+     * Runs one delivery, then continues from a microtask queued behind its
+     * Promise reactions so the budget also covers the callers' work.
+     */
+    private static void runNext(double start, boolean first) {
+        if (queue.isEmpty()) {
+            scheduled = false;
+            return;
+        }
+        if (!first && !(queue.get(0) instanceof AfterDelivery)
+                && Duration.currentTimeMillis() - start >= frameBudgetMillis) {
+            if (mode == Mode.ANIMATION_FRAME && !isDocumentHidden()) {
+                requestFrame();
+            } else {
+                Scheduler.get().scheduleDeferred(ResponseDelivery::flush);
+            }
+            return;
+        }
+        try {
+            queue.remove(0).run();
+        } catch (RuntimeException e) {
+            GWT.reportUncaughtException(e);
+        }
+        Promise.resolve((Object) null).then(v -> {
+            runNext(start, false);
+            return null;
+        });
+    }
+
+    /**
+     * Queue entry for {@link #afterDelivery}; it does not count as a delivery.
+     */
+    private static final class AfterDelivery implements Runnable {
+        private final Runnable task;
+
+        AfterDelivery(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+
+    private static native boolean isDocumentHidden() /*-{
+        return !!$doc.hidden;
+    }-*/;
+
+    /**
+     * Flushes at the next animation frame, or as soon as the tab is hidden,
+     * since a frame requested just before that would not run until it is shown.
+     */
+    private static native void requestFrame() /*-{
+        var done = false;
+        var flush = $entry(function() {
+            if (!done) {
+                done = true;
+                $doc.removeEventListener('visibilitychange', flush);
+                @com.divroll.http.client.ResponseDelivery::flush()();
+            }
+        });
+        if ($wnd.requestAnimationFrame) {
+            $wnd.requestAnimationFrame(flush);
+            $doc.addEventListener('visibilitychange', flush);
+        } else {
+            $wnd.setTimeout(flush, 16);
+        }
+    }-*/;
+}
@@ -0,0 +1,114 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response headers as returned by {@code getAllResponseHeaders()}, held as one
+ * flat array of lower-cased names and values. Lookups are case-insensitive.
+ */
+public final class ResponseHeaders {
+    public static final ResponseHeaders EMPTY = new ResponseHeaders(new String[0]);
+
+    private final String[] entries;
+
+    private ResponseHeaders(String[] entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Parses a raw header block of {@code name: value} lines.
+     */
+    public static ResponseHeaders parse(String raw) {
+        if (raw == null || raw.isEmpty()) {
+            return EMPTY;
+        }
+        List<String> entries = new ArrayList<String>();
+        int start = 0;
+        while (start < raw.length()) {
+            int end = raw.indexOf('\n', start);
+            if (end < 0) {
+                end = raw.length();
+            }
+            int colon = raw.indexOf(':', start);
+            if (colon > start && colon < end) {
+                entries.add(raw.substring(start, colon).trim().toLowerCase());
+                entries.add(raw.substring(colon + 1, end).trim());
+            }
+            start = end + 1;
+        }
+        return entries.isEmpty() ? EMPTY : new ResponseHeaders(entries.toArray(new String[entries.size()]));
+    }
+
+    /**
+     * @return the first value of the header, or null if it is absent
+     */
+    public String get(String name) {
+        String key = name.toLowerCase();
+        for (int i = 0; i < entries.length; i += 2) {
+            if (entries[i].equals(key)) {
+                return entries[i + 1];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return every value of the header in the order received; browsers usually
+     *         combine repeated headers into one comma-separated value already
+     */
+    public List<String> getAll(String name) {
+        String key = name.toLowerCase();
+        List<String> values = new ArrayList<String>(1);
+        for (int i = 0; i < entries.length; i += 2) {
+            if (entries[i].equals(key)) {
+                values.add(entries[i + 1]);
+            }
+        }
+        return values;
+    }
+
+    public boolean has(String name) {
+        return get(name) != null;
+    }
+
+    public int size() {
+        return entries.length / 2;
+    }
+
+    /**
+     * @return the lower-cased name of the header at {@code index}
+     */
+    public String getName(int index) {
+        return entries[index * 2];
+    }
+
+    public String getValue(int index) {
+        return entries[index * 2 + 1];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < entries.length; i += 2) {
+            sb.append(entries[i]).append(": ").append(entries[i + 1]).append("\r\n");
+        }
+        return sb.toString();
+    }
+}
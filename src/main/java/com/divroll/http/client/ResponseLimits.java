@@ -0,0 +1,242 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import com.divroll.http.client.exceptions.ResponseTooLargeException;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.http.client.Response;
+
+/**
+ * Caps on response size and a client-wide budget for buffered response bodies.
+ *
+ * <p>A size cap comes from {@code maxResponseBytes(int)} on the request or, if
+ * that is not set, from {@link #setMaxResponseBytes(int)}. The budget limits the
+ * bytes held as raw text by live {@link HttpResponse}s: a JSON or object
+ * response releases its share once the body is parsed, any response on
+ * {@link HttpResponse#release()} or when it is garbage collected. Retained bytes
+ * are tracked where the browser has {@code FinalizationRegistry}.
+ *
+ * <p>All sizes are in bytes: text bodies are counted by their UTF-8 length, so
+ * they compare directly with {@code Content-Length} and the bytes received.
+ *
+ * <p>While a cap or budget applies, requests are sent with a plain XHR that
+ * checks {@code Content-Length} when the headers arrive and the byte count on
+ * every progress event, and aborts with a {@link ResponseTooLargeException} as
+ * soon as either is exceeded.
+ */
+public final class ResponseLimits {
+
+    private static int maxResponseBytes;
+    private static int memoryBudgetBytes;
+    private static int retainedBytes;
+    private static int peakRetainedBytes;
+    private static int rejectedCount;
+    private static int sharedReads;
+    private static JavaScriptObject registry;
+    private static boolean registryCreated;
+
+    private ResponseLimits() {
+    }
+
+    /**
+     * @param maxResponseBytes client-wide cap for requests without their own, 0 for none
+     */
+    public static void setMaxResponseBytes(int maxResponseBytes) {
+        ResponseLimits.maxResponseBytes = Math.max(0, maxResponseBytes);
+    }
+
+    public static int getMaxResponseBytes() {
+        return maxResponseBytes;
+    }
+
+    /**
+     * @param memoryBudgetBytes bytes of buffered response bodies that may be retained at once, 0 for no budget
+     */
+    public static void setMemoryBudgetBytes(int memoryBudgetBytes) {
+        ResponseLimits.memoryBudgetBytes = Math.max(0, memoryBudgetBytes);
+    }
+
+    public static int getMemoryBudgetBytes() {
+        return memoryBudgetBytes;
+    }
+
+    /**
+     * @return bytes of response bodies currently held as raw text or buffers
+     */
+    public static int getRetainedBytes() {
+        return retainedBytes;
+    }
+
+    public static int getPeakRetainedBytes() {
+        return peakRetainedBytes;
+    }
+
+    /**
+     * @return responses aborted for exceeding a cap or the budget
+     */
+    public static int getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public static void resetPeak() {
+        peakRetainedBytes = retainedBytes;
+    }
+
+    /**
+     * @return the body size in bytes without decoding a buffered body: the received size for
+     * responses read with a plain XHR, otherwise {@code Content-Length}, otherwise the UTF-8
+     * length of the text
+     */
+    public static int sizeOf(Response response) {
+        if (response instanceof XhrResponse) {
+            return ((XhrResponse) response).getSize();
+        }
+        String length = response.getHeader("Content-Length");
+        if (length != null) {
+            try {
+                return Integer.parseInt(length.trim());
+            } catch (NumberFormatException e) {
+                // fall through to the text
+            }
+        }
+        String text = response.getText();
+        return text != null ? utf8Length(text) : 0;
+    }
+
+    static int limitFor(PendingRequest request) {
+        int limit = request.getMaxResponseBytes();
+        return limit > 0 ? limit : maxResponseBytes;
+    }
+
+    /**
+     * @return whether the request needs size checks while the response is received
+     */
+    static boolean isEnforced(PendingRequest request) {
+        return memoryBudgetBytes > 0 || limitFor(request) > 0;
+    }
+
+    /**
+     * @param sizeBytes declared or received size of the response so far
+     * @return the exception to abort with, or null if the response may continue
+     */
+    static ResponseTooLargeException check(PendingRequest request, int sizeBytes) {
+        int limit = limitFor(request);
+        ResponseTooLargeException error = null;
+        if (limit > 0 && sizeBytes > limit) {
+            error = new ResponseTooLargeException(request.getUrl(), sizeBytes, limit, false);
+        } else if (memoryBudgetBytes > 0 && retainedBytes + sizeBytes > memoryBudgetBytes) {
+            error = new ResponseTooLargeException(request.getUrl(), sizeBytes, memoryBudgetBytes, true);
+        }
+        if (error != null) {
+            rejectedCount++;
+        }
+        return error;
+    }
+
+    /**
+     * Counts the body of {@code response} against the budget, in bytes; see {@link #retain(Object, int)}.
+     * @param text the body text already read from {@code response}
+     */
+    static Retained retain(Object owner, Response response, String text) {
+        if (sharedReads > 0 || !isTracking()) {
+            return new Retained(0);
+        }
+        if (response instanceof XhrResponse) {
+            return retain(owner, ((XhrResponse) response).getSize());
+        }
+        return retain(owner, text != null ? utf8Length(text) : 0);
+    }
+
+    /**
+     * Counts {@code bytes} against the budget until the returned handle is
+     * released or {@code owner} is garbage collected. Without
+     * {@code FinalizationRegistry} nothing is counted, since bodies that are
+     * never parsed could not be released.
+     */
+    static Retained retain(Object owner, int bytes) {
+        if (sharedReads > 0 || !isTracking() || bytes <= 0) {
+            return new Retained(0);
+        }
+        Retained retained = new Retained(bytes);
+        retainedBytes += bytes;
+        peakRetainedBytes = Math.max(peakRetainedBytes, retainedBytes);
+        register(registry, owner, retained);
+        return retained;
+    }
+
+    /**
+     * Reads a response whose body another reader has already counted, such as the
+     * one response to a coalesced request, without counting it again. The readers
+     * share the same body text, so it is held once.
+     */
+    static <T> HttpResponse<T> readShared(ResponseReader<T> reader, PendingRequest request, Response response) {
+        sharedReads++;
+        try {
+            return reader.read(request, response);
+        } finally {
+            sharedReads--;
+        }
+    }
+
+    private static boolean isTracking() {
+        if (!registryCreated) {
+            registry = createRegistry();
+            registryCreated = true;
+        }
+        return registry != null;
+    }
+
+    static final class Retained {
+        private int bytes;
+
+        private Retained(int bytes) {
+            this.bytes = bytes;
+        }
+
+        void release() {
+            retainedBytes -= bytes;
+            bytes = 0;
+        }
+    }
+
+    /**
+     * @return the number of bytes {@code text} takes as UTF-8, counting a surrogate pair as four
+     */
+    public static native int utf8Length(String text) /*-{
+        var bytes = text.length;
+        for (var i = 0; i < text.length; i++) {
+            var c = text.charCodeAt(i);
+            if (c >= 0x80) {
+                bytes += c < 0x800 ? 1 : (c >= 0xD800 && c <= 0xDFFF ? 1 : 2);
+            }
+        }
+        return bytes;
+    }-*/;
+
+    private static native JavaScriptObject createRegistry() /*-{
+        if (typeof FinalizationRegistry === 'undefined') {
+            return null;
+        }
+        return new FinalizationRegistry($entry(function (retained) {
+            retained.@com.divroll.http.client.ResponseLimits.Retained::release()();
+        }));
+    }-*/;
+
+    private static native void register(JavaScriptObject registry, Object owner, Retained retained) /*-{
+        registry.register(owner, retained);
+    }-*/;
+}
@@ -16,11 +16,16 @@
  */
 package com.divroll.http.client;
 
+import com.google.gwt.http.client.Response;
+
 public class StringHttpResponse implements HttpResponse<String> {
 
     private int status;
     private String statusText;
     private String rawBody;
+    private String rawHeaders;
+    private ResponseHeaders headers;
+    private ResponseLimits.Retained retained;
 
     public StringHttpResponse(int status, String statusText ,String rawBody) {
         this.status = status;
@@ -28,11 +33,28 @@ public class StringHttpResponse implements HttpResponse<String> {
         this.rawBody = rawBody;
     }
 
+    StringHttpResponse(Response response) {
+        this(response.getStatusCode(), response.getStatusText(), response.getText());
+        this.rawHeaders = response.getHeadersAsString();
+        this.retained = ResponseLimits.retain(this, response, rawBody);
+    }
+
     @Override
     public String getBody() {
         return rawBody;
     }
 
+    /**
+     * Drops the body; call it once the text has been consumed so it stops counting against the budget.
+     */
+    @Override
+    public void release() {
+        rawBody = null;
+        if (retained != null) {
+            retained.release();
+        }
+    }
+
     @Override
     public int getStatus() {
         return status;
@@ -43,6 +65,19 @@ public class StringHttpResponse implements HttpResponse<String> {
         return statusText;
     }
 
+    /**
+     * Parses the headers on first access. Only their text is kept from the browser
+     * response, so a released body is not held through it.
+     */
+    @Override
+    public ResponseHeaders getHeaders() {
+        if (headers == null) {
+            headers = ResponseHeaders.parse(rawHeaders);
+            rawHeaders = null;
+        }
+        return headers;
+    }
+
     public void setStatusText(String statusText) {
         this.statusText = statusText;
     }
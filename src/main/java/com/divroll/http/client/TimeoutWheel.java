@@ -0,0 +1,150 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.Scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel tracking every request deadline on a single periodic
+ * timer, instead of one browser timer per request. A deadline goes into the
+ * slot of the first tick at or after it, so a timeout never fires early and at
+ * most one tick late; deadlines further out than one rotation stay in their
+ * slot until their tick comes round. The timer only runs while timeouts are
+ * pending, and each tick expires its due timeouts as one batch.
+ */
+final class TimeoutWheel {
+
+    static final int TICK_MILLIS = 100;
+    private static final int SLOTS = 512;
+    private static final int MASK = SLOTS - 1;
+
+    private static final Timeout[] wheel = new Timeout[SLOTS];
+    private static double origin;
+    private static int processedTick;
+    private static int pending;
+    private static boolean running;
+
+    private TimeoutWheel() {
+    }
+
+    /**
+     * Runs {@code onExpire} once {@code delayMillis} have passed, unless the
+     * returned timeout is cancelled first.
+     */
+    static Timeout schedule(int delayMillis, Runnable onExpire) {
+        double now = Duration.currentTimeMillis();
+        if (!running) {
+            origin = now;
+            processedTick = 0;
+            running = true;
+            Scheduler.get().scheduleFixedPeriod(TimeoutWheel::advance, TICK_MILLIS);
+        }
+        int tick = Math.max(processedTick + 1, (int) Math.ceil((now + delayMillis - origin) / TICK_MILLIS));
+        Timeout timeout = new Timeout(tick, onExpire);
+        timeout.link(tick & MASK);
+        pending++;
+        return timeout;
+    }
+
+    static int getPendingCount() {
+        return pending;
+    }
+
+    /**
+     * Processes every tick that has fully elapsed, at most one rotation if the
+     * timer was throttled, and stops the timer once nothing is pending.
+     */
+    private static boolean advance() {
+        int nowTick = (int) Math.floor((Duration.currentTimeMillis() - origin) / TICK_MILLIS);
+        List<Timeout> expired = null;
+        for (int tick = Math.max(processedTick + 1, nowTick - MASK); tick <= nowTick; tick++) {
+            Timeout t = wheel[tick & MASK];
+            while (t != null) {
+                Timeout next = t.next;
+                if (t.tick <= nowTick) {
+                    t.unlink();
+                    if (expired == null) {
+                        expired = new ArrayList<Timeout>();
+                    }
+                    expired.add(t);
+                }
+                t = next;
+            }
+        }
+        processedTick = Math.max(processedTick, nowTick);
+        if (expired != null) {
+            for (Timeout t : expired) {
+                try {
+                    t.onExpire.run();
+                } catch (RuntimeException e) {
+                    GWT.reportUncaughtException(e);
+                }
+            }
+        }
+        running = pending > 0;
+        return running;
+    }
+
+    static final class Timeout {
+        private final int tick;
+        private final Runnable onExpire;
+        private Timeout prev;
+        private Timeout next;
+        private int slot = -1;
+
+        private Timeout(int tick, Runnable onExpire) {
+            this.tick = tick;
+            this.onExpire = onExpire;
+        }
+
+        void cancel() {
+            unlink();
+        }
+
+        private void link(int slot) {
+            this.slot = slot;
+            next = wheel[slot];
+            if (next != null) {
+                next.prev = this;
+            }
+            wheel[slot] = this;
+        }
+
+        private void unlink() {
+            if (slot < 0) {
+                return;
+            }
+            if (prev != null) {
+                prev.next = next;
+            } else {
+                wheel[slot] = next;
+            }
+            if (next != null) {
+                next.prev = prev;
+            }
+            prev = null;
+            next = null;
+            slot = -1;
+            pending--;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import com.divroll.http.client.codec.BinaryCodecs;
+import com.divroll.http.client.exceptions.ResponseTooLargeException;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsArrayString;
+import com.google.gwt.http.client.Header;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.Response;
+
+import java.util.Map;
+
+/**
+ * Response from a request sent with a plain XHR instead of
+ * {@code RequestBuilder}, which exposes neither the XHR {@code responseType}
+ * nor its progress. Used for bodies negotiated with {@link BinaryCodecs},
+ * received as an {@code ArrayBuffer}, and for requests under
+ * {@link ResponseLimits}, which are aborted once their size is known to be too
+ * large. As with {@code RequestBuilder} a network failure is reported as
+ * status 0; timeouts are left to the {@link TimeoutWheel}.
+ */
+final class XhrResponse extends Response {
+
+    private final JavaScriptObject xhr;
+    private final boolean binary;
+    private String text;
+
+    private XhrResponse(JavaScriptObject xhr, boolean binary) {
+        this.xhr = xhr;
+        this.binary = binary;
+    }
+
+    /**
+     * @return the XHR, to be passed to {@link #abort} to cancel the request
+     */
+    static JavaScriptObject send(PendingRequest request, RequestCallback callback) {
+        JsArrayString headers = JavaScriptObject.createArray().cast();
+        for (Map.Entry<String, String> entry : request.getHeaders().entrySet()) {
+            headers.push(entry.getKey());
+            headers.push(entry.getValue());
+        }
+        return open(request, headers, request.isBinaryResponse(), ResponseLimits.isEnforced(request), callback);
+    }
+
+    static native void abort(JavaScriptObject xhr) /*-{
+        xhr.onload = xhr.onerror = xhr.onprogress = xhr.onreadystatechange = null;
+        xhr.abort();
+    }-*/;
+
+    /**
+     * @return whether the body was received as an {@code ArrayBuffer}
+     */
+    boolean isBinary() {
+        return binary;
+    }
+
+    JavaScriptObject getBuffer() {
+        return buffer(xhr);
+    }
+
+    /**
+     * @return the body size in bytes; a text body is counted by its UTF-8 length
+     */
+    int getSize() {
+        return size(xhr);
+    }
+
+    @Override
+    public String getHeader(String header) {
+        return header(xhr, header);
+    }
+
+    @Override
+    public Header[] getHeaders() {
+        ResponseHeaders parsed = ResponseHeaders.parse(getHeadersAsString());
+        Header[] result = new Header[parsed.size()];
+        for (int i = 0; i < result.length; i++) {
+            final String name = parsed.getName(i);
+            final String value = parsed.getValue(i);
+            result[i] = new Header() {
+                @Override
+                public String getName() {
+                    return name;
+                }
+
+                @Override
+                public String getValue() {
+                    return value;
+                }
+            };
+        }
+        return result;
+    }
+
+    @Override
+    public String getHeadersAsString() {
+        return headers(xhr);
+    }
+
+    @Override
+    public int getStatusCode() {
+        return status(xhr);
+    }
+
+    @Override
+    public String getStatusText() {
+        return statusText(xhr);
+    }
+
+    /**
+     * @return the body, decoded as UTF-8 for a binary response (JSON fallbacks and error bodies)
+     */
+    @Override
+    public String getText() {
+        if (text == null) {
+            text = binary ? utf8(xhr) : responseText(xhr);
+        }
+        return text;
+    }
+
+    private static void onLoad(JavaScriptObject xhr, PendingRequest request, boolean binary,
+                               boolean enforced, RequestCallback callback) {
+        XhrResponse response = new XhrResponse(xhr, binary);
+        ResponseTooLargeException error = enforced ? ResponseLimits.check(request, response.getSize()) : null;
+        if (error != null) {
+            callback.onError(null, error);
+        } else {
+            callback.onResponseReceived(null, response);
+        }
+    }
+
+    private static void onTooLarge(ResponseTooLargeException error, RequestCallback callback) {
+        callback.onError(null, error);
+    }
+
+    private static native JavaScriptObject open(PendingRequest request, JsArrayString headers, boolean binary,
+                                    boolean enforced, RequestCallback callback) /*-{
+        var xhr = new $wnd.XMLHttpRequest();
+        var aborted = false;
+        xhr.open(request.@com.divroll.http.client.PendingRequest::getMethod()(),
+            request.@com.divroll.http.client.PendingRequest::getUrl()(), true);
+        for (var i = 0; i < headers.length; i += 2) {
+            xhr.setRequestHeader(headers[i], headers[i + 1]);
+        }
+        if (binary) {
+            xhr.responseType = 'arraybuffer';
+        }
+        function check(size) {
+            var error = @com.divroll.http.client.ResponseLimits::check(*)(request, size);
+            if (error) {
+                aborted = true;
+                xhr.abort();
+                @com.divroll.http.client.XhrResponse::onTooLarge(*)(error, callback);
+            }
+        }
+        if (enforced) {
+            xhr.onreadystatechange = $entry(function () {
+                if (xhr.readyState === 2 && !aborted) {
+                    var length = parseInt(xhr.getResponseHeader('Content-Length'), 10);
+                    if (length >= 0) {
+                        check(length);
+                    }
+                }
+            });
+            xhr.onprogress = $entry(function (e) {
+                if (!aborted) {
+                    check(e.loaded);
+                }
+            });
+        }
+        var done = $entry(function () {
+            if (!aborted) {
+                @com.divroll.http.client.XhrResponse::onLoad(*)(xhr, request, binary, enforced, callback);
+            }
+        });
+        xhr.onload = done;
+        xhr.onerror = done;
+        xhr.send(request.@com.divroll.http.client.PendingRequest::getBody()());
+        return xhr;
+    }-*/;
+
+    private static native JavaScriptObject buffer(JavaScriptObject xhr) /*-{
+        return xhr.response || new ArrayBuffer(0);
+    }-*/;
+
+    private static native int size(JavaScriptObject xhr) /*-{
+        if (xhr.responseType === 'arraybuffer') {
+            return xhr.response ? xhr.response.byteLength : 0;
+        }
+        return xhr.responseText ? @com.divroll.http.client.ResponseLimits::utf8Length(*)(xhr.responseText) : 0;
+    }-*/;
+
+    private static native String header(JavaScriptObject xhr, String name) /*-{
+        return xhr.getResponseHeader(name);
+    }-*/;
+
+    private static native String headers(JavaScriptObject xhr) /*-{
+        return xhr.getAllResponseHeaders();
+    }-*/;
+
+    private static native int status(JavaScriptObject xhr) /*-{
+        return xhr.status;
+    }-*/;
+
+    private static native String statusText(JavaScriptObject xhr) /*-{
+        return xhr.statusText;
+    }-*/;
+
+    private static native String responseText(JavaScriptObject xhr) /*-{
+        return xhr.responseText;
+    }-*/;
+
+    private static native String utf8(JavaScriptObject xhr) /*-{
+        var bytes = new Uint8Array(xhr.response || new ArrayBuffer(0));
+        if (typeof TextDecoder !== 'undefined') {
+            return new TextDecoder('utf-8').decode(bytes);
+        }
+        var s = '';
+        for (var i = 0; i < bytes.length; i += 0x8000) {
+            s += String.fromCharCode.apply(null, bytes.subarray(i, i + 0x8000));
+        }
+        return decodeURIComponent(escape(s));
+    }-*/;
+}
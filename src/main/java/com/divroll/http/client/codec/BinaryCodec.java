@@ -0,0 +1,46 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.codec;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Decodes a binary response body into the same JavaScript object model that
+ * {@code JSON.parse} produces, so the result can be wrapped in a
+ * {@link com.divroll.http.client.JsonNode}. Register implementations with
+ * {@link BinaryCodecs#register}.
+ */
+public interface BinaryCodec {
+
+    /**
+     * @return the media type listed in the {@code accept} header, e.g. {@code application/cbor}
+     */
+    String getMediaType();
+
+    /**
+     * @param mediaType a response media type, lower-cased and without parameters
+     */
+    default boolean accepts(String mediaType) {
+        return getMediaType().equals(mediaType);
+    }
+
+    /**
+     * @param arrayBuffer the response body as an {@code ArrayBuffer}
+     * @return the decoded value; byte strings are returned base64 encoded
+     */
+    JavaScriptObject decode(JavaScriptObject arrayBuffer);
+}
@@ -0,0 +1,156 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.codec;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Registry of {@link BinaryCodec}s offered for {@code asJson()} responses.
+ * While the registry is empty requests ask for {@code application/json} only;
+ * once a codec is registered the {@code accept} header lists the codecs in
+ * registration order with JSON as the fallback, the body is received as an
+ * {@code ArrayBuffer}, and the codec is picked from the response
+ * {@code Content-Type}.
+ *
+ * <pre>
+ * BinaryCodecs.register(CborCodec.INSTANCE);
+ * BinaryCodecs.register(MessagePackCodec.INSTANCE);
+ * </pre>
+ */
+public final class BinaryCodecs {
+
+    private static final String JSON_FALLBACK = "application/json;q=0.9";
+
+    private static BinaryCodec[] codecs = new BinaryCodec[0];
+    private static String accept;
+    private static JavaScriptObject decoder;
+
+    private BinaryCodecs() {
+    }
+
+    public static void register(BinaryCodec codec) {
+        if (codec == null) {
+            throw new IllegalArgumentException("codec must not be null");
+        }
+        unregister(codec);
+        BinaryCodec[] next = new BinaryCodec[codecs.length + 1];
+        System.arraycopy(codecs, 0, next, 0, codecs.length);
+        next[codecs.length] = codec;
+        update(next);
+    }
+
+    public static void unregister(BinaryCodec codec) {
+        for (int i = 0; i < codecs.length; i++) {
+            if (codecs[i] == codec) {
+                BinaryCodec[] next = new BinaryCodec[codecs.length - 1];
+                System.arraycopy(codecs, 0, next, 0, i);
+                System.arraycopy(codecs, i + 1, next, i, next.length - i);
+                update(next);
+                return;
+            }
+        }
+    }
+
+    public static void clear() {
+        update(new BinaryCodec[0]);
+    }
+
+    public static boolean isEmpty() {
+        return codecs.length == 0;
+    }
+
+    /**
+     * @return the {@code accept} header value for negotiated requests, or null if no codec is registered
+     */
+    public static String acceptHeader() {
+        return accept;
+    }
+
+    /**
+     * @param contentType a {@code Content-Type} header value, possibly with parameters
+     * @return the codec for the media type, or null to fall back to JSON
+     */
+    public static BinaryCodec find(String contentType) {
+        if (contentType == null || codecs.length == 0) {
+            return null;
+        }
+        int params = contentType.indexOf(';');
+        String mediaType = (params < 0 ? contentType : contentType.substring(0, params)).trim().toLowerCase();
+        for (BinaryCodec codec : codecs) {
+            if (codec.accepts(mediaType)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    private static void update(BinaryCodec[] next) {
+        if (next.length == 0) {
+            accept = null;
+        } else {
+            StringBuilder sb = new StringBuilder();
+            for (BinaryCodec codec : next) {
+                sb.append(codec.getMediaType()).append(", ");
+            }
+            accept = sb.append(JSON_FALLBACK).toString();
+        }
+        codecs = next;
+    }
+
+    /**
+     * Decodes {@code bytes[start, end)} of a {@code Uint8Array} as UTF-8, with a
+     * manual fallback for browsers without {@code TextDecoder}.
+     */
+    static native String utf8(JavaScriptObject bytes, int start, int end) /*-{
+        if (typeof TextDecoder !== 'undefined') {
+            var decoder = @com.divroll.http.client.codec.BinaryCodecs::decoder;
+            if (!decoder) {
+                decoder = @com.divroll.http.client.codec.BinaryCodecs::decoder = new TextDecoder('utf-8');
+            }
+            return decoder.decode(bytes.subarray(start, end));
+        }
+        var out = '';
+        var i = start;
+        while (i < end) {
+            var c = bytes[i++];
+            if (c >= 0xf0) {
+                c = ((c & 0x07) << 18) | ((bytes[i++] & 0x3f) << 12) | ((bytes[i++] & 0x3f) << 6) | (bytes[i++] & 0x3f);
+                c -= 0x10000;
+                out += String.fromCharCode(0xd800 + (c >> 10), 0xdc00 + (c & 0x3ff));
+                continue;
+            } else if (c >= 0xe0) {
+                c = ((c & 0x0f) << 12) | ((bytes[i++] & 0x3f) << 6) | (bytes[i++] & 0x3f);
+            } else if (c >= 0xc0) {
+                c = ((c & 0x1f) << 6) | (bytes[i++] & 0x3f);
+            }
+            out += String.fromCharCode(c);
+        }
+        return out;
+    }-*/;
+
+    /**
+     * Encodes {@code bytes[start, end)} of a {@code Uint8Array} as base64, the
+     * usual JSON representation of binary data.
+     */
+    static native String base64(JavaScriptObject bytes, int start, int end) /*-{
+        var s = '';
+        for (var i = start; i < end; i += 0x8000) {
+            s += String.fromCharCode.apply(null, bytes.subarray(i, Math.min(end, i + 0x8000)));
+        }
+        return $wnd.btoa(s);
+    }-*/;
+}
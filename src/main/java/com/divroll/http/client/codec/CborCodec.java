@@ -0,0 +1,199 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.codec;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Decodes {@code application/cbor} (RFC 8949) bodies. Tags are ignored and
+ * their content decoded as is, map keys that are not text are converted to
+ * strings, {@code undefined} and unassigned simple values become null, and
+ * 64-bit integers are read as doubles like {@code JSON.parse} would.
+ */
+public final class CborCodec implements BinaryCodec {
+
+    public static final String MEDIA_TYPE = "application/cbor";
+
+    public static final CborCodec INSTANCE = new CborCodec();
+
+    private CborCodec() {
+    }
+
+    @Override
+    public String getMediaType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    public JavaScriptObject decode(JavaScriptObject arrayBuffer) {
+        return decodeBuffer(arrayBuffer);
+    }
+
+    private static native JavaScriptObject decodeBuffer(JavaScriptObject buffer) /*-{
+        var view = new DataView(buffer);
+        var bytes = new Uint8Array(buffer);
+        var pos = 0;
+        function length(info) {
+            var v;
+            if (info < 24) {
+                return info;
+            }
+            switch (info) {
+                case 24:
+                    return bytes[pos++];
+                case 25:
+                    v = view.getUint16(pos);
+                    pos += 2;
+                    return v;
+                case 26:
+                    v = view.getUint32(pos);
+                    pos += 4;
+                    return v;
+                case 27:
+                    v = view.getUint32(pos) * 4294967296 + view.getUint32(pos + 4);
+                    pos += 8;
+                    return v;
+                case 31:
+                    return -1;
+            }
+            throw new Error('Invalid CBOR length at offset ' + (pos - 1));
+        }
+        function half(h) {
+            var exponent = (h & 0x7c00) >> 10;
+            var fraction = h & 0x03ff;
+            var sign = h & 0x8000 ? -1 : 1;
+            if (exponent === 0) {
+                return sign * fraction * Math.pow(2, -24);
+            }
+            if (exponent === 31) {
+                return fraction ? NaN : sign * Infinity;
+            }
+            return sign * (1 + fraction / 1024) * Math.pow(2, exponent - 15);
+        }
+        function isBreak() {
+            if (bytes[pos] === 0xff) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+        function chunks(major, len) {
+            // definite strings are read in place; indefinite ones concatenate their chunks
+            if (len >= 0) {
+                var start = pos;
+                pos += len;
+                return major === 3
+                    ? @com.divroll.http.client.codec.BinaryCodecs::utf8(*)(bytes, start, pos)
+                    : @com.divroll.http.client.codec.BinaryCodecs::base64(*)(bytes, start, pos);
+            }
+            var parts = [];
+            while (!isBreak()) {
+                var head = bytes[pos++];
+                if (head >> 5 !== major) {
+                    throw new Error('Invalid CBOR string chunk at offset ' + (pos - 1));
+                }
+                var n = length(head & 31);
+                parts.push(bytes.subarray(pos, pos + n));
+                pos += n;
+            }
+            var total = 0;
+            for (var i = 0; i < parts.length; i++) {
+                total += parts[i].length;
+            }
+            var joined = new Uint8Array(total);
+            for (var i = 0, offset = 0; i < parts.length; offset += parts[i].length, i++) {
+                joined.set(parts[i], offset);
+            }
+            return major === 3
+                ? @com.divroll.http.client.codec.BinaryCodecs::utf8(*)(joined, 0, total)
+                : @com.divroll.http.client.codec.BinaryCodecs::base64(*)(joined, 0, total);
+        }
+        function item() {
+            if (pos >= bytes.length) {
+                throw new Error('Unexpected end of CBOR data');
+            }
+            var initial = bytes[pos++];
+            var major = initial >> 5;
+            var info = initial & 31;
+            var len, result, v;
+            switch (major) {
+                case 0:
+                    return length(info);
+                case 1:
+                    return -1 - length(info);
+                case 2:
+                case 3:
+                    return chunks(major, length(info));
+                case 4:
+                    len = length(info);
+                    result = [];
+                    if (len < 0) {
+                        while (!isBreak()) {
+                            result.push(item());
+                        }
+                    } else {
+                        for (var i = 0; i < len; i++) {
+                            result.push(item());
+                        }
+                    }
+                    return result;
+                case 5:
+                    len = length(info);
+                    result = {};
+                    for (var i = 0; len < 0 ? !isBreak() : i < len; i++) {
+                        var key = item();
+                        // defineProperty, unlike assignment, makes "__proto__" an own key as JSON.parse does
+                        Object.defineProperty(result, typeof key === 'string' ? key : JSON.stringify(key),
+                                {value: item(), writable: true, enumerable: true, configurable: true});
+                    }
+                    return result;
+                case 6:
+                    length(info);
+                    return item();
+            }
+            switch (info) {
+                case 20:
+                    return false;
+                case 21:
+                    return true;
+                case 25:
+                    v = half(view.getUint16(pos));
+                    pos += 2;
+                    return v;
+                case 26:
+                    v = view.getFloat32(pos);
+                    pos += 4;
+                    return v;
+                case 27:
+                    v = view.getFloat64(pos);
+                    pos += 8;
+                    return v;
+                case 24:
+                    pos++;
+                    return null;
+                case 31:
+                    throw new Error('Unexpected CBOR break at offset ' + (pos - 1));
+            }
+            return null;
+        }
+        var value = item();
+        if (pos !== bytes.length) {
+            throw new Error('Trailing bytes after CBOR value at offset ' + pos);
+        }
+        return value;
+    }-*/;
+}
@@ -0,0 +1,43 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.codec;
+
+import com.divroll.http.client.JsonNode;
+
+/**
+ * Converts between a Java type and JSON without reflection. Implementations
+ * are usually generated for {@link JsonCodec} classes.
+ */
+public interface Codec<T> {
+
+    void write(JsonWriter out, T value);
+
+    /**
+     * Reads the value from an already parsed JSON node.
+     */
+    T read(JsonNode node);
+
+    default String encode(T value) {
+        JsonWriter out = new JsonWriter();
+        write(out, value);
+        return out.toString();
+    }
+
+    default T decode(String json) {
+        return read(new JsonNode(json));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.codec;
+
+import com.divroll.http.client.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codecs built from other codecs.
+ */
+public final class Codecs {
+
+    private Codecs() {
+    }
+
+    /**
+     * Codec for a JSON array whose elements use {@code element}, e.g. for list endpoints.
+     */
+    public static <T> Codec<List<T>> listOf(Codec<T> element) {
+        return new Codec<List<T>>() {
+            @Override
+            public void write(JsonWriter out, List<T> value) {
+                if (value == null) {
+                    out.nullValue();
+                    return;
+                }
+                out.beginArray();
+                for (T item : value) {
+                    if (item == null) {
+                        out.nullValue();
+                    } else {
+                        element.write(out, item);
+                    }
+                }
+                out.endArray();
+            }
+
+            @Override
+            public List<T> read(JsonNode node) {
+                List<T> result = new ArrayList<T>(node.size());
+                for (int i = 0; i < node.size(); i++) {
+                    JsonNode item = node.get(i);
+                    result.add(item != null ? element.read(item) : null);
+                }
+                return result;
+            }
+        };
+    }
+}
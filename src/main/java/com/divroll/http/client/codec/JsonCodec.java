@@ -0,0 +1,41 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.codec;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class for which the {@code httpclient-processor} annotation processor
+ * generates a {@link Codec} named {@code <ClassName>_Codec} in the same package
+ * (nested classes are flattened, e.g. {@code Outer_Inner_Codec}).
+ *
+ * <p>Non-static, non-transient fields declared by the class are mapped.
+ * Fields that are not private are accessed directly; private fields need a
+ * getter ({@code getX} or {@code isX}) and a setter. Supported field types are
+ * {@code String}, primitives and their wrappers, enums (by name), other
+ * {@code @JsonCodec} classes and {@code List}s of these. Mapped fields cannot
+ * be final. The class needs a no-argument constructor.
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface JsonCodec {
+}
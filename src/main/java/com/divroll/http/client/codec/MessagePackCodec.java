@@ -0,0 +1,223 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.codec;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Decodes {@code application/msgpack} bodies (also accepted as
+ * {@code application/x-msgpack} and {@code application/vnd.msgpack}). The
+ * timestamp extension becomes epoch milliseconds, other extensions and binary
+ * values become base64 strings, non-string map keys are converted to strings,
+ * and 64-bit integers are read as doubles like {@code JSON.parse} would.
+ */
+public final class MessagePackCodec implements BinaryCodec {
+
+    public static final String MEDIA_TYPE = "application/msgpack";
+
+    public static final MessagePackCodec INSTANCE = new MessagePackCodec();
+
+    private MessagePackCodec() {
+    }
+
+    @Override
+    public String getMediaType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    public boolean accepts(String mediaType) {
+        return MEDIA_TYPE.equals(mediaType) || "application/x-msgpack".equals(mediaType)
+                || "application/vnd.msgpack".equals(mediaType);
+    }
+
+    @Override
+    public JavaScriptObject decode(JavaScriptObject arrayBuffer) {
+        return decodeBuffer(arrayBuffer);
+    }
+
+    private static native JavaScriptObject decodeBuffer(JavaScriptObject buffer) /*-{
+        var view = new DataView(buffer);
+        var bytes = new Uint8Array(buffer);
+        var pos = 0;
+        function u8() {
+            return bytes[pos++];
+        }
+        function u16() {
+            var v = view.getUint16(pos);
+            pos += 2;
+            return v;
+        }
+        function u32() {
+            var v = view.getUint32(pos);
+            pos += 4;
+            return v;
+        }
+        function str(len) {
+            var start = pos;
+            pos += len;
+            return @com.divroll.http.client.codec.BinaryCodecs::utf8(*)(bytes, start, pos);
+        }
+        function bin(len) {
+            var start = pos;
+            pos += len;
+            return @com.divroll.http.client.codec.BinaryCodecs::base64(*)(bytes, start, pos);
+        }
+        function array(len) {
+            var result = new Array(len);
+            for (var i = 0; i < len; i++) {
+                result[i] = item();
+            }
+            return result;
+        }
+        function map(len) {
+            var result = {};
+            for (var i = 0; i < len; i++) {
+                var key = item();
+                // defineProperty, unlike assignment, makes "__proto__" an own key as JSON.parse does
+                Object.defineProperty(result, typeof key === 'string' ? key : JSON.stringify(key),
+                        {value: item(), writable: true, enumerable: true, configurable: true});
+            }
+            return result;
+        }
+        function ext(len) {
+            var type = view.getInt8(pos++);
+            if (type === -1) {
+                // timestamp 32, 64 or 96
+                var start = pos;
+                pos += len;
+                if (len === 4) {
+                    return view.getUint32(start) * 1000;
+                }
+                if (len === 8) {
+                    var hi = view.getUint32(start);
+                    var nanos = hi >>> 2;
+                    var seconds = (hi & 0x3) * 4294967296 + view.getUint32(start + 4);
+                    return seconds * 1000 + nanos / 1e6;
+                }
+                if (len === 12) {
+                    return (view.getInt32(start + 4) * 4294967296 + view.getUint32(start + 8)) * 1000
+                        + view.getUint32(start) / 1e6;
+                }
+                pos = start;
+            }
+            return bin(len);
+        }
+        function item() {
+            if (pos >= bytes.length) {
+                throw new Error('Unexpected end of MessagePack data');
+            }
+            var b = u8();
+            var v;
+            if (b < 0x80) {
+                return b;
+            }
+            if (b >= 0xe0) {
+                return b - 0x100;
+            }
+            if (b < 0x90) {
+                return map(b & 0x0f);
+            }
+            if (b < 0xa0) {
+                return array(b & 0x0f);
+            }
+            if (b < 0xc0) {
+                return str(b & 0x1f);
+            }
+            switch (b) {
+                case 0xc0:
+                    return null;
+                case 0xc2:
+                    return false;
+                case 0xc3:
+                    return true;
+                case 0xc4:
+                    return bin(u8());
+                case 0xc5:
+                    return bin(u16());
+                case 0xc6:
+                    return bin(u32());
+                case 0xc7:
+                    return ext(u8());
+                case 0xc8:
+                    return ext(u16());
+                case 0xc9:
+                    return ext(u32());
+                case 0xca:
+                    v = view.getFloat32(pos);
+                    pos += 4;
+                    return v;
+                case 0xcb:
+                    v = view.getFloat64(pos);
+                    pos += 8;
+                    return v;
+                case 0xcc:
+                    return u8();
+                case 0xcd:
+                    return u16();
+                case 0xce:
+                    return u32();
+                case 0xcf:
+                    return u32() * 4294967296 + u32();
+                case 0xd0:
+                    return view.getInt8(pos++);
+                case 0xd1:
+                    v = view.getInt16(pos);
+                    pos += 2;
+                    return v;
+                case 0xd2:
+                    v = view.getInt32(pos);
+                    pos += 4;
+                    return v;
+                case 0xd3:
+                    v = view.getInt32(pos) * 4294967296 + view.getUint32(pos + 4);
+                    pos += 8;
+                    return v;
+                case 0xd4:
+                    return ext(1);
+                case 0xd5:
+                    return ext(2);
+                case 0xd6:
+                    return ext(4);
+                case 0xd7:
+                    return ext(8);
+                case 0xd8:
+                    return ext(16);
+                case 0xd9:
+                    return str(u8());
+                case 0xda:
+                    return str(u16());
+                case 0xdb:
+                    return str(u32());
+                case 0xdc:
+                    return array(u16());
+                case 0xdd:
+                    return array(u32());
+                case 0xde:
+                    return map(u16());
+                case 0xdf:
+                    return map(u32());
+            }
+            throw new Error('Invalid MessagePack type 0x' + b.toString(16) + ' at offset ' + (pos - 1));
+        }
+        var value = item();
+        if (pos !== bytes.length) {
+            throw new Error('Trailing bytes after MessagePack value at offset ' + pos);
+        }
+        return value;
+    }-*/;
+}
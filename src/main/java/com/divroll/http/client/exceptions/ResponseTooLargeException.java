@@ -0,0 +1,62 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.exceptions;
+
+import com.divroll.http.client.HttpRequestException;
+
+/**
+ * The response was aborted because its declared or received size exceeded the
+ * request's size cap, or because buffering it would exceed the client-wide
+ * memory budget.
+ */
+public class ResponseTooLargeException extends HttpRequestException {
+    private final String url;
+    private final int sizeBytes;
+    private final int limitBytes;
+    private final boolean budget;
+
+    public ResponseTooLargeException(String url, int sizeBytes, int limitBytes, boolean budget) {
+        super((budget ? "Response would exceed the memory budget of " : "Response exceeds the limit of ")
+                + limitBytes + " bytes (" + sizeBytes + " bytes): " + url, 0);
+        this.url = url;
+        this.sizeBytes = sizeBytes;
+        this.limitBytes = limitBytes;
+        this.budget = budget;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @return the {@code Content-Length} or the bytes received when the request was aborted
+     */
+    public int getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public int getLimitBytes() {
+        return limitBytes;
+    }
+
+    /**
+     * @return true if the memory budget rather than a size cap was exceeded
+     */
+    public boolean isBudgetExceeded() {
+        return budget;
+    }
+}
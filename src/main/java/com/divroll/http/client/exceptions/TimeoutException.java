@@ -19,4 +19,23 @@ package com.divroll.http.client.exceptions;
 import com.divroll.http.client.HttpRequestException;
 
 public class TimeoutException extends HttpRequestException {
+    private String url;
+    private int timeoutMillis;
+
+    public TimeoutException() {
+    }
+
+    public TimeoutException(String url, int timeoutMillis) {
+        super("Request timed out after " + timeoutMillis + " ms: " + url, 0);
+        this.url = url;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getTimeoutMillis() {
+        return timeoutMillis;
+    }
 }
@@ -0,0 +1,72 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.limit;
+
+/**
+ * Additive increase, multiplicative decrease. While requests succeed and the
+ * limit is actually being used, it grows by about one per round trip; a drop,
+ * or a round trip slower than {@code latencyTolerance} times the fastest one
+ * seen, multiplies it by {@code backoffRatio}.
+ */
+public class AimdLimit implements LimitAlgorithm {
+    private final int minLimit;
+    private final int maxLimit;
+    private double backoffRatio = 0.9;
+    private double latencyTolerance = 2.0;
+    private double limit;
+    private double minRtt = Double.MAX_VALUE;
+
+    public AimdLimit() {
+        this(10, 1, 200);
+    }
+
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public AimdLimit setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+        return this;
+    }
+
+    public AimdLimit setLatencyTolerance(double latencyTolerance) {
+        this.latencyTolerance = latencyTolerance;
+        return this;
+    }
+
+    @Override
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    @Override
+    public void onSample(double rttMillis, int inFlight, boolean dropped) {
+        // Cached and local responses can complete within the clock's millisecond
+        // granularity; a 0 ms minimum would make every later round trip look slow.
+        rttMillis = Math.max(1, rttMillis);
+        if (!dropped) {
+            minRtt = Math.min(minRtt, rttMillis);
+        }
+        if (dropped || rttMillis > minRtt * latencyTolerance) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+}
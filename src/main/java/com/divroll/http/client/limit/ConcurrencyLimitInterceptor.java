@@ -0,0 +1,116 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.limit;
+
+import com.divroll.http.client.Interceptor;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Caps the number of requests in flight at a limit that a {@link LimitAlgorithm}
+ * adapts from observed latency and failures. Requests over the limit wait in
+ * order and are sent as earlier ones complete. Register it after interceptors
+ * that should see the time spent waiting, e.g. metrics.
+ *
+ * <pre>
+ * ConcurrencyLimitInterceptor limiter = new ConcurrencyLimitInterceptor(new VegasLimit());
+ * HttpClient.addInterceptor(limiter);
+ * int limit = limiter.getLimit();
+ * </pre>
+ */
+public class ConcurrencyLimitInterceptor implements Interceptor {
+    private static final int HISTORY_SIZE = 256;
+
+    private final LimitAlgorithm algorithm;
+    private final List<Chain> queue = new ArrayList<Chain>();
+    private final List<LimitChange> history = new ArrayList<LimitChange>();
+    private int inFlight;
+
+    public ConcurrencyLimitInterceptor(LimitAlgorithm algorithm) {
+        this.algorithm = algorithm;
+        history.add(new LimitChange(Duration.currentTimeMillis(), algorithm.getLimit()));
+    }
+
+    public int getLimit() {
+        return algorithm.getLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * @return the last {@value #HISTORY_SIZE} limit changes, oldest first
+     */
+    public List<LimitChange> getHistory() {
+        return new ArrayList<LimitChange>(history);
+    }
+
+    @Override
+    public void intercept(Chain chain) {
+        if (inFlight < algorithm.getLimit()) {
+            send(chain);
+        } else {
+            queue.add(chain);
+        }
+    }
+
+    private void send(Chain chain) {
+        int sentWith = ++inFlight;
+        double sent = Duration.currentTimeMillis();
+        RequestCallback callback = chain.callback();
+        chain.proceed(new RequestCallback() {
+            @Override
+            public void onResponseReceived(Request req, Response res) {
+                int status = res.getStatusCode();
+                complete(sent, sentWith, status == 0 || status == 429 || status == 503);
+                callback.onResponseReceived(req, res);
+            }
+
+            @Override
+            public void onError(Request req, Throwable exception) {
+                complete(sent, sentWith, true);
+                callback.onError(req, exception);
+            }
+        });
+    }
+
+    private void complete(double sent, int sentWith, boolean dropped) {
+        inFlight--;
+        int before = algorithm.getLimit();
+        algorithm.onSample(Duration.currentTimeMillis() - sent, sentWith, dropped);
+        int after = algorithm.getLimit();
+        if (after != before) {
+            if (history.size() == HISTORY_SIZE) {
+                history.remove(0);
+            }
+            history.add(new LimitChange(Duration.currentTimeMillis(), after));
+        }
+        while (!queue.isEmpty() && inFlight < after) {
+            send(queue.remove(0));
+        }
+    }
+}
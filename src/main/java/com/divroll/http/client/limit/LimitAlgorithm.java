@@ -0,0 +1,34 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.limit;
+
+/**
+ * Decides how many requests may be in flight, based on the outcome of each
+ * completed request.
+ */
+public interface LimitAlgorithm {
+
+    int getLimit();
+
+    /**
+     * @param rttMillis time from sending the request to its response
+     * @param inFlight  requests in flight when it was sent, including itself
+     * @param dropped   whether it failed in a way that signals overload
+     *                  (network error, 429 or 503)
+     */
+    void onSample(double rttMillis, int inFlight, boolean dropped);
+}
@@ -0,0 +1,46 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.limit;
+
+/**
+ * A point in the limit history of a {@link ConcurrencyLimitInterceptor}.
+ */
+public final class LimitChange {
+    private final double timeMillis;
+    private final int limit;
+
+    LimitChange(double timeMillis, int limit) {
+        this.timeMillis = timeMillis;
+        this.limit = limit;
+    }
+
+    /**
+     * @return when the limit changed, in {@code Duration.currentTimeMillis()} units
+     */
+    public double getTimeMillis() {
+        return timeMillis;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public String toString() {
+        return limit + "@" + (long) timeMillis;
+    }
+}
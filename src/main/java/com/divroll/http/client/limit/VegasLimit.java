@@ -0,0 +1,82 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.limit;
+
+/**
+ * Delay-based limit in the style of TCP Vegas. The number of requests queued
+ * at the server is estimated from how far the round trip exceeds the fastest
+ * one seen: {@code limit * (1 - minRtt / rtt)}. Below {@code alpha} the limit
+ * grows, above {@code beta} it shrinks, with both thresholds scaling with
+ * {@code log10(limit)}. Drops halve the limit. The fastest round trip is
+ * forgotten every {@code probeInterval} samples so a backend that got
+ * permanently slower is re-measured.
+ */
+public class VegasLimit implements LimitAlgorithm {
+    private final int minLimit;
+    private final int maxLimit;
+    private int probeInterval = 1000;
+    private double limit;
+    private double minRtt;
+    private int samples;
+
+    public VegasLimit() {
+        this(10, 1, 200);
+    }
+
+    public VegasLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public VegasLimit setProbeInterval(int probeInterval) {
+        this.probeInterval = probeInterval;
+        return this;
+    }
+
+    @Override
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    @Override
+    public void onSample(double rttMillis, int inFlight, boolean dropped) {
+        // 0 marks minRtt as unknown, so a sub-millisecond round trip must not be stored as is
+        rttMillis = Math.max(1, rttMillis);
+        if (++samples >= probeInterval) {
+            samples = 0;
+            minRtt = 0;
+        }
+        if (dropped) {
+            limit = Math.max(minLimit, limit / 2);
+            return;
+        }
+        if (minRtt == 0 || rttMillis < minRtt) {
+            minRtt = rttMillis;
+            return;
+        }
+        double log = Math.max(1, Math.log10(limit));
+        double queue = limit * (1 - minRtt / rttMillis);
+        if (queue < 3 * log) {
+            if (inFlight * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + log);
+            }
+        } else if (queue > 6 * log) {
+            limit = Math.max(minLimit, limit - log);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.log;
+
+/**
+ * Fixed-size ring buffer of structured request entries. All slots are
+ * preallocated as parallel arrays, so recording an entry overwrites the
+ * oldest one without allocating.
+ */
+public class RequestLog {
+    private final String[] methods;
+    private final String[] endpoints;
+    private final int[] statuses;
+    private final int[] requestBytes;
+    private final int[] responseBytes;
+    private final double[] startMillis;
+    private final double[] queueMillis;
+    private final double[] totalMillis;
+    private int next;
+    private int size;
+    private long recorded;
+
+    public RequestLog(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        methods = new String[capacity];
+        endpoints = new String[capacity];
+        statuses = new int[capacity];
+        requestBytes = new int[capacity];
+        responseBytes = new int[capacity];
+        startMillis = new double[capacity];
+        queueMillis = new double[capacity];
+        totalMillis = new double[capacity];
+    }
+
+    /**
+     * @param status HTTP status, or 0 if the request failed without a response
+     * @param queue time from building the request to sending it, or -1 if it was never sent
+     */
+    public void record(String method, String endpoint, int status, int requestSize, int responseSize,
+                       double start, double queue, double total) {
+        int i = next;
+        methods[i] = method;
+        endpoints[i] = endpoint;
+        statuses[i] = status;
+        requestBytes[i] = requestSize;
+        responseBytes[i] = responseSize;
+        startMillis[i] = start;
+        queueMillis[i] = queue;
+        totalMillis[i] = total;
+        next = (i + 1) % methods.length;
+        if (size < methods.length) {
+            size++;
+        }
+        recorded++;
+    }
+
+    public int getCapacity() {
+        return methods.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return number of entries recorded since creation, including overwritten ones
+     */
+    public long getRecordedCount() {
+        return recorded;
+    }
+
+    public void clear() {
+        for (int i = 0; i < methods.length; i++) {
+            methods[i] = null;
+            endpoints[i] = null;
+        }
+        next = 0;
+        size = 0;
+    }
+
+    /**
+     * Formats the buffered entries oldest first, one per line:
+     * {@code start method endpoint status reqBytes respBytes queueMs totalMs}.
+     */
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        int first = (next - size + methods.length) % methods.length;
+        for (int n = 0; n < size; n++) {
+            int i = (first + n) % methods.length;
+            sb.append((long) startMillis[i]).append(' ')
+                    .append(methods[i]).append(' ')
+                    .append(endpoints[i]).append(' ')
+                    .append(statuses[i]).append(' ')
+                    .append(requestBytes[i]).append(' ')
+                    .append(responseBytes[i]).append(' ')
+                    .append(Math.round(queueMillis[i])).append("ms ")
+                    .append(Math.round(totalMillis[i])).append("ms\n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.log;
+
+import com.divroll.http.client.Interceptor;
+import com.divroll.http.client.PendingRequest;
+import com.divroll.http.client.ResponseLimits;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Records a sample of requests into a {@link RequestLog}. Failed requests
+ * (transport errors and 5xx) are always recorded and, when a
+ * {@link DumpHandler} is set, trigger a dump of the buffer so the requests
+ * leading up to the failure can be inspected. Sampling is decided before the
+ * request is sent, and the recorders that watch requests are pooled, so
+ * logging allocates nothing per request once the pool is warm. Sizes are in
+ * UTF-8 bytes.
+ *
+ * <pre>
+ * RequestLog log = new RequestLog(256);
+ * HttpClient.addInterceptor(new RequestLogInterceptor(log, 0.05)
+ *         .dumpOnError(RequestLogInterceptor.loggerHandler()));
+ * </pre>
+ */
+public class RequestLogInterceptor implements Interceptor {
+    private static final Logger logger = Logger.getLogger(RequestLogInterceptor.class.getName());
+    private static final int MAX_POOLED = 64;
+
+    public interface DumpHandler {
+        void onDump(String dump);
+    }
+
+    private final RequestLog log;
+    private final double sampleRate;
+    private final List<Entry> pool = new ArrayList<Entry>();
+    private DumpHandler dumpHandler;
+    private int dumpIntervalMillis = 10000;
+    private double lastDump;
+
+    public RequestLogInterceptor(RequestLog log, double sampleRate) {
+        this.log = log;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Dumps the buffer to the handler after a failed request, at most once per dump interval.
+     */
+    public RequestLogInterceptor dumpOnError(DumpHandler handler) {
+        this.dumpHandler = handler;
+        return this;
+    }
+
+    public RequestLogInterceptor setDumpIntervalMillis(int dumpIntervalMillis) {
+        this.dumpIntervalMillis = dumpIntervalMillis;
+        return this;
+    }
+
+    public RequestLog getLog() {
+        return log;
+    }
+
+    /**
+     * Handler that writes the dump to {@code java.util.logging} at SEVERE.
+     */
+    public static DumpHandler loggerHandler() {
+        return dump -> logger.severe("Recent requests:\n" + dump);
+    }
+
+    @Override
+    public void intercept(Chain chain) {
+        boolean sampled = sampleRate >= 1 || (sampleRate > 0 && Math.random() < sampleRate);
+        Entry entry = pool.isEmpty() ? new Entry() : pool.remove(pool.size() - 1);
+        entry.request = chain.request();
+        entry.callback = chain.callback();
+        entry.sampled = sampled;
+        chain.proceed(entry);
+    }
+
+    private static boolean isFailure(int status) {
+        return status == 0 || status >= 500;
+    }
+
+    private void record(PendingRequest request, int status, int responseSize) {
+        boolean failed = isFailure(status);
+        double now = Duration.currentTimeMillis();
+        double sent = request.getSentMillis();
+        String body = request.getBody();
+        log.record(request.getMethod(), request.getEndpoint(), status,
+                body != null ? ResponseLimits.utf8Length(body) : 0, responseSize, request.getCreatedMillis(),
+                sent > 0 ? sent - request.getCreatedMillis() : -1, now - request.getCreatedMillis());
+        if (failed && dumpHandler != null && now - lastDump >= dumpIntervalMillis) {
+            lastDump = now;
+            dumpHandler.onDump(log.dump());
+        }
+    }
+
+    /**
+     * Watches one request at a time and goes back to the pool before the caller's
+     * callback runs. Unsampled requests are only recorded if they fail.
+     */
+    private class Entry implements RequestCallback {
+        private PendingRequest request;
+        private RequestCallback callback;
+        private boolean sampled;
+
+        /**
+         * Only sizes responses that are recorded; the size never requires decoding the body.
+         */
+        @Override
+        public void onResponseReceived(Request req, Response res) {
+            RequestCallback callback = this.callback;
+            int status = res.getStatusCode();
+            if (sampled || isFailure(status)) {
+                record(request, status, ResponseLimits.sizeOf(res));
+            }
+            recycle();
+            callback.onResponseReceived(req, res);
+        }
+
+        @Override
+        public void onError(Request req, Throwable exception) {
+            RequestCallback callback = this.callback;
+            record(request, 0, 0);
+            recycle();
+            callback.onError(req, exception);
+        }
+
+        private void recycle() {
+            request = null;
+            callback = null;
+            if (pool.size() < MAX_POOLED) {
+                pool.add(this);
+            }
+        }
+    }
+}
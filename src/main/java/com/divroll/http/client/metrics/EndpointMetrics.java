@@ -0,0 +1,61 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.metrics;
+
+/**
+ * Histograms of every {@link Phase} for one endpoint template and status class.
+ */
+public class EndpointMetrics {
+    private final String endpoint;
+    private final String statusClass;
+    private final LatencyHistogram[] phases = new LatencyHistogram[Phase.values().length];
+
+    EndpointMetrics(String endpoint, String statusClass) {
+        this.endpoint = endpoint;
+        this.statusClass = statusClass;
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new LatencyHistogram();
+        }
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return e.g. {@code 2xx}, {@code 5xx}, or {@code error} for requests that got no response
+     */
+    public String getStatusClass() {
+        return statusClass;
+    }
+
+    public LatencyHistogram getHistogram(Phase phase) {
+        return phases[phase.ordinal()];
+    }
+
+    public void record(Phase phase, double millis) {
+        phases[phase.ordinal()].record(millis);
+    }
+
+    public EndpointSnapshot snapshot() {
+        HistogramSnapshot[] snapshots = new HistogramSnapshot[phases.length];
+        for (int i = 0; i < phases.length; i++) {
+            snapshots[i] = phases[i].snapshot();
+        }
+        return new EndpointSnapshot(endpoint, statusClass, snapshots);
+    }
+}
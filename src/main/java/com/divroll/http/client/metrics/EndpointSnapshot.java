@@ -0,0 +1,53 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.metrics;
+
+/**
+ * Point-in-time view of {@link EndpointMetrics}.
+ */
+public class EndpointSnapshot {
+    private final String endpoint;
+    private final String statusClass;
+    private final HistogramSnapshot[] phases;
+
+    EndpointSnapshot(String endpoint, String statusClass, HistogramSnapshot[] phases) {
+        this.endpoint = endpoint;
+        this.statusClass = statusClass;
+        this.phases = phases;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public String getStatusClass() {
+        return statusClass;
+    }
+
+    public HistogramSnapshot getPhase(Phase phase) {
+        return phases[phase.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(endpoint).append(" [").append(statusClass).append("]");
+        for (Phase phase : Phase.values()) {
+            sb.append("\n  ").append(phase).append(": ").append(phases[phase.ordinal()]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.metrics;
+
+/**
+ * Point-in-time summary of a {@link LatencyHistogram}, all values in milliseconds.
+ */
+public class HistogramSnapshot {
+    private final long count;
+    private final double min;
+    private final double max;
+    private final double mean;
+    private final double p50;
+    private final double p95;
+    private final double p99;
+
+    public HistogramSnapshot(long count, double min, double max, double mean, double p50, double p95, double p99) {
+        this.count = count;
+        this.min = min;
+        this.max = max;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p95 = p95;
+        this.p99 = p99;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getP50() {
+        return p50;
+    }
+
+    public double getP95() {
+        return p95;
+    }
+
+    public double getP99() {
+        return p99;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count + " p50=" + p50 + " p95=" + p95 + " p99=" + p99 + " max=" + max;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.metrics;
+
+/**
+ * Fixed-size latency histogram with exponentially growing buckets. Each bucket
+ * is 10% wider than the previous one, so percentiles carry at most ~10%
+ * relative error while the whole range from 0.1ms to several minutes fits in
+ * a single {@code int[]}.
+ */
+public class LatencyHistogram {
+    private static final double MIN_MILLIS = 0.1;
+    private static final double GROWTH = 1.1;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+    private static final int BUCKETS = 160;
+
+    private final int[] counts = new int[BUCKETS];
+    private long count;
+    private double sum;
+    private double min = Double.MAX_VALUE;
+    private double max;
+
+    public void record(double millis) {
+        if (millis < 0) {
+            millis = 0;
+        }
+        counts[indexOf(millis)]++;
+        count++;
+        sum += millis;
+        if (millis < min) {
+            min = millis;
+        }
+        if (millis > max) {
+            max = millis;
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @param quantile between 0 and 1, e.g. 0.95
+     * @return the upper bound of the bucket holding the quantile, clamped to the observed max
+     */
+    public double percentile(double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * count);
+        if (rank < 1) {
+            rank = 1;
+        }
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.max(min, Math.min(max, upperBound(i)));
+            }
+        }
+        return max;
+    }
+
+    public HistogramSnapshot snapshot() {
+        if (count == 0) {
+            return new HistogramSnapshot(0, 0, 0, 0, 0, 0, 0);
+        }
+        return new HistogramSnapshot(count, min, max, sum / count,
+                percentile(0.50), percentile(0.95), percentile(0.99));
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = 0;
+        }
+        count = 0;
+        sum = 0;
+        min = Double.MAX_VALUE;
+        max = 0;
+    }
+
+    private static int indexOf(double millis) {
+        if (millis < MIN_MILLIS) {
+            return 0;
+        }
+        int index = 1 + (int) (Math.log(millis / MIN_MILLIS) / LOG_GROWTH);
+        return index < BUCKETS ? index : BUCKETS - 1;
+    }
+
+    private static double upperBound(int index) {
+        return MIN_MILLIS * Math.pow(GROWTH, index);
+    }
+}
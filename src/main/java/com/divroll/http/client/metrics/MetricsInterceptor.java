@@ -0,0 +1,130 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.metrics;
+
+import com.divroll.http.client.Interceptor;
+import com.divroll.http.client.ParseObserver;
+import com.divroll.http.client.PendingRequest;
+import com.divroll.http.client.ResponseDelivery;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.Response;
+
+/**
+ * Records the phases of every request into a {@link RequestMetrics}. Time to
+ * first byte and download time come from the Resource Timing API when the
+ * browser exposes an entry for the request; otherwise the whole network round
+ * trip is recorded as time to first byte. Callback and total time are
+ * recorded once the response has been delivered and the caller's first
+ * Promise reactions have run.
+ */
+public class MetricsInterceptor implements Interceptor {
+    private final RequestMetrics metrics;
+    private boolean resourceTiming = true;
+
+    public MetricsInterceptor(RequestMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public MetricsInterceptor setResourceTiming(boolean resourceTiming) {
+        this.resourceTiming = resourceTiming;
+        return this;
+    }
+
+    public RequestMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void intercept(Chain chain) {
+        Tracker tracker = new Tracker(chain.request(), chain.callback());
+        chain.request().addParseObserver(tracker);
+        chain.proceed(tracker);
+    }
+
+    private class Tracker implements RequestCallback, ParseObserver, Runnable {
+        private final PendingRequest request;
+        private final RequestCallback callback;
+        private EndpointMetrics target;
+        private double received;
+
+        Tracker(PendingRequest request, RequestCallback callback) {
+            this.request = request;
+            this.callback = callback;
+        }
+
+        @Override
+        public void onResponseReceived(Request req, Response res) {
+            received = Duration.currentTimeMillis();
+            target = metrics.get(request.getEndpoint(), RequestMetrics.statusClass(res.getStatusCode()));
+            recordNetwork(received);
+            try {
+                callback.onResponseReceived(req, res);
+            } finally {
+                ResponseDelivery.afterDelivery(this);
+            }
+        }
+
+        @Override
+        public void onError(Request req, Throwable exception) {
+            received = Duration.currentTimeMillis();
+            target = metrics.get(request.getEndpoint(), RequestMetrics.ERROR);
+            if (request.getSentMillis() > 0) {
+                target.record(Phase.QUEUE, request.getSentMillis() - request.getCreatedMillis());
+            }
+            try {
+                callback.onError(req, exception);
+            } finally {
+                ResponseDelivery.afterDelivery(this);
+            }
+        }
+
+        @Override
+        public void onParsed(PendingRequest request, double parseMillis) {
+            if (target != null) {
+                target.record(Phase.PARSE, parseMillis);
+            }
+        }
+
+        private void recordNetwork(double received) {
+            double sent = request.getSentMillis();
+            if (sent <= 0) {
+                // Answered by an interceptor without going to the network
+                return;
+            }
+            target.record(Phase.QUEUE, sent - request.getCreatedMillis());
+            ResourceTimingEntry entry = resourceTiming ? ResourceTimingEntry.find(request.getUrl(), sent) : null;
+            if (entry != null && entry.getResponseStart() > 0) {
+                target.record(Phase.TIME_TO_FIRST_BYTE, entry.getResponseStart() - entry.getRequestStart());
+                target.record(Phase.DOWNLOAD, entry.getResponseEnd() - entry.getResponseStart());
+            } else {
+                target.record(Phase.TIME_TO_FIRST_BYTE, received - sent);
+            }
+        }
+
+        /**
+         * Records callback and total time once the caller's reactions have run.
+         */
+        @Override
+        public void run() {
+            double delivered = Duration.currentTimeMillis();
+            target.record(Phase.CALLBACK, delivered - received);
+            target.record(Phase.TOTAL, delivered - request.getCreatedMillis());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.metrics;
+
+/**
+ * Phases of a request that {@link RequestMetrics} records separately.
+ */
+public enum Phase {
+    /** From building the request to handing it to the browser. */
+    QUEUE,
+    /** From sending to the first response byte (whole round trip without Resource Timing). */
+    TIME_TO_FIRST_BYTE,
+    /** From the first to the last response byte; only available through Resource Timing. */
+    DOWNLOAD,
+    /** Building the {@code JsonNode} of a JSON response. */
+    PARSE,
+    /** Delivery of the response to the caller, up to its first Promise reactions having run. */
+    CALLBACK,
+    /** From building the request to the caller's first Promise reactions having run. */
+    TOTAL
+}
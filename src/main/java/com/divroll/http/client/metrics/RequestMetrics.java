@@ -0,0 +1,98 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latency histograms keyed by endpoint template and status class. Register a
+ * {@link MetricsInterceptor} to fill it:
+ *
+ * <pre>
+ * RequestMetrics metrics = new RequestMetrics();
+ * HttpClient.addInterceptor(new MetricsInterceptor(metrics));
+ * ...
+ * for (EndpointSnapshot s : metrics.snapshot()) {
+ *     s.getPhase(Phase.TOTAL).getP95();
+ * }
+ * </pre>
+ *
+ * <p>Requests built without a template are keyed by their path, so ids in the
+ * path would create an entry each. Once {@code maxEndpoints} entries exist,
+ * further endpoints are recorded under {@link #OTHER}.
+ */
+public class RequestMetrics {
+    public static final String ERROR = "error";
+    /**
+     * Endpoint that collects requests once {@code maxEndpoints} endpoints are tracked.
+     */
+    public static final String OTHER = "other";
+
+    private final Map<String, EndpointMetrics> endpoints = new LinkedHashMap<String, EndpointMetrics>();
+    private final int maxEndpoints;
+
+    public RequestMetrics() {
+        this(100);
+    }
+
+    /**
+     * @param maxEndpoints entries, per endpoint and status class, kept before overflowing into {@link #OTHER}
+     */
+    public RequestMetrics(int maxEndpoints) {
+        this.maxEndpoints = Math.max(1, maxEndpoints);
+    }
+
+    public EndpointMetrics get(String endpoint, String statusClass) {
+        String key = statusClass + " " + endpoint;
+        EndpointMetrics metrics = endpoints.get(key);
+        if (metrics == null && endpoints.size() >= maxEndpoints) {
+            endpoint = OTHER;
+            key = statusClass + " " + OTHER;
+            metrics = endpoints.get(key);
+        }
+        if (metrics == null) {
+            metrics = new EndpointMetrics(endpoint, statusClass);
+            endpoints.put(key, metrics);
+        }
+        return metrics;
+    }
+
+    public List<EndpointSnapshot> snapshot() {
+        List<EndpointSnapshot> snapshots = new ArrayList<EndpointSnapshot>(endpoints.size());
+        for (EndpointMetrics metrics : endpoints.values()) {
+            snapshots.add(metrics.snapshot());
+        }
+        return snapshots;
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    /**
+     * @return {@code 1xx} to {@code 5xx}, or {@link #ERROR} when there was no HTTP status
+     */
+    public static String statusClass(int status) {
+        if (status < 100 || status > 599) {
+            return ERROR;
+        }
+        return (status / 100) + "xx";
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.metrics;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+/**
+ * Overlay for a {@code PerformanceResourceTiming} entry. Cross-origin responses
+ * without {@code Timing-Allow-Origin} report zero for the detailed timestamps.
+ */
+final class ResourceTimingEntry extends JavaScriptObject {
+    protected ResourceTimingEntry() {
+    }
+
+    /**
+     * Finds the entry of a request sent at {@code sentMillis} (epoch time). Entries
+     * that started before that belong to earlier requests for the same url; of the
+     * rest, the one that started first is taken.
+     * @return the entry, or null if the Resource Timing API is unavailable or has
+     *         no entry for this request, e.g. once its buffer is full
+     */
+    static native ResourceTimingEntry find(String url, double sentMillis) /*-{
+        var perf = $wnd.performance;
+        if (!perf || !perf.getEntriesByName) {
+            return null;
+        }
+        var origin = perf.timeOrigin || (perf.timing && perf.timing.navigationStart);
+        if (!origin) {
+            return null;
+        }
+        var name = url;
+        try {
+            name = new $wnd.URL(url, $doc.baseURI).href;
+        } catch (e) {
+        }
+        // Date.now() is whole milliseconds, the performance timeline is not
+        var sent = sentMillis - origin - 1;
+        var entries = perf.getEntriesByName(name, "resource");
+        var found = null;
+        for (var i = 0; entries && i < entries.length; i++) {
+            var entry = entries[i];
+            if (entry.startTime >= sent && (!found || entry.startTime < found.startTime)) {
+                found = entry;
+            }
+        }
+        return found;
+    }-*/;
+
+    native double getRequestStart() /*-{
+        return this.requestStart || this.startTime || 0;
+    }-*/;
+
+    native double getResponseStart() /*-{
+        return this.responseStart || 0;
+    }-*/;
+
+    native double getResponseEnd() /*-{
+        return this.responseEnd || 0;
+    }-*/;
+}
@@ -0,0 +1,198 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.outbox;
+
+import com.divroll.http.client.JsonNode;
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.JsonUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the outbox in an IndexedDB object store so queued mutations survive a
+ * reload. Operations issued before the database is open are held and run once
+ * it is. Where IndexedDB is unavailable (e.g. some private browsing modes) the
+ * store logs a warning and behaves like {@link MemoryOutboxStore}. Entries
+ * only carry the headers on the {@link Outbox}'s allow-list, never credentials.
+ */
+public class IndexedDbOutboxStore implements OutboxStore {
+    private static final Logger logger = Logger.getLogger(IndexedDbOutboxStore.class.getName());
+
+    private final String databaseName;
+    private JavaScriptObject db;
+    private boolean opened;
+    private List<Runnable> waiting = new ArrayList<Runnable>();
+
+    public IndexedDbOutboxStore(String databaseName) {
+        this.databaseName = databaseName;
+        open(databaseName);
+    }
+
+    @Override
+    public void load(LoadCallback callback) {
+        whenOpen(() -> {
+            if (db == null) {
+                callback.onLoaded(new ArrayList<OutboxEntry>());
+            } else {
+                loadAll(db, callback);
+            }
+        });
+    }
+
+    @Override
+    public void put(OutboxEntry entry) {
+        whenOpen(() -> {
+            if (db != null) {
+                put(db, entry.getId(), entry.getMethod(), entry.getUrl(), entry.getBody(),
+                        headersToJson(entry.getHeaders()), entry.getCreatedMillis());
+            }
+        });
+    }
+
+    @Override
+    public void remove(List<OutboxEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<OutboxEntry> copy = new ArrayList<OutboxEntry>(entries);
+        whenOpen(() -> {
+            if (db != null) {
+                JavaScriptObject store = beginWrite(db);
+                for (OutboxEntry entry : copy) {
+                    delete(store, entry.getId());
+                }
+            }
+        });
+    }
+
+    private void whenOpen(Runnable operation) {
+        if (opened) {
+            operation.run();
+        } else {
+            waiting.add(operation);
+        }
+    }
+
+    private void onOpened(JavaScriptObject db) {
+        if (db == null) {
+            logger.warning("IndexedDB unavailable, outbox " + databaseName + " will not survive a reload");
+        }
+        this.db = db;
+        this.opened = true;
+        List<Runnable> pending = waiting;
+        waiting = null;
+        for (Runnable operation : pending) {
+            operation.run();
+        }
+    }
+
+    private void onLoaded(LoadCallback callback, JavaScriptObject rows) {
+        JsonNode list = new JsonNode(rows);
+        List<OutboxEntry> entries = new ArrayList<OutboxEntry>(list.size());
+        for (int i = 0; i < list.size(); i++) {
+            JsonNode row = list.get(i);
+            entries.add(new OutboxEntry(row.getNumber("id"), row.getString("method"), row.getString("url"),
+                    row.getString("body"), headersFromJson(row.getString("headers")), row.getNumber("created")));
+        }
+        callback.onLoaded(entries);
+    }
+
+    private static String headersToJson(Map<String, String> headers) {
+        StringBuilder json = new StringBuilder("{");
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append(JsonUtils.escapeValue(header.getKey())).append(':')
+                    .append(JsonUtils.escapeValue(header.getValue()));
+        }
+        return json.append('}').toString();
+    }
+
+    private static Map<String, String> headersFromJson(String json) {
+        Map<String, String> headers = new LinkedHashMap<String, String>();
+        if (json != null) {
+            JsonNode node = new JsonNode(json);
+            for (String name : node.keys()) {
+                headers.put(name, node.getString(name));
+            }
+        }
+        return headers;
+    }
+
+    private native void open(String name) /*-{
+        var self = this;
+        var opened = $entry(function(db) {
+            self.@com.divroll.http.client.outbox.IndexedDbOutboxStore::onOpened(*)(db);
+        });
+        if (!$wnd.indexedDB) {
+            opened(null);
+            return;
+        }
+        try {
+            var request = $wnd.indexedDB.open(name, 1);
+            request.onupgradeneeded = function() {
+                request.result.createObjectStore("outbox", {keyPath: "id"});
+            };
+            request.onsuccess = function() {
+                opened(request.result);
+            };
+            request.onerror = function() {
+                opened(null);
+            };
+        } catch (e) {
+            opened(null);
+        }
+    }-*/;
+
+    private native void loadAll(JavaScriptObject db, LoadCallback callback) /*-{
+        var self = this;
+        var rows = [];
+        var cursor = db.transaction("outbox", "readonly").objectStore("outbox").openCursor();
+        cursor.onsuccess = $entry(function() {
+            var c = cursor.result;
+            if (c) {
+                rows.push(c.value);
+                c["continue"]();
+            } else {
+                self.@com.divroll.http.client.outbox.IndexedDbOutboxStore::onLoaded(*)(callback, rows);
+            }
+        });
+        cursor.onerror = $entry(function() {
+            self.@com.divroll.http.client.outbox.IndexedDbOutboxStore::onLoaded(*)(callback, []);
+        });
+    }-*/;
+
+    private static native void put(JavaScriptObject db, double id, String method, String url, String body,
+                                   String headers, double created) /*-{
+        db.transaction("outbox", "readwrite").objectStore("outbox").put({
+            id: id, method: method, url: url, body: body, headers: headers, created: created
+        });
+    }-*/;
+
+    private static native JavaScriptObject beginWrite(JavaScriptObject db) /*-{
+        return db.transaction("outbox", "readwrite").objectStore("outbox");
+    }-*/;
+
+    private static native void delete(JavaScriptObject store, double id) /*-{
+        store["delete"](id);
+    }-*/;
+}
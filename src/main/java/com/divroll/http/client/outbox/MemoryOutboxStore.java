@@ -0,0 +1,43 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Non-durable store: queued mutations survive going offline, and are restored
+ * by a later {@link Outbox} over the same store, but not a page reload.
+ */
+public class MemoryOutboxStore implements OutboxStore {
+    private final List<OutboxEntry> entries = new ArrayList<OutboxEntry>();
+
+    @Override
+    public void load(LoadCallback callback) {
+        callback.onLoaded(new ArrayList<OutboxEntry>(entries));
+    }
+
+    @Override
+    public void put(OutboxEntry entry) {
+        entries.add(entry);
+    }
+
+    @Override
+    public void remove(List<OutboxEntry> entries) {
+        this.entries.removeAll(entries);
+    }
+}
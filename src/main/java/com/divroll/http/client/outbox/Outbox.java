@@ -0,0 +1,367 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.outbox;
+
+import com.divroll.http.client.HttpClient;
+import com.divroll.http.client.HttpRequestWithBody;
+import com.divroll.http.client.HttpResponse;
+import com.divroll.http.client.PendingRequest;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.Scheduler;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Durable queue of mutations made while the network is unavailable. Entries
+ * are replayed in the order they were queued once the browser reports it is
+ * back online, in batches of {@code batchSize} with at most
+ * {@code maxConcurrency} requests in flight. Requests to the same URL never
+ * overlap, so per-resource order is kept even when replaying concurrently.
+ *
+ * <p>A queued {@code PUT} or {@code DELETE} supersedes earlier queued
+ * {@code PUT}, {@code PATCH} and {@code DELETE} requests to the same URL, which
+ * are dropped instead of being replayed. {@code POST} is never collapsed.
+ *
+ * <p>Only headers on an allow-list are kept with a queued entry, so credentials
+ * such as {@code Authorization}, cookies or API keys are never written to the
+ * store. Replayed requests go through the registered interceptors, which add
+ * the current credentials; a {@link ReplayDecorator} can add anything else.
+ *
+ * <p>Use together with {@link OutboxInterceptor}:
+ * <pre>
+ * Outbox outbox = new Outbox(new IndexedDbOutboxStore("app-outbox"));
+ * HttpClient.addInterceptor(new OutboxInterceptor(outbox));
+ * </pre>
+ */
+public class Outbox {
+    private static final Logger logger = Logger.getLogger(Outbox.class.getName());
+
+    /**
+     * Marks replayed requests so {@link OutboxInterceptor} sends them instead of queueing them again.
+     * It is removed before the request leaves the browser.
+     */
+    static final String REPLAY_HEADER = "X-Outbox-Replay";
+
+    public interface Listener {
+        /**
+         * Called when the server answered a replayed entry; the entry has left the outbox.
+         */
+        void onReplayed(OutboxEntry entry, HttpResponse<String> response);
+    }
+
+    /**
+     * Headers kept with queued entries unless {@link #setPersistedHeaders} replaces the list.
+     */
+    public static final String[] DEFAULT_PERSISTED_HEADERS = {"Accept", "Accept-Language", "Content-Language",
+            "Content-Type", "If-Match", "If-None-Match", "If-Unmodified-Since", "Idempotency-Key"};
+
+    public interface ReplayDecorator {
+        /**
+         * Called before a queued entry is sent again, e.g. to add headers that were not persisted.
+         */
+        void decorate(OutboxEntry entry, HttpRequestWithBody request);
+    }
+
+    private final OutboxStore store;
+    private final List<OutboxEntry> entries = new ArrayList<OutboxEntry>();
+    private int maxConcurrency = 4;
+    private int batchSize = 16;
+    private int retryDelayMillis = 30000;
+    private Listener listener;
+    private ReplayDecorator replayDecorator;
+    private final Set<String> persistedHeaders = new HashSet<String>();
+    private boolean loaded;
+    private double lastId;
+
+    private List<OutboxEntry> batch;
+    private int batchIndex;
+    private int inFlight;
+    private final Set<String> inFlightUrls = new HashSet<String>();
+    private final List<OutboxEntry> completed = new ArrayList<OutboxEntry>();
+    private boolean stalled;
+    private boolean retryScheduled;
+
+    private int replayedCount;
+    private int coalescedCount;
+
+    public Outbox(OutboxStore store) {
+        this.store = store;
+        setPersistedHeaders(DEFAULT_PERSISTED_HEADERS);
+        listenOnline();
+        store.load(this::onLoaded);
+    }
+
+    public Outbox setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        return this;
+    }
+
+    public Outbox setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+        return this;
+    }
+
+    /**
+     * Delay before trying again after a replay hit a network error or a 5xx response.
+     */
+    public Outbox setRetryDelayMillis(int retryDelayMillis) {
+        this.retryDelayMillis = retryDelayMillis;
+        return this;
+    }
+
+    public Outbox setListener(Listener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    public Outbox setReplayDecorator(ReplayDecorator replayDecorator) {
+        this.replayDecorator = replayDecorator;
+        return this;
+    }
+
+    /**
+     * Replaces the headers kept with queued entries; all others are dropped before
+     * the entry is stored. Do not list credential headers: the store is readable by
+     * any script on the origin and outlives the session.
+     */
+    public Outbox setPersistedHeaders(String... names) {
+        persistedHeaders.clear();
+        for (String name : names) {
+            persistedHeaders.add(name.toLowerCase());
+        }
+        return this;
+    }
+
+    public native boolean isOnline() /*-{
+        return $wnd.navigator.onLine !== false;
+    }-*/;
+
+    /**
+     * @return entries waiting to be replayed, including any currently in flight
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public int getReplayedCount() {
+        return replayedCount;
+    }
+
+    /**
+     * @return entries dropped because a later write to the same URL superseded them
+     */
+    public int getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * Queues the request and persists it, then starts a replay if the browser is online.
+     */
+    public OutboxEntry enqueue(PendingRequest request) {
+        String method = request.getMethod().toUpperCase();
+        if ("PUT".equals(method) || "DELETE".equals(method)) {
+            coalesce(request.getUrl());
+        }
+        double id = Math.max(lastId + 1, Duration.currentTimeMillis());
+        lastId = id;
+        OutboxEntry entry = new OutboxEntry(id, method, request.getUrl(), request.getBody(),
+                persisted(request.getHeaders()), request.getCreatedMillis());
+        entries.add(entry);
+        store.put(entry);
+        if (isOnline()) {
+            replay();
+        }
+        return entry;
+    }
+
+    /**
+     * Starts replaying queued entries unless a replay is already running.
+     */
+    public void replay() {
+        if (!loaded || batch != null || entries.isEmpty()) {
+            return;
+        }
+        stalled = false;
+        nextBatch();
+    }
+
+    private void coalesce(String url) {
+        List<OutboxEntry> superseded = new ArrayList<OutboxEntry>();
+        for (OutboxEntry entry : entries) {
+            if (!entry.dispatched && url.equals(entry.getUrl()) && !"POST".equals(entry.getMethod())) {
+                superseded.add(entry);
+            }
+        }
+        if (!superseded.isEmpty()) {
+            entries.removeAll(superseded);
+            store.remove(superseded);
+            coalescedCount += superseded.size();
+        }
+    }
+
+    private Map<String, String> persisted(Map<String, String> headers) {
+        Map<String, String> kept = new LinkedHashMap<String, String>();
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (persistedHeaders.contains(header.getKey().toLowerCase())) {
+                kept.put(header.getKey(), header.getValue());
+            }
+        }
+        return kept;
+    }
+
+    private void onLoaded(List<OutboxEntry> stored) {
+        for (OutboxEntry entry : stored) {
+            lastId = Math.max(lastId, entry.getId());
+        }
+        entries.addAll(0, stored);
+        entries.sort((a, b) -> Double.compare(a.getId(), b.getId()));
+        loaded = true;
+        if (!entries.isEmpty()) {
+            logger.info("Outbox restored " + stored.size() + " queued requests");
+            if (isOnline()) {
+                replay();
+            }
+        }
+    }
+
+    private void nextBatch() {
+        batch = new ArrayList<OutboxEntry>(entries.subList(0, Math.min(batchSize, entries.size())));
+        batchIndex = 0;
+        pump();
+    }
+
+    private void pump() {
+        while (!stalled && inFlight < maxConcurrency && batchIndex < batch.size()) {
+            OutboxEntry entry = batch.get(batchIndex);
+            if (inFlightUrls.contains(entry.getUrl())) {
+                break;
+            }
+            batchIndex++;
+            if (entries.contains(entry)) {
+                dispatch(entry);
+            }
+        }
+        if (inFlight == 0 && (stalled || batchIndex == batch.size())) {
+            endBatch();
+        }
+    }
+
+    private void dispatch(OutboxEntry entry) {
+        entry.dispatched = true;
+        inFlight++;
+        inFlightUrls.add(entry.getUrl());
+        HttpRequestWithBody request = create(entry.getMethod(), entry.getUrl());
+        // Also filters entries stored before the allow-list changed
+        for (Map.Entry<String, String> header : persisted(entry.getHeaders()).entrySet()) {
+            request.header(header.getKey(), header.getValue());
+        }
+        request.header(REPLAY_HEADER, "1");
+        if (entry.getBody() != null) {
+            request.body(entry.getBody());
+        }
+        if (replayDecorator != null) {
+            replayDecorator.decorate(entry, request);
+        }
+        request.asString().then(response -> {
+            int status = response.getStatus();
+            if (status == 0 || status >= 500) {
+                onFailed(entry);
+            } else {
+                onReplayed(entry, response);
+            }
+            return null;
+        }, error -> {
+            onFailed(entry);
+            return null;
+        });
+    }
+
+    private void onReplayed(OutboxEntry entry, HttpResponse<String> response) {
+        inFlight--;
+        inFlightUrls.remove(entry.getUrl());
+        entries.remove(entry);
+        completed.add(entry);
+        replayedCount++;
+        if (listener != null) {
+            listener.onReplayed(entry, response);
+        }
+        pump();
+    }
+
+    private void onFailed(OutboxEntry entry) {
+        inFlight--;
+        inFlightUrls.remove(entry.getUrl());
+        entry.dispatched = false;
+        stalled = true;
+        pump();
+    }
+
+    private void endBatch() {
+        batch = null;
+        store.remove(completed);
+        completed.clear();
+        if (stalled) {
+            scheduleRetry();
+        } else if (!entries.isEmpty()) {
+            Scheduler.get().scheduleDeferred(this::replay);
+        }
+    }
+
+    private void scheduleRetry() {
+        if (retryScheduled) {
+            return;
+        }
+        retryScheduled = true;
+        Scheduler.get().scheduleFixedDelay(() -> {
+            retryScheduled = false;
+            if (isOnline()) {
+                replay();
+            }
+            return false;
+        }, retryDelayMillis);
+    }
+
+    private void onOnline() {
+        replay();
+    }
+
+    private native void listenOnline() /*-{
+        var self = this;
+        $wnd.addEventListener("online", $entry(function() {
+            self.@com.divroll.http.client.outbox.Outbox::onOnline()();
+        }));
+    }-*/;
+
+    private static HttpRequestWithBody create(String method, String url) {
+        switch (method) {
+            case "PUT":
+                return HttpClient.put(url);
+            case "DELETE":
+                return HttpClient.delete(url);
+            case "PATCH":
+                return HttpClient.patch(url);
+            default:
+                return HttpClient.post(url);
+        }
+    }
+}
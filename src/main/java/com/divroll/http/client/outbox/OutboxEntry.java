@@ -0,0 +1,70 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.outbox;
+
+import java.util.Map;
+
+/**
+ * A mutation waiting in the {@link Outbox}. Entries are replayed in ascending
+ * {@link #getId() id} order, which is also the order they were queued in.
+ */
+public final class OutboxEntry {
+    private final double id;
+    private final String method;
+    private final String url;
+    private final String body;
+    private final Map<String, String> headers;
+    private final double createdMillis;
+    boolean dispatched;
+
+    public OutboxEntry(double id, String method, String url, String body, Map<String, String> headers,
+                       double createdMillis) {
+        this.id = id;
+        this.method = method;
+        this.url = url;
+        this.body = body;
+        this.headers = headers;
+        this.createdMillis = createdMillis;
+    }
+
+    public double getId() {
+        return id;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Time the original request was made, in {@code Duration.currentTimeMillis()} units.
+     */
+    public double getCreatedMillis() {
+        return createdMillis;
+    }
+}
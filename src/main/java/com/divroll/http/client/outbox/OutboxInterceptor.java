@@ -0,0 +1,91 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.outbox;
+
+import com.divroll.http.client.Interceptor;
+import com.divroll.http.client.PendingRequest;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.Response;
+
+/**
+ * Routes {@code POST}, {@code PUT}, {@code PATCH} and {@code DELETE} requests
+ * into an {@link Outbox} instead of failing them when the network is
+ * unavailable. A mutation is queued when the browser is offline, when earlier
+ * mutations are still queued (so it cannot overtake them), or when sending it
+ * fails at the network level, which the browser reports as status 0. The
+ * caller then receives a local {@code 202 Accepted} carrying the entry id in
+ * {@code X-Outbox-Id}.
+ *
+ * <p>Errors such as a {@code TimeoutException} or {@code ResponseTooLargeException}
+ * are passed through unchanged, since the server may already have applied the
+ * request and replaying it would apply it twice.
+ */
+public class OutboxInterceptor implements Interceptor {
+    private final Outbox outbox;
+
+    public OutboxInterceptor(Outbox outbox) {
+        this.outbox = outbox;
+    }
+
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    @Override
+    public void intercept(Chain chain) {
+        PendingRequest request = chain.request();
+        if (!isMutation(request.getMethod())) {
+            chain.proceed(chain.callback());
+            return;
+        }
+        if (request.hasHeader(Outbox.REPLAY_HEADER)) {
+            request.removeHeader(Outbox.REPLAY_HEADER);
+            chain.proceed(chain.callback());
+            return;
+        }
+        if (!outbox.isOnline() || outbox.size() > 0) {
+            queue(chain);
+            return;
+        }
+        chain.proceed(new RequestCallback() {
+            @Override
+            public void onResponseReceived(Request req, Response res) {
+                if (res.getStatusCode() == 0) {
+                    queue(chain);
+                } else {
+                    chain.callback().onResponseReceived(req, res);
+                }
+            }
+
+            @Override
+            public void onError(Request req, Throwable exception) {
+                chain.callback().onError(req, exception);
+            }
+        });
+    }
+
+    private void queue(Chain chain) {
+        OutboxEntry entry = outbox.enqueue(chain.request());
+        chain.callback().onResponseReceived(null, new QueuedResponse(entry));
+    }
+
+    private static boolean isMutation(String method) {
+        return "POST".equalsIgnoreCase(method) || "PUT".equalsIgnoreCase(method)
+                || "PATCH".equalsIgnoreCase(method) || "DELETE".equalsIgnoreCase(method);
+    }
+}
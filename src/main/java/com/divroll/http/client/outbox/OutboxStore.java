@@ -0,0 +1,39 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.outbox;
+
+import java.util.List;
+
+/**
+ * Durable storage behind an {@link Outbox}. Calls are fire-and-forget except
+ * {@link #load(LoadCallback)}, which the outbox waits for before replaying.
+ */
+public interface OutboxStore {
+
+    interface LoadCallback {
+        void onLoaded(List<OutboxEntry> entries);
+    }
+
+    void load(LoadCallback callback);
+
+    void put(OutboxEntry entry);
+
+    /**
+     * Removes the entries in one write, so a replayed batch costs a single transaction.
+     */
+    void remove(List<OutboxEntry> entries);
+}
@@ -0,0 +1,75 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.outbox;
+
+import com.google.gwt.http.client.Header;
+import com.google.gwt.http.client.Response;
+
+/**
+ * {@code 202 Accepted} answered locally for a mutation that was put in the outbox.
+ * The entry id is exposed as {@value #ID_HEADER} so callers can correlate
+ * {@link Outbox.Listener#onReplayed} notifications.
+ */
+class QueuedResponse extends Response {
+    static final String ID_HEADER = "X-Outbox-Id";
+
+    private final String id;
+
+    QueuedResponse(OutboxEntry entry) {
+        this.id = String.valueOf((long) entry.getId());
+    }
+
+    @Override
+    public String getHeader(String header) {
+        return ID_HEADER.equalsIgnoreCase(header) ? id : null;
+    }
+
+    @Override
+    public Header[] getHeaders() {
+        return new Header[] {new Header() {
+            @Override
+            public String getName() {
+                return ID_HEADER;
+            }
+
+            @Override
+            public String getValue() {
+                return id;
+            }
+        }};
+    }
+
+    @Override
+    public String getHeadersAsString() {
+        return ID_HEADER + ": " + id + "\r\n";
+    }
+
+    @Override
+    public int getStatusCode() {
+        return 202;
+    }
+
+    @Override
+    public String getStatusText() {
+        return "Accepted";
+    }
+
+    @Override
+    public String getText() {
+        return "";
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.priority;
+
+import com.divroll.http.client.Interceptor;
+import com.divroll.http.client.Priority;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Schedules requests by {@link Priority}. {@code HIGH} and {@code AUTO}
+ * requests are sent immediately. {@code LOW} requests wait while a
+ * {@code HIGH} request is in flight. {@code BACKGROUND} requests wait until
+ * no other request is in flight or waiting and the page is idle
+ * ({@code requestIdleCallback}), or at most {@code maxBackgroundDelayMillis}.
+ * They are not started while the tab is hidden.
+ *
+ * <p>Register it first so that later interceptors only see requests when they are actually sent.
+ */
+public class PriorityInterceptor implements Interceptor {
+    private final List<Chain> low = new ArrayList<Chain>();
+    private final List<Chain> background = new ArrayList<Chain>();
+    private final List<Double> backgroundQueuedAt = new ArrayList<Double>();
+    private int maxBackgroundInFlight = 2;
+    private int maxBackgroundDelayMillis = 10000;
+    private int highInFlight;
+    private int interactiveInFlight;
+    private int backgroundInFlight;
+    private boolean hidden;
+    private boolean idleScheduled;
+    private boolean timerScheduled;
+
+    public PriorityInterceptor() {
+        hidden = isDocumentHidden();
+        listenVisibility();
+    }
+
+    public PriorityInterceptor setMaxBackgroundInFlight(int maxBackgroundInFlight) {
+        this.maxBackgroundInFlight = Math.max(1, maxBackgroundInFlight);
+        return this;
+    }
+
+    /**
+     * Longest a background request waits for interactive traffic to drain while the tab is visible.
+     */
+    public PriorityInterceptor setMaxBackgroundDelayMillis(int maxBackgroundDelayMillis) {
+        this.maxBackgroundDelayMillis = maxBackgroundDelayMillis;
+        return this;
+    }
+
+    public int getQueuedCount(Priority priority) {
+        switch (priority) {
+            case LOW:
+                return low.size();
+            case BACKGROUND:
+                return background.size();
+            default:
+                return 0;
+        }
+    }
+
+    @Override
+    public void intercept(Chain chain) {
+        Priority priority = chain.request().getPriority();
+        if (priority == Priority.BACKGROUND) {
+            background.add(chain);
+            backgroundQueuedAt.add(Duration.currentTimeMillis());
+            pump();
+        } else if (priority == Priority.LOW && highInFlight > 0) {
+            low.add(chain);
+        } else {
+            send(chain, priority);
+        }
+    }
+
+    private void send(Chain chain, Priority priority) {
+        if (priority == Priority.BACKGROUND) {
+            backgroundInFlight++;
+        } else {
+            interactiveInFlight++;
+            if (priority == Priority.HIGH) {
+                highInFlight++;
+            }
+        }
+        RequestCallback callback = chain.callback();
+        chain.proceed(new RequestCallback() {
+            @Override
+            public void onResponseReceived(Request req, Response res) {
+                done(priority);
+                callback.onResponseReceived(req, res);
+            }
+
+            @Override
+            public void onError(Request req, Throwable exception) {
+                done(priority);
+                callback.onError(req, exception);
+            }
+        });
+    }
+
+    private void done(Priority priority) {
+        if (priority == Priority.BACKGROUND) {
+            backgroundInFlight--;
+        } else {
+            interactiveInFlight--;
+            if (priority == Priority.HIGH) {
+                highInFlight--;
+            }
+        }
+        pump();
+    }
+
+    private void pump() {
+        if (highInFlight == 0) {
+            while (!low.isEmpty()) {
+                send(low.remove(0), Priority.LOW);
+            }
+        }
+        if (background.isEmpty() || hidden || backgroundInFlight >= maxBackgroundInFlight) {
+            return;
+        }
+        if (interactiveInFlight == 0) {
+            if (!idleScheduled) {
+                idleScheduled = true;
+                requestIdle();
+            }
+        } else if (!timerScheduled) {
+            timerScheduled = true;
+            double waited = Duration.currentTimeMillis() - backgroundQueuedAt.get(0);
+            Scheduler.get().scheduleFixedDelay(() -> {
+                timerScheduled = false;
+                releaseBackground(true);
+                return false;
+            }, (int) Math.max(0, maxBackgroundDelayMillis - waited));
+        }
+    }
+
+    private void onIdle() {
+        idleScheduled = false;
+        releaseBackground(false);
+    }
+
+    private void releaseBackground(boolean deadline) {
+        double now = Duration.currentTimeMillis();
+        while (!hidden && !background.isEmpty() && backgroundInFlight < maxBackgroundInFlight) {
+            boolean overdue = deadline && now - backgroundQueuedAt.get(0) >= maxBackgroundDelayMillis;
+            if (interactiveInFlight > 0 && !overdue) {
+                break;
+            }
+            backgroundQueuedAt.remove(0);
+            send(background.remove(0), Priority.BACKGROUND);
+        }
+        pump();
+    }
+
+    /**
+     * Pauses or resumes background requests after the tab was hidden or shown.
+     */
+    protected void onVisibilityChange() {
+        hidden = isDocumentHidden();
+        pump();
+    }
+
+    protected native boolean isDocumentHidden() /*-{
+        return $doc.visibilityState === "hidden";
+    }-*/;
+
+    private native void listenVisibility() /*-{
+        var self = this;
+        $doc.addEventListener("visibilitychange", $entry(function() {
+            self.@com.divroll.http.client.priority.PriorityInterceptor::onVisibilityChange()();
+        }));
+    }-*/;
+
+    private native void requestIdle() /*-{
+        var self = this;
+        var run = $entry(function() {
+            self.@com.divroll.http.client.priority.PriorityInterceptor::onIdle()();
+        });
+        if ($wnd.requestIdleCallback) {
+            $wnd.requestIdleCallback(run, {timeout: 1000});
+        } else {
+            $wnd.setTimeout(run, 50);
+        }
+    }-*/;
+}
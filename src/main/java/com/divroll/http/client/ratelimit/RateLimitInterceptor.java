@@ -0,0 +1,253 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.ratelimit;
+
+import com.divroll.http.client.Interceptor;
+import com.divroll.http.client.PendingRequest;
+import com.divroll.http.client.metrics.HistogramSnapshot;
+import com.divroll.http.client.metrics.LatencyHistogram;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.Response;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Smooths requests to stay under a server's quota instead of running into 429s.
+ * Each endpoint group (by default the url's origin) has a {@link TokenBucket};
+ * requests that find it empty are held, in order, until a permit is available.
+ * The bucket follows {@code RateLimit-Remaining}/{@code RateLimit-Reset} (or
+ * the {@code X-RateLimit-} variants) and {@code Retry-After} on 429 responses.
+ * How long requests were held is recorded per group.
+ *
+ * <pre>
+ * HttpClient.addInterceptor(new RateLimitInterceptor(10, 20)
+ *         .setGroupLimit("https://search.example.com", 2, 5));
+ * </pre>
+ */
+public class RateLimitInterceptor implements Interceptor {
+
+    public interface GroupResolver {
+        String group(PendingRequest request);
+    }
+
+    private final double permitsPerSecond;
+    private final int burst;
+    private final Map<String, Group> groups = new HashMap<String, Group>();
+    private GroupResolver resolver = RateLimitInterceptor::origin;
+
+    /**
+     * @param permitsPerSecond sustained rate for each group
+     * @param burst            requests a group may send at once after being idle
+     */
+    public RateLimitInterceptor(double permitsPerSecond, int burst) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+    }
+
+    public RateLimitInterceptor setGroupResolver(GroupResolver resolver) {
+        this.resolver = resolver;
+        return this;
+    }
+
+    /**
+     * Overrides the rate and burst for one group.
+     */
+    public RateLimitInterceptor setGroupLimit(String group, double permitsPerSecond, int burst) {
+        groups.put(group, new Group(new TokenBucket(permitsPerSecond, burst, Duration.currentTimeMillis())));
+        return this;
+    }
+
+    /**
+     * @return how long requests of the group were held, including those sent immediately,
+     *         or null if the group has seen no requests
+     */
+    public HistogramSnapshot getHoldTimes(String group) {
+        Group g = groups.get(group);
+        return g != null ? g.holdTimes.snapshot() : null;
+    }
+
+    /**
+     * @return requests of the group currently waiting for a permit
+     */
+    public int getQueuedCount(String group) {
+        Group g = groups.get(group);
+        return g != null ? g.queue.size() : 0;
+    }
+
+    public TokenBucket getBucket(String group) {
+        Group g = groups.get(group);
+        return g != null ? g.bucket : null;
+    }
+
+    @Override
+    public void intercept(Chain chain) {
+        String key = resolver.group(chain.request());
+        Group group = groups.get(key);
+        if (group == null) {
+            group = new Group(new TokenBucket(permitsPerSecond, burst, Duration.currentTimeMillis()));
+            groups.put(key, group);
+        }
+        group.acquire(chain);
+    }
+
+    /**
+     * @return scheme, host and port of an absolute url, or "" for a relative one
+     */
+    static String origin(PendingRequest request) {
+        String url = request.getUrl();
+        int scheme = url.indexOf("://");
+        if (scheme < 0) {
+            return "";
+        }
+        int path = url.indexOf('/', scheme + 3);
+        return path < 0 ? url : url.substring(0, path);
+    }
+
+    private static final class Group {
+        private final TokenBucket bucket;
+        private final LatencyHistogram holdTimes = new LatencyHistogram();
+        private final List<Chain> queue = new ArrayList<Chain>();
+        private final List<Double> queuedAt = new ArrayList<Double>();
+        private boolean scheduled;
+
+        Group(TokenBucket bucket) {
+            this.bucket = bucket;
+        }
+
+        void acquire(Chain chain) {
+            double now = Duration.currentTimeMillis();
+            if (queue.isEmpty()) {
+                double wait = bucket.tryTake(now);
+                if (wait == 0) {
+                    holdTimes.record(0);
+                    proceed(chain);
+                    return;
+                }
+                schedule(wait);
+            }
+            queue.add(chain);
+            queuedAt.add(now);
+        }
+
+        private void drain() {
+            scheduled = false;
+            while (!queue.isEmpty()) {
+                double now = Duration.currentTimeMillis();
+                double wait = bucket.tryTake(now);
+                if (wait > 0) {
+                    schedule(wait);
+                    return;
+                }
+                holdTimes.record(now - queuedAt.remove(0));
+                proceed(queue.remove(0));
+            }
+        }
+
+        private void schedule(double wait) {
+            if (!scheduled) {
+                scheduled = true;
+                Scheduler.get().scheduleFixedDelay(() -> {
+                    drain();
+                    return false;
+                }, (int) Math.ceil(wait));
+            }
+        }
+
+        private void proceed(Chain chain) {
+            RequestCallback callback = chain.callback();
+            chain.proceed(new RequestCallback() {
+                @Override
+                public void onResponseReceived(Request req, Response res) {
+                    update(res);
+                    callback.onResponseReceived(req, res);
+                }
+
+                @Override
+                public void onError(Request req, Throwable exception) {
+                    callback.onError(req, exception);
+                }
+            });
+        }
+
+        private void update(Response res) {
+            double now = Duration.currentTimeMillis();
+            if (res.getStatusCode() == 429) {
+                double retryAfter = retryAfterMillis(res.getHeader("Retry-After"), now);
+                if (retryAfter > 0) {
+                    bucket.block(now + retryAfter, now);
+                }
+            }
+            String remaining = header(res, "RateLimit-Remaining", "X-RateLimit-Remaining");
+            if (remaining != null) {
+                double value = parse(remaining);
+                if (!Double.isNaN(value)) {
+                    bucket.limit(value, resetMillis(header(res, "RateLimit-Reset", "X-RateLimit-Reset"), now), now);
+                }
+            }
+        }
+    }
+
+    private static String header(Response res, String name, String fallback) {
+        String value = res.getHeader(name);
+        return value != null && !value.isEmpty() ? value : res.getHeader(fallback);
+    }
+
+    /**
+     * Reset is delta-seconds per the IETF draft; values that look like a Unix
+     * timestamp (as sent by GitHub-style {@code X-RateLimit-Reset}) are converted.
+     */
+    static double resetMillis(String value, double now) {
+        double seconds = parse(value);
+        if (Double.isNaN(seconds)) {
+            return 0;
+        }
+        return seconds > 1e9 ? Math.max(0, seconds * 1000 - now) : seconds * 1000;
+    }
+
+    static double retryAfterMillis(String value, double now) {
+        if (value == null) {
+            return 0;
+        }
+        double seconds = parse(value);
+        if (!Double.isNaN(seconds)) {
+            return seconds * 1000;
+        }
+        double date = parseDate(value);
+        return Double.isNaN(date) ? 0 : Math.max(0, date - now);
+    }
+
+    private static double parse(String value) {
+        if (value == null) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static native double parseDate(String value) /*-{
+        return Date.parse(value);
+    }-*/;
+}
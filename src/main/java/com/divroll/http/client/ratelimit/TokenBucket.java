@@ -0,0 +1,109 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.ratelimit;
+
+/**
+ * Token bucket holding up to {@code burst} permits, refilled at a steady rate.
+ * The rate can be lowered for a while, or the bucket blocked entirely, when the
+ * server reports how much of its quota is left.
+ */
+public class TokenBucket {
+    private final double capacity;
+    private final double baseRatePerMillis;
+    private double ratePerMillis;
+    private double tokens;
+    private double lastRefill;
+    private double overrideUntil;
+    private double blockedUntil;
+
+    public TokenBucket(double permitsPerSecond, int burst, double now) {
+        this.capacity = Math.max(1, burst);
+        this.baseRatePerMillis = permitsPerSecond / 1000;
+        this.ratePerMillis = baseRatePerMillis;
+        this.tokens = capacity;
+        this.lastRefill = now;
+    }
+
+    /**
+     * Takes a permit if one is available.
+     * @return 0 if a permit was taken, otherwise the millis until one will be
+     */
+    public double tryTake(double now) {
+        refill(now);
+        if (now < blockedUntil) {
+            return blockedUntil - now;
+        }
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (1 - tokens) / ratePerMillis);
+    }
+
+    /**
+     * Applies the server's view of the quota: no more than {@code remaining}
+     * permits until the window resets in {@code resetMillis}. With nothing
+     * remaining the bucket is blocked until the reset; otherwise the remaining
+     * permits are spread evenly over the window.
+     */
+    public void limit(double remaining, double resetMillis, double now) {
+        refill(now);
+        tokens = Math.min(tokens, Math.max(0, remaining));
+        if (resetMillis <= 0) {
+            return;
+        }
+        if (remaining <= 0) {
+            block(now + resetMillis, now);
+        } else {
+            ratePerMillis = Math.min(baseRatePerMillis, remaining / resetMillis);
+            overrideUntil = now + resetMillis;
+        }
+    }
+
+    /**
+     * Hands out no permits before {@code until}, e.g. after a 429 with {@code Retry-After}.
+     */
+    public void block(double until, double now) {
+        refill(now);
+        tokens = 0;
+        blockedUntil = Math.max(blockedUntil, until);
+    }
+
+    public double getTokens(double now) {
+        refill(now);
+        return tokens;
+    }
+
+    /**
+     * @return the current refill rate in permits per second
+     */
+    public double getPermitsPerSecond() {
+        return ratePerMillis * 1000;
+    }
+
+    private void refill(double now) {
+        if (overrideUntil > 0 && now >= overrideUntil) {
+            ratePerMillis = baseRatePerMillis;
+            overrideUntil = 0;
+        }
+        double from = Math.max(lastRefill, blockedUntil);
+        if (now > from) {
+            tokens = Math.min(capacity, tokens + (now - from) * ratePerMillis);
+        }
+        lastRefill = Math.max(lastRefill, now);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.tracing;
+
+import com.google.gwt.core.client.Scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffers finished spans and hands them to the {@link SpanExporter} in batches,
+ * either when {@code maxBatchSize} spans are waiting or {@code delayMillis}
+ * after the first span of a batch. Spans beyond {@code maxQueueSize} are
+ * dropped and counted rather than exported one request per span.
+ */
+public class BatchSpanProcessor {
+    private final SpanExporter exporter;
+    private final int maxBatchSize;
+    private final int maxQueueSize;
+    private final int delayMillis;
+    private List<Span> queue = new ArrayList<Span>();
+    private boolean scheduled;
+    private int dropped;
+
+    public BatchSpanProcessor(SpanExporter exporter) {
+        this(exporter, 64, 2048, 5000);
+    }
+
+    public BatchSpanProcessor(SpanExporter exporter, int maxBatchSize, int maxQueueSize, int delayMillis) {
+        this.exporter = exporter;
+        this.maxBatchSize = maxBatchSize;
+        this.maxQueueSize = maxQueueSize;
+        this.delayMillis = delayMillis;
+    }
+
+    public void onEnd(Span span) {
+        if (queue.size() >= maxQueueSize) {
+            dropped++;
+            return;
+        }
+        queue.add(span);
+        if (queue.size() >= maxBatchSize) {
+            flush();
+        } else if (!scheduled) {
+            scheduled = true;
+            Scheduler.get().scheduleFixedDelay(() -> {
+                if (scheduled) {
+                    flush();
+                }
+                return false;
+            }, delayMillis);
+        }
+    }
+
+    /**
+     * Exports everything queued so far, e.g. from a {@code pagehide} handler.
+     */
+    public void flush() {
+        scheduled = false;
+        while (!queue.isEmpty()) {
+            List<Span> batch;
+            if (queue.size() <= maxBatchSize) {
+                batch = queue;
+                queue = new ArrayList<Span>();
+            } else {
+                batch = new ArrayList<Span>(queue.subList(0, maxBatchSize));
+                queue.subList(0, maxBatchSize).clear();
+            }
+            exporter.export(batch);
+        }
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    public int getDroppedCount() {
+        return dropped;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.tracing;
+
+import com.divroll.http.client.HttpClient;
+import com.divroll.http.client.RequestTemplate;
+import com.google.gwt.core.client.JsonUtils;
+
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Posts each batch of spans as one JSON array to a collector url. Exclude the
+ * collector from tracing with {@link TracingInterceptor#ignoreUrlPrefix(String)}.
+ */
+public class JsonSpanExporter implements SpanExporter {
+    private static final Logger logger = Logger.getLogger(JsonSpanExporter.class.getName());
+
+    private final RequestTemplate collector;
+
+    public JsonSpanExporter(String url) {
+        this.collector = HttpClient.template("POST", url)
+                .header("Content-Type", "application/json")
+                .build();
+    }
+
+    @Override
+    public void export(List<Span> spans) {
+        collector.newCall()
+                .body(toJson(spans))
+                .asString()
+                .then(response -> null, error -> {
+                    logger.log(Level.FINE, "Span export failed: " + error);
+                    return null;
+                });
+    }
+
+    static String toJson(List<Span> spans) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < spans.size(); i++) {
+            Span span = spans.get(i);
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"traceId\":\"").append(span.getTraceId())
+                    .append("\",\"spanId\":\"").append(span.getSpanId())
+                    .append("\",\"name\":").append(JsonUtils.escapeValue(span.getName()))
+                    .append(",\"url\":").append(JsonUtils.escapeValue(span.getUrl()))
+                    .append(",\"start\":").append(span.getStartMillis())
+                    .append(",\"end\":").append(span.getEndMillis())
+                    .append(",\"status\":").append(span.getStatus())
+                    .append(",\"queue\":").append(span.getQueueMillis())
+                    .append(",\"network\":").append(span.getNetworkMillis())
+                    .append(",\"parse\":").append(span.getParseMillis())
+                    .append(",\"callback\":").append(span.getCallbackMillis());
+            if (span.getError() != null) {
+                sb.append(",\"error\":").append(JsonUtils.escapeValue(span.getError()));
+            }
+            sb.append('}');
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.tracing;
+
+import com.divroll.http.client.PendingRequest;
+
+/**
+ * Decides whether a request is recorded as a span. Unsampled requests still
+ * carry a {@code traceparent} header with the sampled flag cleared.
+ */
+public interface Sampler {
+
+    boolean shouldSample(PendingRequest request);
+
+    static Sampler always() {
+        return request -> true;
+    }
+
+    static Sampler never() {
+        return request -> false;
+    }
+
+    /**
+     * @param ratio fraction of requests to sample, between 0 and 1
+     */
+    static Sampler ratio(double ratio) {
+        if (ratio >= 1) {
+            return always();
+        }
+        if (ratio <= 0) {
+            return never();
+        }
+        return request -> Math.random() < ratio;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.tracing;
+
+/**
+ * Client-side span for one request. Times are in milliseconds since the epoch;
+ * phase durations are -1 when the phase did not happen.
+ */
+public class Span {
+    private final String traceId;
+    private final String spanId;
+    private final String name;
+    private final String method;
+    private final String url;
+    private final double startMillis;
+    private double endMillis;
+    private int status;
+    private String error;
+    private double queueMillis = -1;
+    private double networkMillis = -1;
+    private double parseMillis = -1;
+    private double callbackMillis = -1;
+
+    Span(String traceId, String spanId, String name, String method, String url, double startMillis) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.name = name;
+        this.method = method;
+        this.url = url;
+        this.startMillis = startMillis;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public double getStartMillis() {
+        return startMillis;
+    }
+
+    public double getEndMillis() {
+        return endMillis;
+    }
+
+    void setEndMillis(double endMillis) {
+        this.endMillis = endMillis;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    void setStatus(int status) {
+        this.status = status;
+    }
+
+    /**
+     * @return the transport error message, or null if a response was received
+     */
+    public String getError() {
+        return error;
+    }
+
+    void setError(String error) {
+        this.error = error;
+    }
+
+    public double getQueueMillis() {
+        return queueMillis;
+    }
+
+    void setQueueMillis(double queueMillis) {
+        this.queueMillis = queueMillis;
+    }
+
+    public double getNetworkMillis() {
+        return networkMillis;
+    }
+
+    void setNetworkMillis(double networkMillis) {
+        this.networkMillis = networkMillis;
+    }
+
+    /**
+     * Only set if the body was parsed before the span was exported.
+     */
+    public double getParseMillis() {
+        return parseMillis;
+    }
+
+    void setParseMillis(double parseMillis) {
+        this.parseMillis = parseMillis;
+    }
+
+    public double getCallbackMillis() {
+        return callbackMillis;
+    }
+
+    void setCallbackMillis(double callbackMillis) {
+        this.callbackMillis = callbackMillis;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.tracing;
+
+/**
+ * W3C Trace Context identifiers and {@code traceparent} parsing and formatting.
+ */
+public final class TraceContext {
+    public static final String TRACEPARENT = "traceparent";
+
+    private final String traceId;
+    private final String spanId;
+    private final boolean sampled;
+
+    private TraceContext(String traceId, String spanId, boolean sampled) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.sampled = sampled;
+    }
+
+    /**
+     * @return 32 lowercase hex characters
+     */
+    public static String newTraceId() {
+        return randomHex(16);
+    }
+
+    /**
+     * @return 16 lowercase hex characters
+     */
+    public static String newSpanId() {
+        return randomHex(8);
+    }
+
+    public static String traceparent(String traceId, String spanId, boolean sampled) {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    /**
+     * Parses a {@code traceparent} header. Fields appended by versions after
+     * {@code 00} are ignored.
+     * @return null if the header is malformed, has version {@code ff} or an all-zero id
+     */
+    public static TraceContext parse(String traceparent) {
+        if (traceparent == null) {
+            return null;
+        }
+        String value = traceparent.trim();
+        if (value.length() < 55 || value.charAt(2) != '-' || value.charAt(35) != '-' || value.charAt(52) != '-') {
+            return null;
+        }
+        String version = value.substring(0, 2);
+        String traceId = value.substring(3, 35);
+        String spanId = value.substring(36, 52);
+        String flags = value.substring(53, 55);
+        if (!isHex(version) || "ff".equals(version) || !isHex(traceId) || !isHex(spanId) || !isHex(flags)) {
+            return null;
+        }
+        if (value.length() > 55 && ("00".equals(version) || value.charAt(55) != '-')) {
+            return null;
+        }
+        if (isZero(traceId) || isZero(spanId)) {
+            return null;
+        }
+        return new TraceContext(traceId, spanId, (Integer.parseInt(flags, 16) & 1) != 0);
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    /**
+     * @return the version {@code 00} header for this context
+     */
+    public String toTraceparent() {
+        return traceparent(traceId, spanId, sampled);
+    }
+
+    private static boolean isHex(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isZero(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static native String randomHex(int bytes) /*-{
+        var buf = new Uint8Array(bytes);
+        var crypto = $wnd.crypto || $wnd.msCrypto;
+        var i;
+        if (crypto && crypto.getRandomValues) {
+            crypto.getRandomValues(buf);
+        } else {
+            for (i = 0; i < bytes; i++) {
+                buf[i] = Math.floor(Math.random() * 256);
+            }
+        }
+        // An all-zero id is invalid per the spec
+        buf[bytes - 1] |= 1;
+        var out = "";
+        for (i = 0; i < bytes; i++) {
+            out += (buf[i] < 16 ? "0" : "") + buf[i].toString(16);
+        }
+        return out;
+    }-*/;
+}
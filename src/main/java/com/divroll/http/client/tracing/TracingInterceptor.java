@@ -0,0 +1,184 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client.tracing;
+
+import com.divroll.http.client.Interceptor;
+import com.divroll.http.client.ParseObserver;
+import com.divroll.http.client.PendingRequest;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adds a W3C {@code traceparent} header to requests and, for sampled
+ * requests, records a client-side {@link Span} with queue, network, parse and
+ * callback timings. Requests that already carry a valid {@code traceparent}
+ * are left alone, as are urls under an ignored prefix such as the span
+ * collector; a malformed header is replaced.
+ *
+ * <p>The header is only sent to the page's own origin and to origins added
+ * with {@link #propagateTo}: a custom header makes a cross-origin request
+ * need a CORS preflight, which fails on hosts that do not allow it. Requests
+ * to other origins are still recorded as spans.
+ *
+ * <pre>
+ * BatchSpanProcessor spans = new BatchSpanProcessor(new JsonSpanExporter("/collector/spans"));
+ * HttpClient.addInterceptor(new TracingInterceptor(Sampler.ratio(0.1), spans)
+ *         .ignoreUrlPrefix("/collector/"));
+ * </pre>
+ */
+public class TracingInterceptor implements Interceptor {
+    private final Sampler sampler;
+    private final BatchSpanProcessor processor;
+    private final List<String> ignoredPrefixes = new ArrayList<String>();
+    private final List<String> propagationOrigins = new ArrayList<String>();
+    private String pageOrigin;
+
+    public TracingInterceptor(Sampler sampler, BatchSpanProcessor processor) {
+        this.sampler = sampler;
+        this.processor = processor;
+    }
+
+    public TracingInterceptor ignoreUrlPrefix(String prefix) {
+        ignoredPrefixes.add(prefix);
+        return this;
+    }
+
+    /**
+     * Also sends {@code traceparent} to {@code origin}, e.g. {@code https://api.example.com};
+     * the server must allow the header in its CORS configuration.
+     */
+    public TracingInterceptor propagateTo(String origin) {
+        propagationOrigins.add(originOf(origin));
+        return this;
+    }
+
+    @Override
+    public void intercept(Chain chain) {
+        PendingRequest request = chain.request();
+        if (TraceContext.parse(request.getHeader(TraceContext.TRACEPARENT)) != null
+                || isIgnored(request.getUrl())) {
+            chain.proceed(chain.callback());
+            return;
+        }
+        String traceId = TraceContext.newTraceId();
+        String spanId = TraceContext.newSpanId();
+        boolean sampled = sampler.shouldSample(request);
+        if (isPropagated(request.getUrl())) {
+            request.setHeader(TraceContext.TRACEPARENT, TraceContext.traceparent(traceId, spanId, sampled));
+        } else {
+            request.removeHeader(TraceContext.TRACEPARENT);
+        }
+        if (!sampled) {
+            chain.proceed(chain.callback());
+            return;
+        }
+        Span span = new Span(traceId, spanId, request.getMethod() + " " + request.getEndpoint(),
+                request.getMethod(), request.getUrl(), request.getCreatedMillis());
+        SpanCallback callback = new SpanCallback(request, span, chain.callback());
+        request.addParseObserver(callback);
+        chain.proceed(callback);
+    }
+
+    private boolean isIgnored(String url) {
+        for (String prefix : ignoredPrefixes) {
+            if (url.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isPropagated(String url) {
+        if (pageOrigin == null) {
+            pageOrigin = originOf("");
+        }
+        String origin = originOf(url);
+        return origin != null && (origin.equals(pageOrigin) || propagationOrigins.contains(origin));
+    }
+
+    /**
+     * @return the origin of {@code url} resolved against the page, or null if it is not a valid url
+     */
+    private static native String originOf(String url) /*-{
+        try {
+            return new $wnd.URL(url, $doc.baseURI).origin;
+        } catch (e) {
+            return null;
+        }
+    }-*/;
+
+    private class SpanCallback implements RequestCallback, ParseObserver {
+        private final PendingRequest request;
+        private final Span span;
+        private final RequestCallback callback;
+
+        SpanCallback(PendingRequest request, Span span, RequestCallback callback) {
+            this.request = request;
+            this.span = span;
+            this.callback = callback;
+        }
+
+        @Override
+        public void onResponseReceived(Request req, Response res) {
+            double received = Duration.currentTimeMillis();
+            span.setStatus(res.getStatusCode());
+            recordNetwork(received);
+            try {
+                callback.onResponseReceived(req, res);
+            } finally {
+                end(received);
+            }
+        }
+
+        @Override
+        public void onError(Request req, Throwable exception) {
+            double received = Duration.currentTimeMillis();
+            span.setError(String.valueOf(exception.getMessage()));
+            recordNetwork(received);
+            try {
+                callback.onError(req, exception);
+            } finally {
+                end(received);
+            }
+        }
+
+        @Override
+        public void onParsed(PendingRequest request, double parseMillis) {
+            span.setParseMillis(parseMillis);
+        }
+
+        private void recordNetwork(double received) {
+            double sent = request.getSentMillis();
+            if (sent > 0) {
+                span.setQueueMillis(sent - request.getCreatedMillis());
+                span.setNetworkMillis(received - sent);
+            }
+        }
+
+        private void end(double received) {
+            double now = Duration.currentTimeMillis();
+            span.setCallbackMillis(now - received);
+            span.setEndMillis(now);
+            processor.onEnd(span);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.guava;
+
+import com.divroll.http.client.HttpRequest;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multimap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Guava {@link Multimap} interop for request headers. Part of the optional
+ * {@code com.divroll.http.HttpClientGuava} module.
+ */
+public final class GuavaHeaders {
+
+    private GuavaHeaders() {
+    }
+
+    /**
+     * @return a copy of the request's headers
+     */
+    public static ListMultimap<String, String> asMultimap(HttpRequest request) {
+        ListMultimap<String, String> result = ArrayListMultimap.create();
+        for (Map.Entry<String, List<String>> entry : request.getHeaders().entrySet()) {
+            result.putAll(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    public static void putAll(HttpRequest request, Multimap<String, String> headers) {
+        Map<String, List<String>> target = request.getHeaders();
+        for (Map.Entry<String, String> entry : headers.entries()) {
+            List<String> values = target.get(entry.getKey());
+            if (values == null) {
+                values = new ArrayList<String>(1);
+                target.put(entry.getKey(), values);
+            }
+            values.add(entry.getValue());
+        }
+    }
+}
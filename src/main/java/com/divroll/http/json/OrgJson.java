@@ -0,0 +1,90 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.json;
+
+import com.divroll.http.client.JsonNode;
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.RunAsyncCallback;
+import elemental2.promise.Promise;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * {@code org.json} views of a {@link JsonNode}. Part of the optional
+ * {@code com.divroll.http.HttpClientJson} module so the core client does not
+ * pull in {@code org.json} or GWT's JSON module. The {@code ...Async} variants
+ * keep {@code org.json} behind a split point for applications that only need
+ * it on some screens.
+ */
+public final class OrgJson {
+
+    private OrgJson() {
+    }
+
+    /**
+     * @return the node as a JSONObject, or null if the node is an array
+     */
+    public static JSONObject object(JsonNode node) {
+        if (node == null || node.isArray()) {
+            return null;
+        }
+        return new JSONObject(new com.google.gwt.json.client.JSONObject(node.getJavaScriptObject()));
+    }
+
+    /**
+     * @return the node as a JSONArray; an object node is returned as a one-element array
+     */
+    public static JSONArray array(JsonNode node) {
+        if (node == null) {
+            return null;
+        }
+        if (node.isArray()) {
+            return new JSONArray(new com.google.gwt.json.client.JSONArray(node.getJavaScriptObject()));
+        }
+        JSONArray result = new JSONArray();
+        result.put(object(node));
+        return result;
+    }
+
+    public static Promise<JSONObject> objectAsync(JsonNode node) {
+        return new Promise<JSONObject>((resolve, reject) -> GWT.runAsync(OrgJson.class, new RunAsyncCallback() {
+            @Override
+            public void onFailure(Throwable reason) {
+                reject.onInvoke(reason.getMessage());
+            }
+
+            @Override
+            public void onSuccess() {
+                resolve.onInvoke(object(node));
+            }
+        }));
+    }
+
+    public static Promise<JSONArray> arrayAsync(JsonNode node) {
+        return new Promise<JSONArray>((resolve, reject) -> GWT.runAsync(OrgJson.class, new RunAsyncCallback() {
+            @Override
+            public void onFailure(Throwable reason) {
+                reject.onInvoke(reason.getMessage());
+            }
+
+            @Override
+            public void onSuccess() {
+                resolve.onInvoke(array(node));
+            }
+        }));
+    }
+}
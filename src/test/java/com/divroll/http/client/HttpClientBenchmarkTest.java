@@ -0,0 +1,201 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import com.divroll.http.client.metrics.LatencyHistogram;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.junit.client.GWTTestCase;
+import elemental2.promise.Promise;
+
+import java.util.logging.Logger;
+
+/**
+ * In-browser performance regression suite. Requests go to the shaping servlet
+ * declared in {@code HttpClientBenchmark.gwt.xml}, so latency, bandwidth, payload
+ * size and error rate are controlled locally instead of depending on a public API.
+ * Each scenario stores its results under {@code target/benchmark-results} and fails
+ * when it regresses past {@code benchmark-baselines.json}.
+ *
+ * <p>Excluded from the default test run; use {@code mvn test -Pbrowser-bench}.
+ */
+public class HttpClientBenchmarkTest extends GWTTestCase {
+    static final Logger logger = Logger.getLogger(HttpClientBenchmarkTest.class.getName());
+
+    private static final double DEFAULT_TOLERANCE = 0.25;
+
+    @Override
+    public String getModuleName() {
+        return "com.divroll.http.HttpClientBenchmark";
+    }
+
+    public void testConcurrentGets() {
+        new Scenario("concurrentGets", 500, 500, "latency=20&size=512").run(120000);
+    }
+
+    public void testLargeJson() {
+        new Scenario("largeJson", 1, 1, "size=" + (20 * 1024 * 1024)).json().run(300000);
+    }
+
+    public void testShapedBandwidth() {
+        new Scenario("shapedBandwidth", 20, 6, "latency=50&size=262144&kbps=2048").run(120000);
+    }
+
+    public void testErrorRate() {
+        new Scenario("errorRate", 200, 50, "latency=10&size=1024&errorRate=0.2").allowErrors().run(120000);
+    }
+
+    private static String benchUrl(String query) {
+        return GWT.getModuleBaseURL() + "bench?" + query;
+    }
+
+    private static native double usedHeapBytes() /*-{
+        var memory = $wnd.performance && $wnd.performance.memory;
+        return memory ? memory.usedJSHeapSize : -1;
+    }-*/;
+
+    /**
+     * Issues {@code total} GETs with at most {@code concurrency} in flight and
+     * records per-request latency from send to resolution.
+     */
+    private class Scenario {
+        private final String name;
+        private final int total;
+        private final int concurrency;
+        private final String query;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private boolean json;
+        private boolean allowErrors;
+        private int started;
+        private int completed;
+        private int errors;
+        private double startMillis;
+        private double heapBefore;
+
+        Scenario(String name, int total, int concurrency, String query) {
+            this.name = name;
+            this.total = total;
+            this.concurrency = concurrency;
+            this.query = query;
+        }
+
+        Scenario json() {
+            json = true;
+            return this;
+        }
+
+        Scenario allowErrors() {
+            allowErrors = true;
+            return this;
+        }
+
+        void run(int timeoutMillis) {
+            delayTestFinish(timeoutMillis);
+            heapBefore = usedHeapBytes();
+            startMillis = Duration.currentTimeMillis();
+            for (int i = 0; i < concurrency && i < total; i++) {
+                next();
+            }
+        }
+
+        private void next() {
+            final double sent = Duration.currentTimeMillis();
+            final int id = started++;
+            String url = benchUrl(query + "&n=" + id);
+            Promise<?> response = json
+                    ? HttpClient.get(url).asJson().then(r -> {
+                        r.getBody().size();
+                        return null;
+                    })
+                    : HttpClient.get(url).asString();
+            response.then(r -> {
+                done(sent, false);
+                return null;
+            }, e -> {
+                done(sent, true);
+                return null;
+            });
+        }
+
+        private void done(double sent, boolean failed) {
+            latency.record(Duration.currentTimeMillis() - sent);
+            if (failed) {
+                errors++;
+            }
+            completed++;
+            if (started < total) {
+                next();
+            } else if (completed == total) {
+                finish();
+            }
+        }
+
+        private void finish() {
+            double elapsed = Duration.currentTimeMillis() - startMillis;
+            double throughput = total * 1000d / Math.max(elapsed, 1);
+            double p95 = latency.percentile(0.95);
+            double heapAfter = usedHeapBytes();
+            String results = "{\"scenario\":\"" + name + "\""
+                    + ",\"requests\":" + total
+                    + ",\"concurrency\":" + concurrency
+                    + ",\"errors\":" + errors
+                    + ",\"elapsedMillis\":" + elapsed
+                    + ",\"throughput\":" + throughput
+                    + ",\"p50\":" + latency.percentile(0.5)
+                    + ",\"p95\":" + p95
+                    + ",\"p99\":" + latency.percentile(0.99)
+                    + ",\"heapBytes\":" + (heapAfter >= 0 && heapBefore >= 0 ? heapAfter - heapBefore : -1)
+                    + "}";
+            logger.info(results);
+            HttpClient.post(benchUrl("op=results&scenario=" + name)).body(results).asString()
+                    .then(stored -> {
+                        HttpClient.get(benchUrl("op=baseline")).asJson().then(r -> {
+                            check(r.getBody(), throughput, p95);
+                            finishTest();
+                            return null;
+                        }, e -> {
+                            fail("Could not load baselines: " + e);
+                            return null;
+                        });
+                        return null;
+                    }, e -> {
+                        fail("Could not store results: " + e);
+                        return null;
+                    });
+        }
+
+        private void check(JsonNode baselines, double throughput, double p95) {
+            if (!allowErrors && errors > 0) {
+                fail(name + ": " + errors + " of " + total + " requests failed");
+            }
+            JsonNode baseline = baselines.get(name);
+            if (baseline == null) {
+                logger.warning(name + ": no baseline, results recorded only");
+                return;
+            }
+            double tolerance = baselines.getNumber("tolerance");
+            if (Double.isNaN(tolerance)) {
+                tolerance = DEFAULT_TOLERANCE;
+            }
+            double maxP95 = baseline.getNumber("p95") * (1 + tolerance);
+            double minThroughput = baseline.getNumber("throughput") * (1 - tolerance);
+            assertTrue(name + ": p95 " + p95 + " ms exceeds " + maxP95 + " ms", !(p95 > maxP95));
+            assertTrue(name + ": throughput " + throughput + " req/s below " + minThroughput,
+                    !(throughput < minThroughput));
+        }
+    }
+}
@@ -15,12 +15,54 @@
  *  limitations under the License.
  */
 package com.divroll.http.client;
+import com.divroll.http.client.codec.BinaryCodecs;
+import com.divroll.http.client.codec.CborCodec;
+import com.divroll.http.client.codec.Codec;
+import com.divroll.http.client.codec.Codecs;
+import com.divroll.http.client.codec.JsonWriter;
+import com.divroll.http.client.codec.MessagePackCodec;
+import com.divroll.http.client.exceptions.ResponseTooLargeException;
+import com.divroll.http.client.exceptions.TimeoutException;
+import com.divroll.http.client.limit.AimdLimit;
+import com.divroll.http.client.limit.VegasLimit;
+import com.divroll.http.client.log.RequestLog;
+import com.divroll.http.client.log.RequestLogInterceptor;
+import com.divroll.http.client.metrics.HistogramSnapshot;
+import com.divroll.http.client.metrics.LatencyHistogram;
+import com.divroll.http.client.metrics.MetricsInterceptor;
+import com.divroll.http.client.metrics.Phase;
+import com.divroll.http.client.metrics.RequestMetrics;
+import com.divroll.http.client.outbox.MemoryOutboxStore;
+import com.divroll.http.client.outbox.Outbox;
+import com.divroll.http.client.outbox.OutboxEntry;
+import com.divroll.http.client.outbox.OutboxInterceptor;
+import com.divroll.http.client.outbox.OutboxStore;
+import com.divroll.http.client.priority.PriorityInterceptor;
+import com.divroll.http.client.ratelimit.TokenBucket;
+import com.divroll.http.client.tracing.BatchSpanProcessor;
+import com.divroll.http.client.tracing.Sampler;
+import com.divroll.http.client.tracing.Span;
+import com.divroll.http.client.tracing.TraceContext;
+import com.divroll.http.client.tracing.TracingInterceptor;
+import com.divroll.http.json.OrgJson;
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.Scheduler;
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.Response;
 import com.google.gwt.junit.client.GWTTestCase;
+import elemental2.dom.Blob;
+import elemental2.promise.Promise;
 import org.json.JSONObject;
 import org.junit.FixMethodOrder;
 import org.junit.runners.MethodSorters;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BooleanSupplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 @FixMethodOrder(MethodSorters.NAME_ASCENDING)
@@ -28,7 +70,7 @@ public class HttpClientTest extends GWTTestCase {
     static final Logger logger = Logger.getLogger(HttpClientTest.class.getName());
     @Override
     public String getModuleName() {
-        return "com.divroll.http.HttpClient";
+        return "com.divroll.http.HttpClientTest";
     }
     public void testGet() {
         delayTestFinish(5000);
@@ -70,7 +112,7 @@ public class HttpClientTest extends GWTTestCase {
                             return null;
                         }
 
-                        JSONObject jsonObject = jsonNode.getObject();
+                        JSONObject jsonObject = OrgJson.object(jsonNode);
                         if (jsonObject == null) {
                             logger.severe("Expected JSONObject but got null");
                             fail("Expected JSONObject but got null");
@@ -153,7 +195,7 @@ public class HttpClientTest extends GWTTestCase {
                             return null;
                         }
 
-                        JSONObject jsonObject = jsonNode.getObject();
+                        JSONObject jsonObject = OrgJson.object(jsonNode);
                         if (jsonObject == null) {
                             logger.severe("Expected JSONObject but got null");
                             fail("Expected JSONObject but got null");
@@ -231,7 +273,7 @@ public class HttpClientTest extends GWTTestCase {
                             return null;
                         }
 
-                        JSONObject jsonObject = jsonNode.getObject();
+                        JSONObject jsonObject = OrgJson.object(jsonNode);
                         if (jsonObject == null) {
                             logger.severe("Expected JSONObject but got null");
                             fail("Expected JSONObject but got null");
@@ -303,7 +345,7 @@ public class HttpClientTest extends GWTTestCase {
                             return null;
                         }
 
-                        JSONObject jsonObject = jsonNode.getObject();
+                        JSONObject jsonObject = OrgJson.object(jsonNode);
                         if (jsonObject == null) {
                             logger.severe("Expected empty JSONObject but got null");
                             fail("Expected empty JSONObject but got null");
@@ -361,6 +403,1179 @@ public class HttpClientTest extends GWTTestCase {
                     return null;
                 });
     }
+    public void testInterceptorShortCircuit() {
+        delayTestFinish(5000);
+        Interceptor canned = chain -> {
+            PendingRequest request = chain.request();
+            assertEquals("application/json", request.getHeader("Accept"));
+            assertEquals(2, request.getHeaders().size());
+            chain.callback().onResponseReceived(null, new Response() {
+                @Override public String getHeader(String header) { return null; }
+                @Override public com.google.gwt.http.client.Header[] getHeaders() { return new com.google.gwt.http.client.Header[0]; }
+                @Override public String getHeadersAsString() { return ""; }
+                @Override public int getStatusCode() { return 200; }
+                @Override public String getStatusText() { return "OK"; }
+                @Override public String getText() { return "{\"id\":1}"; }
+            });
+        };
+        HttpClient.addInterceptor(canned);
+        PostRequest post = HttpClient.post("http://localhost/never-sent");
+        post.asString();
+        post.asJson()
+                .then(response -> {
+                    HttpClient.removeInterceptor(canned);
+                    assertEquals(200, response.getStatus());
+                    assertEquals(1.0, response.getBody().getNumber("id"), 0);
+                    finishTest();
+                    return null;
+                }, error -> {
+                    HttpClient.removeInterceptor(canned);
+                    fail("Request failed: " + error);
+                    finishTest();
+                    return null;
+                });
+    }
+    public void testLatencyHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(100L, snapshot.getCount());
+        assertTrue(Math.abs(snapshot.getP50() - 50) <= 5);
+        assertTrue(Math.abs(snapshot.getP95() - 95) <= 10);
+        assertTrue(snapshot.getP99() <= 100);
+    }
+    public void testMetricsCallbackTimesReactions() {
+        RequestMetrics metrics = new RequestMetrics();
+        MetricsInterceptor interceptor = new MetricsInterceptor(metrics);
+        CannedServer server = new CannedServer("{}");
+        server.hold = true;
+        HttpClient.addInterceptor(interceptor);
+        HttpClient.addInterceptor(server);
+        delayTestFinish(5000);
+        HttpClient.get("https://api.example.com/metrics").asString().then(response -> {
+            busyWait(30);
+            return null;
+        });
+        server.answer(server.held.get(0));
+        HttpClient.removeInterceptor(server);
+        HttpClient.removeInterceptor(interceptor);
+        await(() -> !metrics.snapshot().isEmpty()
+                && metrics.snapshot().get(0).getPhase(Phase.CALLBACK).getCount() > 0, () -> {
+            assertTrue("callback time covers the caller's then-handler",
+                    metrics.snapshot().get(0).getPhase(Phase.CALLBACK).getMax() >= 30);
+            finishTest();
+        });
+    }
+
+    public void testRequestMetricsEndpointCap() {
+        RequestMetrics metrics = new RequestMetrics(2);
+        metrics.get("/posts/1", "2xx").record(Phase.TOTAL, 1);
+        metrics.get("/posts/2", "2xx").record(Phase.TOTAL, 1);
+        metrics.get("/posts/3", "2xx").record(Phase.TOTAL, 1);
+        metrics.get("/posts/4", "2xx").record(Phase.TOTAL, 1);
+        metrics.get("/posts/1", "2xx").record(Phase.TOTAL, 1);
+        assertEquals(3, metrics.snapshot().size());
+        assertEquals(RequestMetrics.OTHER, metrics.snapshot().get(2).getEndpoint());
+        assertEquals(2, metrics.snapshot().get(2).getPhase(Phase.TOTAL).getCount());
+        assertEquals(2, metrics.snapshot().get(0).getPhase(Phase.TOTAL).getCount());
+    }
+
+    private static void busyWait(double millis) {
+        double end = Duration.currentTimeMillis() + millis;
+        while (Duration.currentTimeMillis() < end) {
+            // burn time like an expensive then-handler would
+        }
+    }
+
+    public void testAdaptiveLimits() {
+        AimdLimit aimd = new AimdLimit(10, 1, 200);
+        for (int i = 0; i < 100; i++) {
+            aimd.onSample(20, 10, false);
+        }
+        assertTrue(aimd.getLimit() > 10);
+        int grown = aimd.getLimit();
+        aimd.onSample(20, grown, true);
+        assertTrue(aimd.getLimit() < grown);
+        aimd.onSample(100, grown, false);
+        assertTrue(aimd.getLimit() < grown - 1);
+
+        AimdLimit cached = new AimdLimit(10, 1, 200);
+        cached.onSample(0, 10, false);
+        for (int i = 0; i < 20; i++) {
+            cached.onSample(2, 10, false);
+        }
+        assertTrue(cached.getLimit() >= 10);
+
+        VegasLimit vegas = new VegasLimit(10, 1, 200);
+        for (int i = 0; i < 20; i++) {
+            vegas.onSample(20, 10, false);
+        }
+        assertTrue(vegas.getLimit() > 10);
+        int before = vegas.getLimit();
+        for (int i = 0; i < 20; i++) {
+            vegas.onSample(200, before, false);
+        }
+        assertTrue(vegas.getLimit() < before);
+    }
+    public void testTokenBucket() {
+        TokenBucket bucket = new TokenBucket(10, 2, 0);
+        assertEquals(0.0, bucket.tryTake(0), 0);
+        assertEquals(0.0, bucket.tryTake(0), 0);
+        assertEquals(100.0, bucket.tryTake(0), 0.001);
+        assertEquals(0.0, bucket.tryTake(100), 0);
+        bucket.limit(0, 5000, 200);
+        assertEquals(4800.0, bucket.tryTake(400), 0.001);
+        assertEquals(0.0, bucket.tryTake(5300), 0);
+        bucket.limit(10, 10000, 6000);
+        assertEquals(1.0, bucket.getPermitsPerSecond(), 0.001);
+    }
+    public void testResponseDeliveryBatching() {
+        ResponseDelivery.setMode(ResponseDelivery.Mode.MICROTASK);
+        ResponseDelivery.setFrameBudgetMillis(1000);
+        int flushes = ResponseDelivery.getFlushCount();
+        List<Integer> delivered = new ArrayList<Integer>();
+        for (int i = 0; i < 3; i++) {
+            int n = i;
+            ResponseDelivery.deliver(() -> delivered.add(n));
+        }
+        assertTrue(delivered.isEmpty());
+        assertEquals(3, ResponseDelivery.getQueuedCount());
+        awaitDelivery(() -> {
+            assertEquals(Arrays.asList(0, 1, 2), delivered);
+            assertEquals(flushes + 1, ResponseDelivery.getFlushCount());
+        });
+    }
+
+    public void testResponseDeliveryBudget() {
+        ResponseDelivery.setMode(ResponseDelivery.Mode.MICROTASK);
+        ResponseDelivery.setFrameBudgetMillis(0);
+        int flushes = ResponseDelivery.getFlushCount();
+        List<Integer> delivered = new ArrayList<Integer>();
+        for (int i = 0; i < 3; i++) {
+            int n = i;
+            ResponseDelivery.deliver(() -> delivered.add(n));
+        }
+        awaitDelivery(() -> {
+            // An exhausted budget still delivers one response per flush
+            assertEquals(Arrays.asList(0, 1, 2), delivered);
+            assertEquals(flushes + 3, ResponseDelivery.getFlushCount());
+        });
+    }
+
+    /**
+     * Runs {@code check} once the delivery queue has drained, then restores immediate delivery.
+     */
+    private void awaitDelivery(Runnable check) {
+        delayTestFinish(5000);
+        Scheduler.get().scheduleFixedDelay(() -> {
+            if (ResponseDelivery.getQueuedCount() > 0) {
+                return true;
+            }
+            ResponseDelivery.setMode(ResponseDelivery.Mode.IMMEDIATE);
+            ResponseDelivery.setFrameBudgetMillis(8);
+            check.run();
+            finishTest();
+            return false;
+        }, 10);
+    }
+
+    public void testRequestLogRingBuffer() {
+        RequestLog log = new RequestLog(3);
+        for (int i = 1; i <= 5; i++) {
+            log.record("GET", "/r" + i, 200, 0, i, i, 0, 1);
+        }
+        assertEquals(3, log.size());
+        assertEquals(5L, log.getRecordedCount());
+        String[] lines = log.dump().split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0], lines[0].startsWith("3 GET /r3 200 0 3 "));
+        assertTrue(lines[2], lines[2].startsWith("5 GET /r5 200 0 5 "));
+        log.clear();
+        assertEquals(0, log.size());
+        assertEquals("", log.dump());
+    }
+
+    public void testRequestLogSampling() {
+        List<String> dumps = new ArrayList<String>();
+        RequestLogInterceptor unsampled = new RequestLogInterceptor(new RequestLog(8), 0)
+                .dumpOnError(dumps::add);
+        TestChain ok = new TestChain(new PendingRequest("GET", "/ok", null, 0));
+        unsampled.intercept(ok);
+        ok.respond(new TextResponse(200, "{}"));
+        assertEquals(0, unsampled.getLog().size());
+        assertNotNull(ok.result().response);
+
+        TestChain unavailable = new TestChain(new PendingRequest("GET", "/busy", null, 0));
+        unsampled.intercept(unavailable);
+        unavailable.respond(new TextResponse(503, "", "Content-Length", "42"));
+        TestChain offline = new TestChain(new PendingRequest("POST", "/save", "{}", 0));
+        unsampled.intercept(offline);
+        offline.fail(new RuntimeException("offline"));
+        assertEquals(2, unsampled.getLog().size());
+        assertTrue(unsampled.getLog().dump().contains(" GET /busy 503 0 42 "));
+        assertNotNull(offline.result().error);
+        assertEquals("failures within the dump interval are dumped once", 1, dumps.size());
+
+        RequestLogInterceptor all = new RequestLogInterceptor(new RequestLog(8), 1);
+        TestChain sampled = new TestChain(new PendingRequest("GET", "/ok", null, 0));
+        all.intercept(sampled);
+        sampled.respond(new TextResponse(200, "\u00e9"));
+        assertTrue(all.getLog().dump().contains(" GET /ok 200 0 2 "));
+        TestChain posted = new TestChain(new PendingRequest("POST", "/save", "\u00e9\u00e9", 0));
+        all.intercept(posted);
+        assertSame("recorders are reused once their request completed", sampled.proceeded(), posted.proceeded());
+        posted.respond(new TextResponse(200, ""));
+        assertTrue("request sizes are UTF-8 bytes too", all.getLog().dump().contains(" POST /save 200 4 0 "));
+    }
+
+    public void testResponseHeadersParse() {
+        ResponseHeaders headers = ResponseHeaders.parse(
+                "ETag: \"abc\"\r\nCache-Control: max-age=60\r\nserver-timing: db;dur=53\r\n");
+        assertEquals(3, headers.size());
+        assertEquals("\"abc\"", headers.get("etag"));
+        assertEquals("max-age=60", headers.get("CACHE-CONTROL"));
+        assertEquals("db;dur=53", headers.get("Server-Timing"));
+        assertNull(headers.get("Retry-After"));
+        assertSame(ResponseHeaders.EMPTY, ResponseHeaders.parse(""));
+    }
+    public void testPagerNextLink() {
+        String header = "<https://api.example.com/items?page=1>; rel=\"prev\", "
+                + "<https://api.example.com/items?page=3>; rel=\"next last\"";
+        assertEquals("https://api.example.com/items?page=3",
+                Pager.nextLink(header, "https://api.example.com/items?page=2"));
+        assertEquals("https://api.example.com/items?cursor=b",
+                Pager.nextLink("</items?cursor=b>; rel=next", "https://api.example.com/items"));
+        assertNull(Pager.nextLink("<https://api.example.com/items?page=1>; rel=\"prev\"", "https://api.example.com/"));
+    }
+    public void testOutbox() {
+        List<String> server = new ArrayList<String>();
+        Interceptor backend = chain -> {
+            PendingRequest request = chain.request();
+            assertFalse(request.hasHeader("X-Outbox-Replay"));
+            assertFalse("credentials are not persisted", request.hasHeader("X-Api-Key"));
+            assertEquals("added at replay", "Bearer current", request.getHeader("Authorization"));
+            server.add(request.getMethod() + " " + request.getUrl() + " " + request.getBody());
+            chain.callback().onResponseReceived(null, new TextResponse(200, "ok"));
+        };
+        MemoryOutboxStore store = new MemoryOutboxStore();
+        SwitchedOutbox outbox = new SwitchedOutbox(store);
+        OutboxInterceptor interceptor = new OutboxInterceptor(outbox);
+        List<OutboxEntry> replayed = new ArrayList<OutboxEntry>();
+        outbox.setListener((entry, response) -> {
+            assertEquals(200, response.getStatus());
+            replayed.add(entry);
+        });
+
+        PendingRequest post = new PendingRequest("POST", "/items", "n1", 0)
+                .setHeader("Authorization", "Bearer stale")
+                .setHeader("X-Api-Key", "secret")
+                .setHeader("Content-Type", "text/plain");
+        outbox.setReplayDecorator((entry, request) -> request.header("Authorization", "Bearer current"));
+        TestChain first = new TestChain(post);
+        interceptor.intercept(first);
+        assertFalse(first.isProceeded());
+        assertEquals(202, first.result().response.getStatusCode());
+        assertNotNull(first.result().response.getHeader("X-Outbox-Id"));
+
+        TestChain read = new TestChain(new PendingRequest("GET", "/items", null, 0));
+        interceptor.intercept(read);
+        assertTrue("reads are never queued", read.isProceeded());
+
+        interceptor.intercept(new TestChain(new PendingRequest("PUT", "/items/1", "v1", 0)));
+        interceptor.intercept(new TestChain(new PendingRequest("PUT", "/items/1", "v2", 0)));
+        interceptor.intercept(new TestChain(new PendingRequest("POST", "/items", "n2", 0)));
+        assertEquals(1, outbox.getCoalescedCount());
+        assertEquals(3, outbox.size());
+        assertEquals(3, new SwitchedOutbox(store).size());
+
+        HttpClient.addInterceptor(interceptor);
+        HttpClient.addInterceptor(backend);
+        outbox.online = true;
+        TestChain behind = new TestChain(new PendingRequest("PATCH", "/other", "p", 0));
+        interceptor.intercept(behind);
+        assertFalse("mutations queue behind existing entries", behind.isProceeded());
+        assertEquals(202, behind.result().response.getStatusCode());
+
+        delayTestFinish(5000);
+        Scheduler.get().scheduleFixedDelay(() -> {
+            if (outbox.size() > 0) {
+                return true;
+            }
+            HttpClient.removeInterceptor(backend);
+            HttpClient.removeInterceptor(interceptor);
+            assertEquals(Arrays.asList("POST /items n1", "PUT /items/1 v2", "POST /items n2", "PATCH /other p"),
+                    server);
+            assertEquals(4, replayed.size());
+            assertEquals(4, outbox.getReplayedCount());
+            assertEquals(0, new SwitchedOutbox(store).size());
+            finishTest();
+            return false;
+        }, 10);
+    }
+
+    /**
+     * Outbox whose connectivity is set by the test instead of {@code navigator.onLine}.
+     */
+    static class SwitchedOutbox extends Outbox {
+        boolean online;
+
+        SwitchedOutbox(OutboxStore store) {
+            super(store);
+        }
+
+        @Override
+        public boolean isOnline() {
+            return online;
+        }
+    }
+
+    public void testPriorityLowWaitsForHigh() {
+        PriorityInterceptor priority = new PriorityInterceptor();
+        TestChain high = new TestChain(prioritized(Priority.HIGH));
+        TestChain low = new TestChain(prioritized(Priority.LOW));
+        TestChain auto = new TestChain(prioritized(Priority.AUTO));
+        priority.intercept(high);
+        priority.intercept(low);
+        priority.intercept(auto);
+        assertTrue(high.isProceeded());
+        assertFalse(low.isProceeded());
+        assertTrue(auto.isProceeded());
+        assertEquals(1, priority.getQueuedCount(Priority.LOW));
+
+        high.respond(new TextResponse("ok"));
+        assertEquals("ok", high.result().response.getText());
+        assertTrue(low.isProceeded());
+        assertEquals(0, priority.getQueuedCount(Priority.LOW));
+
+        TestChain failing = new TestChain(prioritized(Priority.HIGH));
+        TestChain later = new TestChain(prioritized(Priority.LOW));
+        priority.intercept(failing);
+        priority.intercept(later);
+        failing.fail(new TimeoutException("/items", 10));
+        assertTrue("a failed HIGH request releases LOW ones too", later.isProceeded());
+    }
+
+    public void testPriorityBackground() {
+        HiddenPriorityInterceptor priority = new HiddenPriorityInterceptor();
+        priority.setMaxBackgroundInFlight(1).setMaxBackgroundDelayMillis(100);
+        TestChain interactive = new TestChain(prioritized(Priority.AUTO));
+        TestChain first = new TestChain(prioritized(Priority.BACKGROUND));
+        TestChain second = new TestChain(prioritized(Priority.BACKGROUND));
+        priority.intercept(interactive);
+        priority.intercept(first);
+        priority.intercept(second);
+        assertFalse(first.isProceeded());
+        assertEquals(2, priority.getQueuedCount(Priority.BACKGROUND));
+
+        delayTestFinish(5000);
+        // The deadline releases background work even though an interactive request is in flight
+        await(first::isProceeded, () -> {
+            assertFalse("limited by maxBackgroundInFlight", second.isProceeded());
+            priority.setHidden(true);
+            interactive.respond(new TextResponse("ok"));
+            first.respond(new TextResponse("ok"));
+            Scheduler.get().scheduleFixedDelay(() -> {
+                assertFalse("paused while hidden", second.isProceeded());
+                priority.setHidden(false);
+                // Nothing else is in flight, so the page's next idle period releases it
+                await(second::isProceeded, () -> {
+                    assertEquals(0, priority.getQueuedCount(Priority.BACKGROUND));
+                    finishTest();
+                });
+                return false;
+            }, 300);
+        });
+    }
+
+    private static PendingRequest prioritized(Priority priority) {
+        PendingRequest request = new PendingRequest("GET", "/items", null, 0);
+        request.setPriority(priority);
+        return request;
+    }
+
+    private static void await(BooleanSupplier condition, Runnable then) {
+        Scheduler.get().scheduleFixedDelay(() -> {
+            if (!condition.getAsBoolean()) {
+                return true;
+            }
+            then.run();
+            return false;
+        }, 10);
+    }
+
+    /**
+     * Priority interceptor whose tab visibility is set by the test.
+     */
+    static class HiddenPriorityInterceptor extends PriorityInterceptor {
+        private boolean hidden;
+
+        void setHidden(boolean hidden) {
+            this.hidden = hidden;
+            onVisibilityChange();
+        }
+
+        @Override
+        protected boolean isDocumentHidden() {
+            return hidden;
+        }
+    }
+
+    public void testPrefetchHitAndJoin() {
+        resetPrefetcher();
+        CannedServer server = new CannedServer("prefetched");
+        HttpClient.addInterceptor(server);
+        String stored = "https://api.example.com/prefetch/stored";
+        String inFlight = "https://api.example.com/prefetch/in-flight";
+        int hits = Prefetcher.getHitCount();
+        Prefetcher.prefetch(stored);
+        delayTestFinish(10000);
+        await(() -> Prefetcher.getStoredBytes() > 0, () -> {
+            assertEquals(1, server.requestCount);
+            HttpClient.get(stored).asString().then(first -> {
+                assertEquals("prefetched", first.getBody());
+                assertEquals("the stored response answered the GET", 1, server.requestCount);
+                assertEquals(hits + 1, Prefetcher.getHitCount());
+                assertEquals(0, Prefetcher.getStoredBytes());
+                HttpClient.get(stored).asString().then(second -> {
+                    assertEquals("a stored response is used once", 2, server.requestCount);
+                    server.hold = true;
+                    Prefetcher.prefetch(inFlight);
+                    await(() -> server.held.size() == 1, () -> {
+                        HttpClient.get(inFlight).asString().then(joined -> {
+                            assertEquals("prefetched", joined.getBody());
+                            assertEquals(hits + 2, Prefetcher.getHitCount());
+                            HttpClient.removeInterceptor(server);
+                            resetPrefetcher();
+                            finishTest();
+                            return null;
+                        });
+                        assertEquals("the GET joined the prefetch in flight", 3, server.requestCount);
+                        server.answer(server.held.get(0));
+                    });
+                    return null;
+                });
+                return null;
+            });
+        });
+    }
+
+    public void testPrefetchBudgetsAndExpiry() {
+        resetPrefetcher();
+        // 7 characters, 8 bytes as UTF-8
+        CannedServer server = new CannedServer("123456\u00e9");
+        HttpClient.addInterceptor(server);
+        int prefetched = Prefetcher.getPrefetchedCount();
+        int skipped = Prefetcher.getSkippedCount();
+        int dropped = Prefetcher.getDroppedCount();
+        Prefetcher.setMaxBytes(10);
+        Prefetcher.setMaxAgeMillis(100);
+        Prefetcher.prefetch("https://api.example.com/prefetch/fits");
+        Prefetcher.prefetch("https://api.example.com/prefetch/over-budget");
+        delayTestFinish(10000);
+        await(() -> Prefetcher.getSkippedCount() == skipped + 1, () -> {
+            assertEquals(prefetched + 1, Prefetcher.getPrefetchedCount());
+            assertEquals(8, Prefetcher.getStoredBytes());
+            await(() -> Prefetcher.getDroppedCount() == dropped + 1, () -> {
+                assertEquals("expired responses are dropped unused", 0, Prefetcher.getStoredBytes());
+                Prefetcher.setMaxBytes(1000);
+                Prefetcher.setMaxConcurrency(1);
+                server.hold = true;
+                Prefetcher.prefetch("https://api.example.com/prefetch/first");
+                Prefetcher.prefetch("https://api.example.com/prefetch/second");
+                await(() -> server.held.size() == 1, () -> Scheduler.get().scheduleFixedDelay(() -> {
+                    assertEquals("limited by maxConcurrency", 1, server.held.size());
+                    server.answer(server.held.get(0));
+                    await(() -> server.held.size() == 2, () -> {
+                        server.answer(server.held.get(1));
+                        assertEquals(16, Prefetcher.getStoredBytes());
+                        HttpClient.removeInterceptor(server);
+                        resetPrefetcher();
+                        finishTest();
+                    });
+                    return false;
+                }, 200));
+            });
+        });
+    }
+
+    private static void resetPrefetcher() {
+        Prefetcher.clear();
+        Prefetcher.setMaxConcurrency(2);
+        Prefetcher.setMaxBytes(2 * 1024 * 1024);
+        Prefetcher.setMaxAgeMillis(30000);
+    }
+
+    /**
+     * Answers every request with a fixed body, or holds it until {@link #answer} is called.
+     */
+    static class CannedServer implements Interceptor {
+        private final String body;
+        final List<Chain> held = new ArrayList<Chain>();
+        int requestCount;
+        boolean hold;
+
+        CannedServer(String body) {
+            this.body = body;
+        }
+
+        @Override
+        public void intercept(Chain chain) {
+            requestCount++;
+            if (hold) {
+                held.add(chain);
+            } else {
+                answer(chain);
+            }
+        }
+
+        void answer(Chain chain) {
+            chain.callback().onResponseReceived(null, new TextResponse(200, body));
+        }
+    }
+
+    public void testTraceparent() {
+        String traceId = TraceContext.newTraceId();
+        String spanId = TraceContext.newSpanId();
+        assertEquals(32, traceId.length());
+        assertEquals(16, spanId.length());
+        TraceContext parsed = TraceContext.parse(TraceContext.traceparent(traceId, spanId, true));
+        assertEquals(traceId, parsed.getTraceId());
+        assertEquals(spanId, parsed.getSpanId());
+        assertTrue(parsed.isSampled());
+        assertEquals("00-" + traceId + "-" + spanId + "-01", parsed.toTraceparent());
+        assertFalse(TraceContext.parse(TraceContext.traceparent(traceId, spanId, false)).isSampled());
+
+        String valid = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+        assertNotNull(TraceContext.parse(valid));
+        assertNotNull("later versions may append fields",
+                TraceContext.parse("01-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01-extra"));
+        assertNull(TraceContext.parse(null));
+        assertNull(TraceContext.parse(valid + "-extra"));
+        assertNull(TraceContext.parse("ff-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01"));
+        assertNull(TraceContext.parse("00-4BF92F3577B34DA6A3CE929D0E0E4736-00f067aa0ba902b7-01"));
+        assertNull(TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e473-00f067aa0ba902b7-01"));
+        assertNull(TraceContext.parse("00-00000000000000000000000000000000-00f067aa0ba902b7-01"));
+        assertNull(TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-0000000000000000-01"));
+    }
+
+    public void testTracingSampling() {
+        List<List<Span>> batches = new ArrayList<List<Span>>();
+        BatchSpanProcessor spans = new BatchSpanProcessor(batches::add, 1, 10, 1000);
+
+        TestChain unsampled = new TestChain(new PendingRequest("GET", "/items", null, 0));
+        new TracingInterceptor(Sampler.never(), spans).intercept(unsampled);
+        unsampled.respond(new TextResponse("ok"));
+        assertFalse(TraceContext.parse(unsampled.request().getHeader(TraceContext.TRACEPARENT)).isSampled());
+        assertTrue("unsampled requests record no span", batches.isEmpty());
+
+        TestChain sampled = new TestChain(new PendingRequest("GET", "/items", null, 0));
+        new TracingInterceptor(Sampler.ratio(1), spans).intercept(sampled);
+        sampled.respond(new TextResponse(404, "missing"));
+        TraceContext context = TraceContext.parse(sampled.request().getHeader(TraceContext.TRACEPARENT));
+        assertTrue(context.isSampled());
+        assertEquals(1, batches.size());
+        Span span = batches.get(0).get(0);
+        assertEquals(context.getTraceId(), span.getTraceId());
+        assertEquals(context.getSpanId(), span.getSpanId());
+        assertEquals(404, span.getStatus());
+
+        String incoming = "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01";
+        PendingRequest propagated = new PendingRequest("GET", "/items", null, 0);
+        propagated.setHeader(TraceContext.TRACEPARENT, incoming);
+        new TracingInterceptor(Sampler.always(), spans).intercept(new TestChain(propagated));
+        assertEquals("a valid header is kept", incoming, propagated.getHeader(TraceContext.TRACEPARENT));
+        PendingRequest malformed = new PendingRequest("GET", "/items", null, 0);
+        malformed.setHeader(TraceContext.TRACEPARENT, "garbage");
+        new TracingInterceptor(Sampler.always(), spans).intercept(new TestChain(malformed));
+        assertNotNull("a malformed header is replaced",
+                TraceContext.parse(malformed.getHeader(TraceContext.TRACEPARENT)));
+
+        TracingInterceptor tracing = new TracingInterceptor(Sampler.always(), spans);
+        PendingRequest thirdParty = new PendingRequest("GET", "https://cdn.example.org/lib.js", null, 0);
+        tracing.intercept(new TestChain(thirdParty));
+        assertFalse("no header to other origins by default", thirdParty.hasHeader(TraceContext.TRACEPARENT));
+        tracing.propagateTo("https://api.example.com");
+        PendingRequest api = new PendingRequest("GET", "https://api.example.com/v1/items", null, 0);
+        tracing.intercept(new TestChain(api));
+        assertTrue(api.hasHeader(TraceContext.TRACEPARENT));
+        PendingRequest sameOrigin = new PendingRequest("GET", GWT.getModuleBaseURL() + "items", null, 0);
+        tracing.intercept(new TestChain(sameOrigin));
+        assertTrue(sameOrigin.hasHeader(TraceContext.TRACEPARENT));
+    }
+
+    public void testBatchSpanProcessor() {
+        List<List<Span>> batches = new ArrayList<List<Span>>();
+        BatchSpanProcessor spans = new BatchSpanProcessor(batches::add, 2, 3, 50);
+        TracingInterceptor tracing = new TracingInterceptor(Sampler.always(), spans);
+        endSpan(tracing);
+        assertTrue(batches.isEmpty());
+        assertEquals(1, spans.getQueuedCount());
+        endSpan(tracing);
+        assertEquals("a full batch is exported at once", 1, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals(0, spans.getQueuedCount());
+
+        BatchSpanProcessor bounded = new BatchSpanProcessor(batches::add, 10, 2, 60000);
+        TracingInterceptor dropping = new TracingInterceptor(Sampler.always(), bounded);
+        for (int i = 0; i < 3; i++) {
+            endSpan(dropping);
+        }
+        assertEquals(2, bounded.getQueuedCount());
+        assertEquals(1, bounded.getDroppedCount());
+        bounded.flush();
+        assertEquals(2, batches.size());
+        assertEquals(0, bounded.getQueuedCount());
+
+        endSpan(tracing);
+        delayTestFinish(5000);
+        // The delay timer exports a partial batch
+        await(() -> batches.size() == 3, () -> {
+            assertEquals(1, batches.get(2).size());
+            finishTest();
+        });
+    }
+
+    private static void endSpan(TracingInterceptor tracing) {
+        TestChain chain = new TestChain(new PendingRequest("GET", "/items", null, 0));
+        tracing.intercept(chain);
+        chain.respond(new TextResponse("ok"));
+    }
+
+    public void testPagerKeepsRequestSettings() {
+        BackendClient api = HttpClient.backend("https://api.example.com/").setMaxConcurrentRequests(2).build();
+        GetRequest first = api.get("items");
+        first.priority(Priority.LOW);
+        first.maxResponseBytes(5000);
+        List<PendingRequest> sent = new ArrayList<PendingRequest>();
+        Interceptor server = chain -> {
+            sent.add(chain.request());
+            chain.callback().onResponseReceived(null, sent.size() == 1
+                    ? new TextResponse(200, "[]", "Link", "<https://api.example.com/items?page=2>; rel=next")
+                    : new TextResponse(200, "[]"));
+        };
+        HttpClient.addInterceptor(server);
+        delayTestFinish(5000);
+        Pager.followLinks(first).forEach(page -> { }).then(count -> {
+            HttpClient.removeInterceptor(server);
+            assertEquals(2, count.intValue());
+            assertEquals("https://api.example.com/items?page=2", sent.get(1).getUrl());
+            for (PendingRequest request : sent) {
+                assertNotNull(request.getPool());
+                assertSame(sent.get(0).getPool(), request.getPool());
+                assertEquals(Priority.LOW, request.getPriority());
+                assertEquals(5000, request.getMaxResponseBytes());
+            }
+            finishTest();
+            return null;
+        });
+    }
+
+    public void testPagerKeepsErrorType() {
+        delayTestFinish(5000);
+        Interceptor timeout = chain -> chain.callback().onError(null,
+                new TimeoutException(chain.request().getUrl(), 100));
+        HttpClient.addInterceptor(timeout);
+        Pager pager = Pager.followLinks(HttpClient.get("http://localhost/never-sent"));
+        Promise<HttpResponse<JsonNode>> first = pager.next();
+        HttpClient.removeInterceptor(timeout);
+        first.then(page -> {
+            fail("Expected the page to fail");
+            finishTest();
+            return null;
+        }, error -> {
+            assertTrue("Unexpected error: " + error, error instanceof TimeoutException);
+            pager.next().then(page -> {
+                fail("Expected the failure to stick");
+                finishTest();
+                return null;
+            }, again -> {
+                assertSame(error, again);
+                finishTest();
+                return null;
+            });
+            return null;
+        });
+    }
+
+    public void testMergePatchCompose() {
+        JsonNode first = new JsonNode("{\"title\":\"a\",\"meta\":{\"x\":1},\"tags\":[1]}");
+        JsonNode second = new JsonNode("{\"meta\":{\"y\":null},\"tags\":[2],\"done\":true}");
+        JsonNode merged = MergePatch.compose(first, second);
+        assertEquals("a", merged.getString("title"));
+        assertEquals(1.0, merged.get("meta").getNumber("x"), 0);
+        assertTrue(merged.get("meta").has("y"));
+        assertEquals(2.0, merged.get("tags").getNumber(0), 0);
+        assertTrue(merged.getBoolean("done"));
+        assertNull(MergePatch.compose(new JsonNode("{\"meta\":null}"), new JsonNode("{\"meta\":{\"x\":1}}")));
+    }
+    public void testJsonProjection() {
+        JsonProjection projection = JsonProjection.of("/items/*/id", "items.*.title", "/next");
+        JsonNode node = projection.parse("{\"items\":[{\"id\":1,\"title\":\"a\\\"}\",\"body\":{\"x\":[1,\"]\"]}},"
+                + "{\"id\":2,\"body\":null}],\"next\":\"/items?page=2\",\"total\":2}");
+        assertEquals(2, node.keys().length);
+        assertEquals("/items?page=2", node.getString("next"));
+        assertEquals(2, node.get("items").size());
+        assertEquals("a\"}", node.get("items").get(0).getString("title"));
+        assertFalse(node.get("items").get(0).has("body"));
+        assertEquals(2.0, node.get("items").get(1).getNumber("id"), 0);
+    }
+    public void testBinaryCodecs() {
+        // {"a": 1, "b": [-3, 1.5, true, null, "\u00e9"]}
+        JsonNode cbor = new JsonNode(CborCodec.INSTANCE.decode(buffer("a2616101616285" + "22f93e00f5f662c3a9")));
+        assertEquals(1.0, cbor.getNumber("a"), 0);
+        assertEquals(-3.0, cbor.get("b").getNumber(0), 0);
+        assertEquals(1.5, cbor.get("b").getNumber(1), 0);
+        assertTrue(cbor.get("b").getBoolean(2));
+        assertEquals("\u00e9", cbor.get("b").getString(4));
+        // {"a": 1, "b": [-1, 300, "hi"]}
+        JsonNode msgpack = new JsonNode(MessagePackCodec.INSTANCE.decode(buffer("82a16101a16293ffcd012ca26869")));
+        assertEquals(300.0, msgpack.get("b").getNumber(1), 0);
+        assertEquals("hi", msgpack.get("b").getString(2));
+        // {"__proto__": {"x": 1}} decodes to an own key without changing the prototype
+        JavaScriptObject cborProto = CborCodec.INSTANCE.decode(buffer("a1695f5f70726f746f5f5f" + "a1617801"));
+        assertEquals(1.0, new JsonNode(cborProto).get("__proto__").getNumber("x"), 0);
+        assertTrue(hasPlainPrototype(cborProto));
+        JavaScriptObject msgpackProto = MessagePackCodec.INSTANCE.decode(buffer("81a95f5f70726f746f5f5f" + "81a17801"));
+        assertEquals(1.0, new JsonNode(msgpackProto).get("__proto__").getNumber("x"), 0);
+        assertTrue(hasPlainPrototype(msgpackProto));
+
+        BinaryCodecs.register(CborCodec.INSTANCE);
+        BinaryCodecs.register(MessagePackCodec.INSTANCE);
+        try {
+            assertEquals("application/cbor, application/msgpack, application/json;q=0.9", BinaryCodecs.acceptHeader());
+            assertSame(MessagePackCodec.INSTANCE, BinaryCodecs.find("application/x-msgpack; charset=binary"));
+            assertNull(BinaryCodecs.find("application/json"));
+        } finally {
+            BinaryCodecs.clear();
+        }
+    }
+
+    private static native boolean hasPlainPrototype(JavaScriptObject object) /*-{
+        return Object.getPrototypeOf(object) === Object.prototype && !("x" in {});
+    }-*/;
+
+    private static native JavaScriptObject buffer(String hex) /*-{
+        var bytes = new Uint8Array(hex.length / 2);
+        for (var i = 0; i < bytes.length; i++) {
+            bytes[i] = parseInt(hex.substr(i * 2, 2), 16);
+        }
+        return bytes.buffer;
+    }-*/;
+
+    public void testResponseLimits() {
+        PendingRequest request = new PendingRequest("GET", "/big", null, 0);
+        assertFalse(ResponseLimits.isEnforced(request));
+        ResponseLimits.setMaxResponseBytes(1000);
+        try {
+            assertTrue(ResponseLimits.isEnforced(request));
+            assertNull(ResponseLimits.check(request, 1000));
+            ResponseTooLargeException error = ResponseLimits.check(request, 1001);
+            assertEquals(1000, error.getLimitBytes());
+            assertFalse(error.isBudgetExceeded());
+            request.setMaxResponseBytes(5000);
+            assertNull(ResponseLimits.check(request, 1001));
+            ResponseLimits.setMemoryBudgetBytes(2000);
+            assertTrue(ResponseLimits.check(request, 2001).isBudgetExceeded());
+            assertEquals(10, ResponseLimits.utf8Length("a\u00e9\u20ac\ud83d\ude00"));
+
+            int retained = ResponseLimits.getRetainedBytes();
+            StringHttpResponse response = new StringHttpResponse(new TextResponse("{\"a\":\"\u00e9\"}"));
+            assertTrue(ResponseLimits.getRetainedBytes() - retained <= 11);
+            response.release();
+            assertNull(response.getBody());
+            assertEquals(retained, ResponseLimits.getRetainedBytes());
+        } finally {
+            ResponseLimits.setMaxResponseBytes(0);
+            ResponseLimits.setMemoryBudgetBytes(0);
+        }
+    }
+
+    public void testCoalescedPatchCountsBodyOnce() {
+        CannedServer server = new CannedServer("{\"title\":\"b\",\"done\":true}");
+        server.hold = true;
+        HttpClient.addInterceptor(server);
+        PatchRequest.enableCoalescing(10);
+        ResponseLimits.setMemoryBudgetBytes(1000);
+        delayTestFinish(5000);
+        List<HttpResponse<String>> responses = new ArrayList<HttpResponse<String>>();
+        HttpClient.patch("https://api.example.com/todos/1").header("Content-Type", "application/json")
+                .body("{\"title\":\"b\"}").asString().then(response -> responses.add(response));
+        HttpClient.patch("https://api.example.com/todos/1").header("Content-Type", "application/json")
+                .body("{\"done\":true}").asString().then(response -> responses.add(response));
+        int retained = ResponseLimits.getRetainedBytes();
+        await(() -> server.held.size() == 1, () -> {
+            server.answer(server.held.get(0));
+            await(() -> responses.size() == 2, () -> {
+                PatchRequest.disableCoalescing();
+                ResponseLimits.setMemoryBudgetBytes(0);
+                HttpClient.removeInterceptor(server);
+                assertEquals(1, server.requestCount);
+                assertSame(responses.get(0).getBody(), responses.get(1).getBody());
+                int counted = ResponseLimits.getRetainedBytes() - retained;
+                assertTrue("the shared body is counted at most once", counted <= 25);
+                responses.get(0).release();
+                assertEquals(retained, ResponseLimits.getRetainedBytes());
+                finishTest();
+            });
+        });
+    }
+
+    public void testReleasedResponseDropsBrowserResponse() {
+        SealedResponse raw = new SealedResponse("{\"a\":1}", "Content-Type", "application/json");
+        StringHttpResponse text = new StringHttpResponse(raw);
+        JsonHttpResponse json = new JsonHttpResponse(raw, null);
+        ObjectHttpResponse<Double> object = new ObjectHttpResponse<Double>(raw, new Codec<Double>() {
+            @Override
+            public void write(JsonWriter out, Double value) {
+                out.beginObject().name("a").value(value).endObject();
+            }
+
+            @Override
+            public Double read(JsonNode node) {
+                return node.getNumber("a");
+            }
+        }, null);
+        // Anything the responses still needed from the browser response has been copied by now
+        raw.sealed = true;
+        text.release();
+        assertEquals("application/json", text.getHeaders().get("content-type"));
+        assertEquals(1.0, json.getBody().getNumber("a"), 0);
+        assertEquals("application/json", json.getHeaders().get("content-type"));
+        assertEquals(1.0, object.getBody(), 0);
+        object.release();
+        assertEquals("application/json", object.getHeaders().get("content-type"));
+        assertEquals(200, object.getStatus());
+    }
+
+    /**
+     * Browser response that fails the test when read after {@code sealed} is set.
+     */
+    static class SealedResponse extends TextResponse {
+        boolean sealed;
+
+        SealedResponse(String text, String... headers) {
+            super(200, text, headers);
+        }
+
+        private void check() {
+            assertFalse("the browser response was read after construction", sealed);
+        }
+
+        @Override
+        public String getText() {
+            check();
+            return super.getText();
+        }
+
+        @Override
+        public String getHeadersAsString() {
+            check();
+            return super.getHeadersAsString();
+        }
+
+        @Override
+        public String getHeader(String header) {
+            check();
+            return super.getHeader(header);
+        }
+    }
+
+    public void testResponseTooLargeRejects() {
+        delayTestFinish(5000);
+        HttpClient.get("https://jsonplaceholder.typicode.com/posts/1")
+                .maxResponseBytes(10)
+                .asString()
+                .then(response -> {
+                    fail("Expected the capped response to be rejected");
+                    finishTest();
+                    return null;
+                }, error -> {
+                    assertTrue("Unexpected error: " + error, error instanceof ResponseTooLargeException);
+                    assertEquals(10, ((ResponseTooLargeException) error).getLimitBytes());
+                    finishTest();
+                    return null;
+                });
+    }
+
+    public void testTimeoutWheel() {
+        double start = Duration.currentTimeMillis();
+        int before = TimeoutWheel.getPendingCount();
+        TimeoutWheel.Timeout cancelled = TimeoutWheel.schedule(100, () -> fail("Cancelled timeout fired"));
+        TimeoutWheel.schedule(150, () -> {
+            assertTrue(Duration.currentTimeMillis() - start >= 150);
+            assertEquals(before, TimeoutWheel.getPendingCount());
+            finishTest();
+        });
+        assertEquals(before + 2, TimeoutWheel.getPendingCount());
+        cancelled.cancel();
+        assertEquals(before + 1, TimeoutWheel.getPendingCount());
+        delayTestFinish(5000);
+    }
+
+    public void testRequestTimeout() {
+        delayTestFinish(5000);
+        double start = Duration.currentTimeMillis();
+        GetRequest slow = HttpClient.get(GWT.getModuleBaseURL() + "bench?latency=3000");
+        slow.setTimeout(200);
+        slow.asJson()
+                .then(response -> {
+                    fail("Expected the request to time out");
+                    finishTest();
+                    return null;
+                }, error -> {
+                    assertTrue("Unexpected error: " + error, error instanceof TimeoutException);
+                    assertEquals(200, ((TimeoutException) error).getTimeoutMillis());
+                    assertTrue(Duration.currentTimeMillis() - start >= 200);
+                    finishTest();
+                    return null;
+                });
+    }
+
+    public void testRequestTemplate() {
+        RequestTemplate template = HttpClient.template("GET", "https://api.example.com/users/{user}/posts/{id}")
+                .header("accept", "application/json")
+                .header("X-Client", "a")
+                .queryString("fields", "title,body")
+                .build();
+        PendingRequest request = template.bind("user", "a b/c").bind("id", 7)
+                .queryString("q", "x&y")
+                .header("Accept", "text/plain")
+                .header("x-client", "b")
+                .toPendingRequest();
+        assertEquals("https://api.example.com/users/a%20b%2Fc/posts/7?fields=title%2Cbody&q=x%26y", request.getUrl());
+        assertEquals("https://api.example.com/users/{user}/posts/{id}", request.getEndpoint());
+        assertEquals("text/plain", request.getHeader("accept"));
+        assertEquals(1, countHeaders(request, "accept"));
+        assertEquals("b", request.getHeader("X-Client"));
+        assertEquals(1, countHeaders(request, "x-client"));
+        assertEquals("application/json", request.getHeader("content-type"));
+        assertNull(request.getBody());
+
+        assertEquals("https://api.example.com/users/u/posts/1?fields=title%2Cbody",
+                template.bind("user", "u").bind("id", 1).toPendingRequest().getUrl());
+        try {
+            template.bind("id", 1).toPendingRequest();
+            fail("Expected an unbound variable to be rejected");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            template.bind("missing", 1);
+            fail("Expected an unknown variable to be rejected");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            HttpClient.template("GET", "/posts/{id").build();
+            fail("Expected an unterminated variable to be rejected");
+        } catch (IllegalArgumentException expected) {
+        }
+        PendingRequest post = HttpClient.template("POST", "/posts").build().newCall().toPendingRequest();
+        assertEquals("", post.getBody());
+    }
+
+    public void testBackendClient() {
+        BackendClient api = HttpClient.backend("https://api.example.com/v1/")
+                .header("X-Api-Key", "secret")
+                .setTimeout(5000)
+                .setMaxConcurrentRequests(2)
+                .build();
+        assertEquals("https://api.example.com/v1/posts", api.resolve("/posts"));
+        assertEquals("https://api.example.com/v1/posts", api.resolve("posts"));
+        assertEquals("https://other.example.com/x", api.resolve("https://other.example.com/x"));
+        assertEquals("https://api.example.com/v1/a?u=http://b", api.resolve("a?u=http://b"));
+
+        PendingRequest request = api.get("posts/1").header("Accept", "text/plain").newPendingRequest("GET", null);
+        assertEquals("https://api.example.com/v1/posts/1", request.getUrl());
+        assertEquals("secret", request.getHeader("x-api-key"));
+        assertEquals("text/plain", request.getHeader("accept"));
+        assertEquals(1, countHeaders(request, "accept"));
+        assertEquals(5000, request.getTimeoutMillis());
+        assertNotNull(request.getPool());
+        assertEquals(2, api.getMaxConcurrentRequests());
+        assertEquals(0, api.getQueuedCount());
+
+        PendingRequest templated = api.template("GET", "/posts/{id}").build().bind("id", 7).toPendingRequest();
+        assertEquals("https://api.example.com/v1/posts/7", templated.getUrl());
+        assertEquals("secret", templated.getHeader("X-Api-Key"));
+        assertSame(request.getPool(), templated.getPool());
+        assertNull(HttpClient.get("/posts").newPendingRequest("GET", null).getPool());
+    }
+
+    public void testRequestPoolOrder() {
+        RequestPool pool = new RequestPool(2);
+        String url = GWT.getModuleBaseURL() + "bench?latency=200&n=";
+        List<PendingRequest> requests = new ArrayList<PendingRequest>();
+        List<Integer> completed = new ArrayList<Integer>();
+        delayTestFinish(10000);
+        for (int i = 0; i < 4; i++) {
+            int n = i;
+            PendingRequest request = new PendingRequest("GET", url + i, null, 0);
+            requests.add(request);
+            pool.send(request, new RequestCallback() {
+                @Override
+                public void onResponseReceived(Request req, Response res) {
+                    if (completed.isEmpty()) {
+                        // The first free slot goes to the oldest waiting request
+                        assertTrue(requests.get(2).getSentMillis() > 0);
+                        assertEquals(0.0, requests.get(3).getSentMillis());
+                        assertEquals(1, pool.getQueuedCount());
+                    }
+                    completed.add(n);
+                    assertTrue(pool.getInFlight() <= 2);
+                    if (completed.size() == 4) {
+                        assertEquals(0, pool.getInFlight());
+                        finishTest();
+                    }
+                }
+
+                @Override
+                public void onError(Request req, Throwable exception) {
+                    fail(String.valueOf(exception));
+                }
+            });
+        }
+        assertEquals(2, pool.getInFlight());
+        assertEquals(2, pool.getQueuedCount());
+        assertEquals("a queued request is not sent yet", 0.0, requests.get(2).getSentMillis());
+    }
+
+    public void testRequestPoolIsolation() {
+        BackendClient slow = HttpClient.backend(GWT.getModuleBaseURL()).setMaxConcurrentRequests(1).build();
+        BackendClient fast = HttpClient.backend(GWT.getModuleBaseURL()).setMaxConcurrentRequests(1).build();
+        slow.get("bench?latency=1000").asString();
+        slow.get("bench?latency=1000").asString();
+        assertEquals(1, slow.getInFlight());
+        assertEquals(1, slow.getQueuedCount());
+        delayTestFinish(10000);
+        fast.get("bench").asString().then(response -> {
+            assertEquals(200, response.getStatus());
+            assertEquals("the slow client's queue does not hold up other clients", 1, slow.getQueuedCount());
+            finishTest();
+            return null;
+        });
+    }
+
+    private static int countHeaders(PendingRequest request, String name) {
+        int count = 0;
+        for (String key : request.getHeaders().keySet()) {
+            if (key.equalsIgnoreCase(name)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void testBlobUrlsRefCounting() {
+        resetBlobUrls();
+        String url = BlobUrls.create(blob(10));
+        assertEquals(url, BlobUrls.retain(url));
+        BlobUrls.release(url);
+        assertEquals(1, BlobUrls.getLiveCount());
+        assertEquals(10.0, BlobUrls.getLiveBytes());
+        BlobUrls.release(url);
+        assertEquals(0, BlobUrls.getLiveCount());
+        assertEquals(0.0, BlobUrls.getLiveBytes());
+        assertNull(BlobUrls.retain(url));
+        assertFalse(BlobUrls.revoke(url));
+
+        BlobUrls.Scope scope = BlobUrls.openScope();
+        String shared = scope.create(blob(1));
+        String owned = scope.create(blob(1));
+        BlobUrls.retain(shared);
+        scope.close();
+        assertEquals("a URL retained outside the scope outlives it",
+                Arrays.asList(shared), Arrays.asList(BlobUrls.getLiveUrls()));
+        scope.close();
+        assertEquals(1, BlobUrls.getLiveCount());
+        assertNull(BlobUrls.retain(owned));
+        try {
+            scope.create(blob(1));
+            fail("expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+            // closed scope
+        }
+        assertEquals(1, BlobUrls.getLiveCount());
+        BlobUrls.release(shared);
+        assertEquals(0, BlobUrls.getLiveCount());
+    }
+
+    public void testBlobUrlsEviction() {
+        resetBlobUrls();
+        int revoked = BlobUrls.getRevokedCount();
+        String a = BlobUrls.create(blob(1));
+        String b = BlobUrls.create(blob(1));
+        String c = BlobUrls.create(blob(1));
+        BlobUrls.setMaxLiveUrls(2);
+        assertEquals(Arrays.asList(b, c), Arrays.asList(BlobUrls.getLiveUrls()));
+        String d = BlobUrls.create(blob(1));
+        assertEquals(Arrays.asList(c, d), Arrays.asList(BlobUrls.getLiveUrls()));
+        assertEquals(revoked + 2, BlobUrls.getRevokedCount());
+        assertNull(BlobUrls.retain(a));
+
+        resetBlobUrls();
+        BlobUrls.setMaxLiveBytes(10);
+        String small = BlobUrls.create(blob(4));
+        String large = BlobUrls.create(blob(20));
+        assertEquals("the new URL is kept even when it alone exceeds the cap",
+                Arrays.asList(large), Arrays.asList(BlobUrls.getLiveUrls()));
+        assertNull(BlobUrls.retain(small));
+        assertEquals(20.0, BlobUrls.getLiveBytes());
+        String next = BlobUrls.create(blob(1));
+        assertEquals(Arrays.asList(next), Arrays.asList(BlobUrls.getLiveUrls()));
+        assertEquals(1.0, BlobUrls.getLiveBytes());
+        resetBlobUrls();
+    }
+
+    public void testBlobUrlsMaxAge() {
+        resetBlobUrls();
+        String expiring = BlobUrls.create(blob(1), 50);
+        BlobUrls.setDefaultMaxAgeMillis(100);
+        String byDefault = BlobUrls.create(blob(1));
+        BlobUrls.setDefaultMaxAgeMillis(0);
+        String unlimited = BlobUrls.create(blob(1));
+        assertEquals("maximum age applies even to referenced URLs", byDefault, BlobUrls.retain(byDefault));
+        delayTestFinish(5000);
+        Scheduler.get().scheduleFixedDelay(() -> {
+            assertNull(BlobUrls.retain(expiring));
+            assertNull(BlobUrls.retain(byDefault));
+            assertEquals(Arrays.asList(unlimited), Arrays.asList(BlobUrls.getLiveUrls()));
+            resetBlobUrls();
+            finishTest();
+            return false;
+        }, 300);
+    }
+
+    private static void resetBlobUrls() {
+        BlobUrls.setMaxLiveUrls(0);
+        BlobUrls.setMaxLiveBytes(0);
+        BlobUrls.setDefaultMaxAgeMillis(0);
+        BlobUrls.revokeAll();
+    }
+
+    private static native Blob blob(int size) /*-{
+        return new $wnd.Blob([new $wnd.Uint8Array(size)]);
+    }-*/;
+
+    public void testCodecRoundTrip() {
+        Codec<String> name = new Codec<String>() {
+            @Override
+            public void write(JsonWriter out, String value) {
+                out.beginObject().name("name").value(value).name("n").value(1).endObject();
+            }
+
+            @Override
+            public String read(JsonNode node) {
+                return node.getString("name");
+            }
+        };
+        Codec<List<String>> names = Codecs.listOf(name);
+        String json = names.encode(Arrays.asList("a\"b", null));
+        assertEquals("[{\"name\":\"a\\\"b\",\"n\":1},null]", json);
+        List<String> decoded = names.decode(json);
+        assertEquals("a\"b", decoded.get(0));
+        assertNull(decoded.get(1));
+    }
     /*
      * Keeping these tests commented out as they either don't fit well with the jsonplaceholder API
      * or are for functionality we're not currently testing (like binary responses)
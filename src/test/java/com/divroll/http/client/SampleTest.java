@@ -22,7 +22,7 @@ import com.google.gwt.user.client.Window;
 public class SampleTest extends GWTTestCase {
     @Override
     public String getModuleName() {
-        return "com.divroll.http.HttpClient";
+        return "com.divroll.http.HttpClientTest";
     }
     public void test() {
         //Window.alert("Sample Test");
@@ -0,0 +1,102 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import com.google.gwt.http.client.Request;
+import com.google.gwt.http.client.RequestCallback;
+import com.google.gwt.http.client.Response;
+
+/**
+ * Interceptor chain for tests: records what the interceptor passed on and lets
+ * the test answer it later, as the network would.
+ */
+class TestChain implements Interceptor.Chain {
+    private final PendingRequest request;
+    private final RequestCallback callback;
+    private RequestCallback proceeded;
+    private int proceedCount;
+
+    TestChain(PendingRequest request, RequestCallback callback) {
+        this.request = request;
+        this.callback = callback;
+    }
+
+    TestChain(PendingRequest request) {
+        this(request, new RecordingCallback());
+    }
+
+    @Override
+    public PendingRequest request() {
+        return request;
+    }
+
+    @Override
+    public RequestCallback callback() {
+        return callback;
+    }
+
+    @Override
+    public void proceed(RequestCallback callback) {
+        proceeded = callback;
+        proceedCount++;
+    }
+
+    boolean isProceeded() {
+        return proceeded != null;
+    }
+
+    /**
+     * @return the callback the interceptor passed on, or null if it did not proceed
+     */
+    RequestCallback proceeded() {
+        return proceeded;
+    }
+
+    int getProceedCount() {
+        return proceedCount;
+    }
+
+    void respond(Response response) {
+        proceeded.onResponseReceived(null, response);
+    }
+
+    void fail(Throwable exception) {
+        proceeded.onError(null, exception);
+    }
+
+    /**
+     * @return the callback given to the chain, if it was created without one
+     */
+    RecordingCallback result() {
+        return (RecordingCallback) callback;
+    }
+
+    static class RecordingCallback implements RequestCallback {
+        Response response;
+        Throwable error;
+
+        @Override
+        public void onResponseReceived(Request request, Response response) {
+            this.response = response;
+        }
+
+        @Override
+        public void onError(Request request, Throwable exception) {
+            this.error = exception;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.client;
+
+import com.google.gwt.http.client.Header;
+import com.google.gwt.http.client.Response;
+
+/**
+ * Canned browser response for tests that answer requests without the network.
+ */
+class TextResponse extends Response {
+    private final int status;
+    private final String text;
+    private final String[] headers;
+
+    /**
+     * @param headers alternating header names and values
+     */
+    TextResponse(int status, String text, String... headers) {
+        this.status = status;
+        this.text = text;
+        this.headers = headers;
+    }
+
+    TextResponse(String text) {
+        this(200, text);
+    }
+
+    @Override
+    public String getHeader(String header) {
+        for (int i = 0; i < headers.length; i += 2) {
+            if (headers[i].equalsIgnoreCase(header)) {
+                return headers[i + 1];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Header[] getHeaders() {
+        Header[] result = new Header[headers.length / 2];
+        for (int i = 0; i < result.length; i++) {
+            final String name = headers[2 * i];
+            final String value = headers[2 * i + 1];
+            result[i] = new Header() {
+                @Override
+                public String getName() {
+                    return name;
+                }
+
+                @Override
+                public String getValue() {
+                    return value;
+                }
+            };
+        }
+        return result;
+    }
+
+    @Override
+    public String getHeadersAsString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < headers.length; i += 2) {
+            sb.append(headers[i]).append(": ").append(headers[i + 1]).append("\r\n");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public int getStatusCode() {
+        return status;
+    }
+
+    @Override
+    public String getStatusText() {
+        return status == 200 ? "OK" : "";
+    }
+
+    @Override
+    public String getText() {
+        return text;
+    }
+}
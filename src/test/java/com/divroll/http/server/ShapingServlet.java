@@ -0,0 +1,157 @@
+/*
+ *  Divroll, Platform for Hosting Static Sites
+ *  Copyright 2025, Divroll, and individual contributors
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.divroll.http.server;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Local endpoint for the in-browser benchmarks, served by the GWT test shell.
+ * Query parameters shape each response:
+ * <ul>
+ *   <li>{@code latency} – delay before the first byte, in ms</li>
+ *   <li>{@code size} – approximate JSON body size in bytes</li>
+ *   <li>{@code kbps} – bandwidth limit for the body, in KiB/s</li>
+ *   <li>{@code errorRate} – probability of answering 503 instead</li>
+ * </ul>
+ * {@code op=baseline} returns the stored baselines and {@code op=results}
+ * (POST) stores a scenario's results under {@code target/benchmark-results}.
+ */
+public class ShapingServlet extends HttpServlet {
+    private static final int CHUNK = 16 * 1024;
+    private static final String RESULTS_DIR = "target/benchmark-results";
+
+    private final Random random = new Random();
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        if ("baseline".equals(req.getParameter("op"))) {
+            writeBaselines(resp);
+            return;
+        }
+        sleep(longParam(req, "latency", 0));
+        double errorRate = doubleParam(req, "errorRate", 0);
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+        writeJson(resp.getOutputStream(), longParam(req, "size", 64), longParam(req, "kbps", 0));
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        if (!"results".equals(req.getParameter("op"))) {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        String scenario = req.getParameter("scenario").replaceAll("[^A-Za-z0-9_-]", "_");
+        File dir = new File(RESULTS_DIR);
+        dir.mkdirs();
+        try (Reader in = req.getReader();
+             OutputStream out = new FileOutputStream(new File(dir, scenario + ".json"))) {
+            char[] buf = new char[4096];
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                out.write(new String(buf, 0, n).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        resp.setStatus(HttpServletResponse.SC_NO_CONTENT);
+    }
+
+    private void writeBaselines(HttpServletResponse resp) throws IOException {
+        resp.setContentType("application/json");
+        try (InputStream in = getClass().getResourceAsStream("/benchmark-baselines.json")) {
+            OutputStream out = resp.getOutputStream();
+            if (in == null) {
+                out.write("{}".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            byte[] buf = new byte[4096];
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                out.write(buf, 0, n);
+            }
+        }
+    }
+
+    /**
+     * Writes a JSON array of small objects, padded to roughly {@code size} bytes,
+     * in chunks paced to the bandwidth limit.
+     */
+    private void writeJson(OutputStream out, long size, long kbps) throws IOException {
+        StringBuilder chunk = new StringBuilder(CHUNK + 128);
+        long written = 0;
+        int id = 0;
+        chunk.append('[');
+        do {
+            if (id > 0) {
+                chunk.append(',');
+            }
+            chunk.append("{\"id\":").append(id++).append(",\"title\":\"item ").append(id)
+                    .append("\",\"body\":\"lorem ipsum dolor sit amet consectetur\"}");
+            if (chunk.length() >= CHUNK) {
+                written += flush(out, chunk, kbps);
+            }
+        } while (written + chunk.length() < size);
+        chunk.append(']');
+        flush(out, chunk, kbps);
+    }
+
+    private long flush(OutputStream out, StringBuilder chunk, long kbps) throws IOException {
+        byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+        chunk.setLength(0);
+        out.write(bytes);
+        out.flush();
+        if (kbps > 0) {
+            sleep(bytes.length * 1000L / (kbps * 1024));
+        }
+        return bytes.length;
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long longParam(HttpServletRequest req, String name, long defaultValue) {
+        String value = req.getParameter(name);
+        return value != null ? Long.parseLong(value) : defaultValue;
+    }
+
+    private static double doubleParam(HttpServletRequest req, String name, double defaultValue) {
+        String value = req.getParameter(name);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+}